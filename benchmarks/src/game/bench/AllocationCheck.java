@@ -0,0 +1,159 @@
+package game.bench;
+
+import game.GameController;
+import game.GameModel;
+import game.core.ObjectPools;
+import game.core.Ship;
+import game.simulation.HeadlessUI;
+import game.utility.LogLevel;
+import game.utility.Logger;
+
+import com.sun.management.HotSpotDiagnosticMXBean;
+import com.sun.management.ThreadMXBean;
+
+import java.lang.management.ManagementFactory;
+
+/**
+ * Checks that a steady-state game does not allocate per tick, using the JVM's count of the bytes
+ * allocated by the current thread.
+ *
+ * A seeded game with object pools is driven through GameController the way a UI drives it: the
+ * player fires every other tick and patrols the whole board between shots, while objects spawn,
+ * collide and leave the board. After a warm-up long enough for the tick to be compiled and for the
+ * spawn rate, lists, pools and grid to reach their working size, the measured ticks must allocate
+ * less than MAX_BYTES_PER_TICK on average. The budget allows for the odd object or list that
+ * grows when the population reaches a new peak, while anything allocated on every tick, such as a
+ * frame or a capturing lambda, exceeds it. The game is run with and without scheduled updates,
+ * and with array storage.
+ * Only warnings are logged, as building an enabled message allocates its text; rendering is left
+ * out for the same reason, as the UI is given a new string whenever a stat changes.
+ *
+ * Must be run with -XX:-DoEscapeAnalysis. Otherwise the JIT removes allocations it can prove do
+ * not escape, such as a lambda passed to a disabled logger, but whether it can depends on inlining
+ * decisions that differ in the full game, so the check would miss them.
+ */
+public final class AllocationCheck {
+    /** The average number of bytes a measured tick may allocate. */
+    public static final double MAX_BYTES_PER_TICK = 1.0;
+
+    private AllocationCheck() {
+    }
+
+    /**
+     * Discards every message, and reports only warnings and errors as enabled.
+     */
+    private static class WarningsOnly implements Logger {
+
+        @Override
+        public void log(String text) {
+        }
+
+        @Override
+        public boolean isEnabled(LogLevel level) {
+            return level.isAtLeast(LogLevel.WARN);
+        }
+    }
+
+    /**
+     * Plays a game and measures the bytes allocated by the ticks after the warm-up.
+     *
+     * @param scheduled Whether the model only ticks objects that are due.
+     * @param arrayStorage Whether the model keeps its objects in an EntityStore.
+     * @param warmupTicks The number of ticks to run before measuring.
+     * @param measuredTicks The number of ticks to measure.
+     * @return The bytes allocated by the measured ticks.
+     */
+    public static long allocatedBytes(boolean scheduled, boolean arrayStorage, int warmupTicks,
+                                      int measuredTicks) {
+        GameModel model = new GameModel(new WarningsOnly());
+        model.setObjectPools(new ObjectPools(1024));
+        model.setScheduledUpdates(scheduled);
+        model.setArrayStorage(arrayStorage);
+        model.setRandomSeed(0);
+        GameController controller = new GameController(new HeadlessUI(), model);
+        ThreadMXBean threads = (ThreadMXBean) ManagementFactory.getThreadMXBean();
+
+        int tick = 0;
+        for (; tick < warmupTicks; tick++) {
+            play(controller, model, tick);
+        }
+        long before = threads.getCurrentThreadAllocatedBytes();
+        for (int end = tick + measuredTicks; tick < end; tick++) {
+            play(controller, model, tick);
+        }
+        return threads.getCurrentThreadAllocatedBytes() - before;
+    }
+
+    /**
+     * Fires on even ticks, and on odd ticks moves the ship one cell towards its patrol route.
+     * Power-ups never move, so the ship has to collect them or the world would keep growing.
+     */
+    private static void play(GameController controller, GameModel model, int tick) {
+        if (tick % 2 == 0) {
+            controller.handlePlayerInput("F");
+        } else {
+            String move = patrol(model.getShip(), tick / 2);
+            if (move != null) {
+                controller.handlePlayerInput(move);
+            }
+        }
+        controller.stepGame(tick);
+    }
+
+    /**
+     * Gets the move towards the step'th cell of a route that runs up and down every column of
+     * the board in turn, then back again.
+     */
+    private static String patrol(Ship ship, int step) {
+        int cells = GameModel.GAME_WIDTH * GameModel.GAME_HEIGHT;
+        int cell = step % (2 * cells);
+        if (cell >= cells) {
+            cell = 2 * cells - 1 - cell;
+        }
+        int column = cell / GameModel.GAME_HEIGHT;
+        int row = cell % GameModel.GAME_HEIGHT;
+        if (column % 2 == 1) {
+            row = GameModel.GAME_HEIGHT - 1 - row;
+        }
+        if (ship.getX() != column) {
+            return ship.getX() < column ? "D" : "A";
+        }
+        if (ship.getY() != row) {
+            return ship.getY() < row ? "S" : "W";
+        }
+        return null;
+    }
+
+    /**
+     * Runs the check and exits with status 1 if the measured ticks allocated more than the budget.
+     * Usage: java -XX:-DoEscapeAnalysis AllocationCheck [warmupTicks] [measuredTicks]
+     *
+     * @param args The optional number of warm-up and measured ticks.
+     */
+    public static void main(String[] args) {
+        HotSpotDiagnosticMXBean vm = ManagementFactory.getPlatformMXBean(
+                HotSpotDiagnosticMXBean.class);
+        if (Boolean.parseBoolean(vm.getVMOption("DoEscapeAnalysis").getValue())) {
+            System.err.println("Run with -XX:-DoEscapeAnalysis to see every allocation");
+            System.exit(2);
+        }
+        int warmupTicks = args.length > 0 ? Integer.parseInt(args[0]) : 100_000;
+        int measuredTicks = args.length > 1 ? Integer.parseInt(args[1]) : 50_000;
+        boolean failed = false;
+        boolean[][] configurations = {{false, false}, {true, false}, {false, true}};
+        for (boolean[] configuration : configurations) {
+            boolean scheduled = configuration[0];
+            boolean arrayStorage = configuration[1];
+            long bytes = allocatedBytes(scheduled, arrayStorage, warmupTicks, measuredTicks);
+            System.out.printf("scheduled=%b arrays=%b ticks=%d allocated=%d bytes"
+                            + " (%.3f per tick)%n", scheduled, arrayStorage, measuredTicks, bytes,
+                    (double) bytes / measuredTicks);
+            failed |= bytes > MAX_BYTES_PER_TICK * measuredTicks;
+        }
+        if (failed) {
+            System.err.println("Steady-state ticks allocated more than " + MAX_BYTES_PER_TICK
+                    + " bytes per tick");
+            System.exit(1);
+        }
+    }
+}
@@ -0,0 +1,159 @@
+package game.bench;
+
+import game.GameModel;
+import game.core.Asteroid;
+import game.core.Bullet;
+import game.core.Enemy;
+import game.core.EntityStore;
+import game.core.HealthPowerUp;
+import game.core.ObjectWithPosition;
+import game.core.ShieldPowerUp;
+import game.core.SpaceObject;
+
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Builds GameModels populated with a fixed, reproducible set of space objects for benchmarking.
+ */
+final class BenchmarkWorlds {
+
+    private BenchmarkWorlds() {
+    }
+
+    /**
+     * Creates a model holding the given number of objects, placed on the board with a fixed seed.
+     *
+     * @param count The number of space objects to add.
+     * @param mix Which objects to add: bullets, enemies, asteroids, powerups, or mixed for an
+     *            equal share of each.
+     * @param arrayStorage Whether the model keeps its objects in an EntityStore.
+     * @return A model that discards log messages.
+     */
+    static GameModel create(int count, String mix, boolean arrayStorage) {
+        GameModel model = new GameModel(text -> { });
+        model.setArrayStorage(arrayStorage);
+        model.setRandomSeed(0);
+        Random random = new Random(count);
+        for (int i = 0; i < count; i++) {
+            int x = random.nextInt(GameModel.GAME_WIDTH);
+            int y = random.nextInt(GameModel.GAME_HEIGHT);
+            model.addObject(create(mix, i, x, y));
+        }
+        return model;
+    }
+
+    /**
+     * Remembers a model's objects and where they are, so they can be put back after a
+     * benchmarked call has moved, removed or added objects. A copy of each object is kept,
+     * so its previous position survives too and moving objects still have a path to sweep.
+     * Only restore() allocates, a fresh copy of each object, and it is meant for setup.
+     * With array storage, a copy of the model's store is kept and copied back instead.
+     */
+    static final class Population {
+        private final EntityStore store; // the model's store, or null without array storage
+        private final EntityStore savedStore;
+        private final List<SpaceObject> objects;
+        private final ObjectWithPosition[] originals; // never handed to the model
+        private final ObjectWithPosition[] saved;
+
+        /**
+         * Records the model's current objects and their positions.
+         *
+         * @param model A model holding only ObjectWithPositions or an EntityStore, such as one
+         *              from create().
+         */
+        Population(GameModel model) {
+            store = model.getEntityStore();
+            savedStore = store == null ? null : store.copy();
+            objects = store == null ? model.getSpaceObjects() : List.of();
+            int count = objects.size();
+            originals = new ObjectWithPosition[count];
+            saved = new ObjectWithPosition[count];
+            for (int i = 0; i < count; i++) {
+                saved[i] = (ObjectWithPosition) objects.get(i);
+                originals[i] = saved[i].copy();
+            }
+        }
+
+        /**
+         * Puts copies of the recorded objects in the model, in their recorded positions and
+         * with their recorded previous positions, and drops any others.
+         */
+        void restore() {
+            if (store != null) {
+                store.copyFrom(savedStore);
+                return;
+            }
+            for (int i = 0; i < saved.length; i++) {
+                // setFixedPosition() would also reset the previous position, so copy instead.
+                saved[i] = originals[i].copy();
+            }
+            restoreObjects();
+        }
+
+        /**
+         * Puts back any recorded object that was removed and drops any others, leaving every
+         * object where it is. Costs one list write per object, or copying the store's arrays,
+         * far less than any call that visits the objects.
+         */
+        void restoreObjects() {
+            if (store != null) {
+                store.copyFrom(savedStore);
+                return;
+            }
+            objects.clear();
+            for (int i = 0; i < saved.length; i++) {
+                objects.add(saved[i]);
+            }
+        }
+
+        /**
+         * Drops the objects added after the recorded ones, which costs time in proportion to
+         * the number added rather than the number recorded.
+         */
+        void dropAdded() {
+            if (store != null) {
+                // Nothing was removed from the recorded store, so added entities are above it.
+                for (int slot = store.getSlotCount() - 1; slot >= savedStore.getSlotCount();
+                     slot--) {
+                    if (store.isLive(slot)) {
+                        store.remove(slot);
+                    }
+                }
+                return;
+            }
+            for (int i = objects.size() - 1; i >= saved.length; i--) {
+                objects.remove(i);
+            }
+        }
+    }
+
+    private static SpaceObject create(String mix, int i, int x, int y) {
+        switch (mix) {
+            case "bullets":
+                return new Bullet(x, y);
+            case "enemies":
+                return new Enemy(x, y);
+            case "asteroids":
+                return new Asteroid(x, y);
+            case "powerups":
+                return i % 2 == 0 ? new HealthPowerUp(x, y) : new ShieldPowerUp(x, y);
+            case "mixed":
+                switch (i % 5) {
+                    case 0:
+                        return new Bullet(x, y);
+                    case 1:
+                        return new Enemy(x, y);
+                    case 2:
+                        return new Asteroid(x, y);
+                    case 3:
+                        return new HealthPowerUp(x, y);
+                    default:
+                        return new ShieldPowerUp(x, y);
+                }
+            default:
+                throw new IllegalArgumentException("Unknown object mix: " + mix);
+        }
+    }
+}
@@ -0,0 +1,129 @@
+package game.bench;
+
+import game.GameModel;
+import game.core.Asteroid;
+import game.core.Bullet;
+import game.core.Enemy;
+import game.core.HealthPowerUp;
+import game.core.ShieldPowerUp;
+import game.core.SpaceObject;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.util.Random;
+
+/**
+ * Measures the heap each space object costs with the objects kept as a list of objects and
+ * with array storage (see GameModel.setArrayStorage()).
+ *
+ * A model in a world large enough to keep the objects apart is filled with an equal share of
+ * each type of object, placed with a fixed seed, and the heap in use is compared with that of
+ * the empty model after a full collection. The cost is measured once the objects are added,
+ * which is what storing them costs, and again after a tick, which adds the collision grid and
+ * the other scratch space a tick grows to. The model is kept reachable until after each
+ * measurement, so nothing it holds is collected early.
+ */
+public final class EntityMemory {
+    /** The side of the square world the objects are placed in. */
+    private static final int WORLD_SIZE = 4096;
+
+    private EntityMemory() {
+    }
+
+    /**
+     * The bytes per object measured for one kind of storage.
+     */
+    static final class Result {
+        final double stored;
+        final double afterTick;
+
+        Result(double stored, double afterTick) {
+            this.stored = stored;
+            this.afterTick = afterTick;
+        }
+    }
+
+    /**
+     * Fills a model with the given number of objects and measures the heap they take.
+     *
+     * @param count The number of objects.
+     * @param arrayStorage Whether the model keeps its objects in an EntityStore.
+     * @return The bytes per object, once stored and after a tick.
+     */
+    static Result measure(int count, boolean arrayStorage) {
+        GameModel model = new GameModel(text -> { }, WORLD_SIZE, WORLD_SIZE);
+        model.setArrayStorage(arrayStorage);
+        long empty = usedHeap();
+
+        Random random = new Random(count);
+        for (int i = 0; i < count; i++) {
+            // Keep clear of the top and bottom rows, so no object leaves the world in the tick.
+            int x = random.nextInt(WORLD_SIZE);
+            int y = 1 + random.nextInt(WORLD_SIZE - 2);
+            model.addObject(create(i, x, y));
+        }
+        long stored = usedHeap();
+
+        model.updateGame(10);
+        model.checkCollisions();
+        long afterTick = usedHeap();
+        if (model.getObjectCount() == 0) {
+            throw new IllegalStateException("Every object was removed");
+        }
+        return new Result((double) (stored - empty) / count,
+                (double) (afterTick - empty) / model.getObjectCount());
+    }
+
+    private static SpaceObject create(int i, int x, int y) {
+        switch (i % 5) {
+            case 0:
+                return new Bullet(x, y);
+            case 1:
+                return new Enemy(x, y);
+            case 2:
+                return new Asteroid(x, y);
+            case 3:
+                return new HealthPowerUp(x, y);
+            default:
+                return new ShieldPowerUp(x, y);
+        }
+    }
+
+    /**
+     * Returns the heap in use after collecting garbage until it stops shrinking.
+     */
+    private static long usedHeap() {
+        MemoryMXBean memory = ManagementFactory.getMemoryMXBean();
+        long used = Long.MAX_VALUE;
+        for (int i = 0; i < 10; i++) {
+            System.gc();
+            long now = memory.getHeapMemoryUsage().getUsed();
+            if (now >= used) {
+                break;
+            }
+            used = now;
+        }
+        return used;
+    }
+
+    /**
+     * Prints the bytes per object with each kind of storage, and how many times smaller
+     * array storage is.
+     * Usage: EntityMemory [objects]
+     *
+     * @param args The optional number of objects, 131072 by default.
+     */
+    public static void main(String[] args) {
+        int count = args.length > 0 ? Integer.parseInt(args[0]) : 131_072;
+        measure(count / 8, false); // warm up, so class loading is not counted
+        measure(count / 8, true);
+        Result objects = measure(count, false);
+        Result arrays = measure(count, true);
+        System.out.printf("objects=%d list: %.1f bytes stored, %.1f after a tick%n",
+                count, objects.stored, objects.afterTick);
+        System.out.printf("objects=%d arrays: %.1f bytes stored, %.1f after a tick%n",
+                count, arrays.stored, arrays.afterTick);
+        System.out.printf("arrays are %.1fx smaller stored, %.1fx after a tick%n",
+                objects.stored / arrays.stored, objects.afterTick / arrays.afterTick);
+    }
+}
@@ -0,0 +1,187 @@
+package game.bench;
+
+import game.GameController;
+import game.GameModel;
+import game.simulation.HeadlessUI;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the per-tick hot paths of GameModel and GameController at several entity counts
+ * and object mixes, with the objects kept as a list of objects or in an EntityStore's arrays
+ * (see GameModel.setArrayStorage()). Each benchmark is run for throughput and as sampled latency, so results
+ * include percentiles; run through main() to add the gc profiler's allocation rates.
+ *
+ * The model is built once per trial and every call sees the same population, without a
+ * per-invocation setup, whose own overhead would swamp the smaller worlds:
+ * - updateGame advances a real tick counter, so asteroids and enemies move on every tenth call
+ *   as in a game. It never removes objects, so the same objects are ticked on every call, and
+ *   they are put back where they started before each iteration.
+ * - checkCollisions runs on the objects as they are after one tick, so moving objects are
+ *   swept along their paths. Collisions only remove objects, so each call first puts back any
+ *   it removed, which costs a list write per object, or an array copy with array storage.
+ * - spawnObjects and fireBullet drop whatever they added after each call.
+ */
+@State(Scope.Thread)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class GameModelBenchmark {
+
+    @Param({"10", "1000", "100000"})
+    private int entities;
+
+    @Param({"bullets", "enemies", "asteroids", "powerups", "mixed"})
+    private String mix;
+
+    @Param({"objects", "arrays"})
+    private String storage;
+
+    private GameModel model;
+    private GameController controller;
+    private BenchmarkWorlds.Population population;
+    private int tick;
+
+    /**
+     * Builds the model and a controller rendering to a UI that draws nothing, and runs a tick
+     * on which every object moves, so moving objects have a path to sweep.
+     */
+    @Setup(Level.Trial)
+    public void setUp() {
+        model = BenchmarkWorlds.create(entities, mix, storage.equals("arrays"));
+        controller = new GameController(new HeadlessUI(), model);
+        model.updateGame(10);
+        population = new BenchmarkWorlds.Population(model);
+    }
+
+    /**
+     * Puts the model's objects back as they were after setUp() and restarts the tick counter.
+     */
+    @Setup(Level.Iteration)
+    public void restorePopulation() {
+        population.restore();
+        tick = 11;
+    }
+
+    /**
+     * Ticks every object at the next tick, marking those that leave the board for removal.
+     *
+     * @return The model, so the work cannot be eliminated.
+     */
+    @Benchmark
+    public GameModel updateGame() {
+        model.updateGame(tick++);
+        return model;
+    }
+
+    /**
+     * Resolves ship and bullet/enemy collisions and removes objects that were hit or left the
+     * board.
+     *
+     * @return The model, so the work cannot be eliminated.
+     */
+    @Benchmark
+    public GameModel checkCollisions() {
+        population.restoreObjects();
+        model.checkCollisions();
+        return model;
+    }
+
+    /**
+     * Rolls for and spawns new objects.
+     *
+     * @return The model, so the work cannot be eliminated.
+     */
+    @Benchmark
+    public GameModel spawnObjects() {
+        model.spawnObjects();
+        population.dropAdded();
+        return model;
+    }
+
+    /**
+     * Fires a bullet from the ship.
+     *
+     * @return The model, so the work cannot be eliminated.
+     */
+    @Benchmark
+    public GameModel fireBullet() {
+        model.fireBullet();
+        population.dropAdded();
+        return model;
+    }
+
+    /**
+     * Forks the model, sharing its objects with the copy.
+     *
+     * @return The fork, so the work cannot be eliminated.
+     */
+    @Benchmark
+    public GameModel fork() {
+        return model.fork();
+    }
+
+    /**
+     * Forks the model and steps the fork through a tick on which asteroids and enemies move,
+     * as the autopilot does for every move it considers.
+     *
+     * @return The fork, so the work cannot be eliminated.
+     */
+    @Benchmark
+    public GameModel forkAndStep() {
+        GameModel fork = model.fork();
+        fork.updateGame(10);
+        fork.checkCollisions();
+        fork.spawnObjects();
+        fork.levelUp();
+        return fork;
+    }
+
+    /**
+     * Sends the stats and every object to the UI.
+     *
+     * @return The controller, so the work cannot be eliminated.
+     */
+    @Benchmark
+    public GameController renderGame() {
+        controller.renderGame();
+        return controller;
+    }
+
+    /**
+     * Runs every benchmark in this class with the gc profiler, reporting throughput,
+     * latency percentiles and allocation rate.
+     * Any arguments are passed to JMH as an include pattern.
+     *
+     * @param args An optional benchmark name pattern.
+     * @throws RunnerException If the benchmarks fail to run.
+     */
+    public static void main(String[] args) throws RunnerException {
+        String include = args.length > 0 ? args[0] : GameModelBenchmark.class.getSimpleName();
+        Options options = new OptionsBuilder()
+                .include(include)
+                .addProfiler(GCProfiler.class)
+                .build();
+        new Runner(options).run();
+    }
+}
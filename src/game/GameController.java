@@ -1,14 +1,27 @@
 package game;
 
 import game.core.*;
+import game.exceptions.BoundaryExceededException;
 import game.GameModel;
+import game.metrics.TickMetrics;
+import game.metrics.TickPhase;
+import game.metrics.TickRecorder;
+import game.render.FrameSnapshot;
+import game.render.DeltaListener;
+import game.render.DeltaTracker;
+import game.simulation.InputRecorder;
+import game.simulation.StateChecksum;
+import game.utility.Command;
+import game.utility.CommandQueue;
 import game.ui.UI;
 import game.utility.Direction;
+import game.utility.LogLevel;
+import game.utility.Logger;
 
 import java.util.ArrayList;
 import java.util.List;
-import java.util.Locale;
 import java.util.Map;
+import java.util.function.Consumer;
 
 /**
  * The Controller handling the game flow and interactions.
@@ -20,6 +33,27 @@ public class GameController {
     private long startTime;
     private UI ui;
     private GameModel model;
+    private final List<SpaceObject> renderList = new ArrayList<>(); // reused by renderGame()
+    private DeltaTracker deltaTracker; // created by the first setDeltaListener()
+    private DeltaListener deltaListener;
+    private int viewportWidth; // 0 while renderGame() draws the whole world
+    private int viewportHeight;
+    private int viewportLeft;
+    private int viewportTop;
+    private long frame;
+    private boolean keyframeRequested = true;
+    private int lastScore;
+    private int lastHealth;
+    private int lastLevel;
+    private long lastSeconds;
+    private InputRecorder recorder;
+    private GameLoop loop;
+    private boolean renderingSnapshots; // whether frames are rendered from FrameSnapshots
+    private long lastRenderedVersion = -1;
+    private volatile boolean publishingFrames; // whether stepGame() publishes FrameSnapshots
+    private final CommandQueue commands = new CommandQueue(64);
+    private final Consumer<Command> applyCommand = this::applyCommand;
+    private final TickRecorder metrics = new TickRecorder();
 
     /**
      * Initializes the game controller with the given UI and Model.
@@ -39,6 +73,10 @@ public class GameController {
     /**
      * Initializes the game controller with the given UI and a new GameModel (taking ui::log as the logger).
      * This constructor should call the other constructor using the "this()" keyword.
+     * Messages are passed to ui::log on the thread that logs them, as a UI may only be used
+     * from its own thread; to log from a background thread instead, give the other constructor
+     * a model with an AsyncLogger that hands its messages to the UI's thread, and close the
+     * logger when the game ends.
      *
      * @param ui the UI used to draw the Game
      * @provided
@@ -49,16 +87,192 @@ public class GameController {
 
     /**
      * Renders the game state, updating the UI with the current score, health, level, and time survived.
-     * Also, renders all space objects, including the ship.
+     * Also, renders all space objects, including every ship. The stats are those of the first
+     * ship, or 0 if every ship has been removed.
+     * Stats are only sent when their value changed since the previous frame, unless a keyframe
+     * was requested. If a DeltaListener is set, the frame is sent to it as changes instead of
+     * being passed to the UI; the model reports its changes as they happen, so only what
+     * changed is visited. If a viewport is set, only the objects and ships inside it are
+     * rendered, and a DeltaListener is sent the changes since the previous frame's viewport.
+     * The list passed to the UI is reused between frames, so the UI should not keep it.
      */
     public void renderGame() {
-        ui.setStat("Score", String.valueOf(model.getShip().getScore()));
-        ui.setStat("Health", String.valueOf(model.getShip().getHealth()));
-        ui.setStat("Level", String.valueOf(model.getLevel()));
-        ui.setStat("Time Survived", ((System.currentTimeMillis() - startTime) / 1000) + " seconds");
-        List<SpaceObject> temp = new ArrayList<>(model.getSpaceObjects());
-        temp.add(model.getShip());
-        ui.render(temp);
+        Ship ship = model.getShip();
+        List<Ship> ships = model.getShips();
+        if (viewportWidth > 0) {
+            renderViewport(ship, ships);
+            return;
+        }
+        List<SpaceObject> objects = model.getSpaceObjects();
+        if (deltaListener != null && model.getEntityListener() == deltaTracker) {
+            // Ships are moved directly rather than by the model, so check them here.
+            for (int i = 0; i < ships.size(); i++) {
+                deltaTracker.moved(ships.get(i));
+            }
+            renderScene(ship == null ? 0 : ship.getScore(), ship == null ? 0 : ship.getHealth(),
+                    model.getLevel(), null);
+            return;
+        }
+        renderList.clear();
+        for (int i = 0; i < objects.size(); i++) {
+            renderList.add(objects.get(i));
+        }
+        for (int i = 0; i < ships.size(); i++) {
+            renderList.add(ships.get(i));
+        }
+        renderScene(ship == null ? 0 : ship.getScore(), ship == null ? 0 : ship.getHealth(),
+                model.getLevel(), renderList);
+    }
+
+    /**
+     * Renders the objects and ships inside the viewport, after centring it on the first ship.
+     * Only the objects the model finds in the viewport are visited, however large the world.
+     */
+    private void renderViewport(Ship ship, List<Ship> ships) {
+        if (ship != null) {
+            // Keep the viewport inside the world; it stays put once every ship has been removed.
+            viewportLeft = Math.max(0, Math.min(ship.getX() - viewportWidth / 2,
+                    model.getWidth() - viewportWidth));
+            viewportTop = Math.max(0, Math.min(ship.getY() - viewportHeight / 2,
+                    model.getHeight() - viewportHeight));
+        }
+        int right = viewportLeft + viewportWidth;
+        int bottom = viewportTop + viewportHeight;
+        renderList.clear();
+        model.getObjectsIn(viewportLeft, viewportTop, viewportWidth, viewportHeight, renderList);
+        for (int i = 0; i < ships.size(); i++) {
+            Ship current = ships.get(i);
+            if (current.getX() >= viewportLeft && current.getX() < right
+                    && current.getY() >= viewportTop && current.getY() < bottom) {
+                renderList.add(current);
+            }
+        }
+        renderScene(ship == null ? 0 : ship.getScore(), ship == null ? 0 : ship.getHealth(),
+                model.getLevel(), renderList);
+    }
+
+    /**
+     * Renders the latest frame published by the simulation, rather than reading the live
+     * model, so it can run on a different thread from the ticks without locking.
+     * Does nothing if no new frame has been published since the last call, unless a keyframe
+     * was requested. Frame objects keep the entity ids of the objects they were copied from,
+     * so a DeltaListener only sees what changed between frames.
+     */
+    public void renderLatestFrame() {
+        FrameSnapshot snapshot = model.getLatestFrame();
+        if (snapshot == null
+                || (snapshot.getVersion() == lastRenderedVersion && !keyframeRequested)) {
+            return;
+        }
+        lastRenderedVersion = snapshot.getVersion();
+        renderScene(snapshot.getScore(), snapshot.getHealth(), snapshot.getLevel(),
+                snapshot.getObjects());
+    }
+
+    /**
+     * Sends the stats and objects of a frame to the DeltaListener or the UI.
+     * The objects may be null when the delta tracker was told of every change as it happened.
+     */
+    private void renderScene(int score, int health, int level, List<SpaceObject> objects) {
+        boolean keyframe = keyframeRequested;
+        keyframeRequested = false;
+        frame++;
+        if (deltaListener != null) {
+            deltaListener.beginFrame(frame, keyframe);
+        }
+
+        long seconds = (System.currentTimeMillis() - startTime) / 1000;
+        if (keyframe || score != lastScore) {
+            lastScore = score;
+            setStat("Score", String.valueOf(lastScore));
+        }
+        if (keyframe || health != lastHealth) {
+            lastHealth = health;
+            setStat("Health", String.valueOf(lastHealth));
+        }
+        if (keyframe || level != lastLevel) {
+            lastLevel = level;
+            setStat("Level", String.valueOf(lastLevel));
+        }
+        if (keyframe || seconds != lastSeconds) {
+            lastSeconds = seconds;
+            setStat("Time Survived", seconds + " seconds");
+        }
+
+        if (deltaListener != null) {
+            if (objects == null) {
+                deltaTracker.flush(keyframe, deltaListener);
+            } else {
+                deltaTracker.diff(objects, keyframe, deltaListener);
+            }
+            deltaListener.endFrame();
+        } else {
+            ui.render(objects);
+        }
+    }
+
+    private void setStat(String label, String value) {
+        if (deltaListener != null) {
+            deltaListener.statChanged(label, value);
+        } else {
+            ui.setStat(label, value);
+        }
+    }
+
+    /**
+     * Sends rendered frames to the given listener as changes since the previous frame,
+     * instead of passing every object to ui.render. The first frame sent is a keyframe.
+     *
+     * @param listener The listener to send frames to, or null to render through the UI again.
+     */
+    public void setDeltaListener(DeltaListener listener) {
+        this.deltaListener = listener;
+        if (deltaTracker == null) {
+            deltaTracker = new DeltaTracker();
+        }
+        deltaTracker.reset();
+        if (listener != null && !renderingSnapshots && viewportWidth == 0) {
+            model.setEntityListener(deltaTracker);
+        } else if (model.getEntityListener() == deltaTracker) {
+            model.setEntityListener(null);
+        }
+        requestKeyframe();
+    }
+
+    /**
+     * Makes renderGame() draw only a window of the world of the given size, centred on the
+     * first ship and kept inside the world, rather than every object. In a large world, and
+     * especially with a chunked world (see GameModel.setChunkedWorld()), rendering then costs
+     * in proportion to what is in view rather than to every object in the world.
+     * A DeltaListener is then sent each frame as a diff against the previous one, as the
+     * model's reports of changes cover the whole world. renderLatestFrame() is not affected.
+     *
+     * @param width The number of columns in view, or 0 to render the whole world.
+     * @param height The number of rows in view, or 0 to render the whole world.
+     */
+    public void setViewport(int width, int height) {
+        if (width < 0 || height < 0 || (width == 0) != (height == 0)) {
+            throw new IllegalArgumentException("Invalid viewport size: " + width + "x" + height);
+        }
+        viewportWidth = width;
+        viewportHeight = height;
+        if (deltaListener != null && !renderingSnapshots) {
+            deltaTracker.reset();
+            if (width == 0) {
+                model.setEntityListener(deltaTracker);
+            } else if (model.getEntityListener() == deltaTracker) {
+                model.setEntityListener(null);
+            }
+            requestKeyframe();
+        }
+    }
+
+    /**
+     * Makes the next call to renderGame() send the whole scene and every stat, rather than
+     * only what changed.
+     */
+    public void requestKeyframe() {
+        keyframeRequested = true;
     }
 
     /**
@@ -66,40 +280,95 @@ public class GameController {
      */
     public void pauseGame() {
         ui.pause();
+        if (loop != null) {
+            loop.setPaused(!loop.isPaused());
+        }
         ui.log("Game paused.");
     }
 
     /**
      * Handles player input, interpreting movement and action commands for the ship.
      * The input is checked for valid commands (W, A, S, D for movement, F for firing, and P for pausing).
-     * Logs each action and updates the ship's position or performs the relevant action.
+     * Pausing happens straight away. Other commands are queued and applied together at the
+     * start of the next tick, on the thread running the simulation, so input from the UI
+     * thread never changes the model while a tick is running.
+     * Must only be called from one thread, normally the UI's key callback.
      *
      * @param input The player input as a string (e.g., "W", "A", "S", "D", "F", "P").
      */
     public void handlePlayerInput(String input) {
-        input = input.toUpperCase(Locale.ROOT);
-        if (input.equals("W")) {
-            model.getShip().move(Direction.UP);
-            ui.log("Core.Ship moved to (" + model.getShip().getX() + ", "
-                    + model.getShip().getY() + ")");
-        } else if (input.equals("S")) {
-            model.getShip().move(Direction.DOWN);
-            ui.log("Core.Ship moved to (" + model.getShip().getX() + ", "
-                    + model.getShip().getY() + ")");
-        } else if (input.equals("A")) {
-            model.getShip().move(Direction.LEFT);
-            ui.log("Core.Ship moved to (" + model.getShip().getX() + ", "
-                    + model.getShip().getY() + ")");
-        } else if (input.equals("D")) {
-            model.getShip().move(Direction.RIGHT);
-            ui.log("Core.Ship moved to (" + model.getShip().getX() + ", "
-                    + model.getShip().getY() + ")");
-        } else if (input.equals("F")) {
-            model.fireBullet();
-        } else if (input.equals("P")) {
-            pauseGame();
-        } else {
+        Command command = Command.fromKey(input);
+        if (command == null) {
             ui.log("Invalid input. Use W, A, S, D, F, or P.");
+        } else if (command == Command.PAUSE) {
+            pauseGame();
+        } else if (!commands.offer(command)) {
+            model.getLogger().log(LogLevel.DEBUG, "Input queue full, command dropped.");
+        }
+    }
+
+    /**
+     * Applies every command queued by handlePlayerInput() since the last call, in order.
+     */
+    private void applyCommands() {
+        commands.drain(applyCommand);
+    }
+
+    private void applyCommand(Command command) {
+        record(command);
+        if (command == Command.FIRE) {
+            model.fireBullet();
+        } else if (command.getDirection() != null) {
+            moveShip(command.getDirection());
+        }
+    }
+
+    private void record(Command command) {
+        if (recorder != null) {
+            recorder.record(command);
+        }
+    }
+
+    /**
+     * Starts recording player input so the game can be replayed headlessly.
+     * Seeds the model's Random instance with the recorder's seed, so this should be called
+     * before the first tick.
+     *
+     * @param recorder The recorder to write commands and checkpoints to.
+     */
+    public void startRecording(InputRecorder recorder) {
+        this.recorder = recorder;
+        model.setRandomSeed(recorder.getSeed());
+    }
+
+    /**
+     * Stops recording player input.
+     *
+     * @return The recorder that was in use, or null if the game was not being recorded.
+     */
+    public InputRecorder stopRecording() {
+        InputRecorder stopped = recorder;
+        recorder = null;
+        return stopped;
+    }
+
+    private void moveShip(Direction direction) {
+        Ship ship = model.getShip();
+        if (ship == null) {
+            return; // every ship has been removed, so there is nothing to move
+        }
+        try {
+            ship.move(direction);
+        } catch (BoundaryExceededException e) {
+            ui.log(e.getMessage());
+            return;
+        }
+        Logger logger = model.getLogger();
+        if (logger.isEnabled(LogLevel.INFO)) {
+            // Only build the capturing lambda when it will be used, so moving never allocates.
+            int x = ship.getX();
+            int y = ship.getY();
+            logger.log(LogLevel.INFO, () -> "Core.Ship moved to (" + x + ", " + y + ")");
         }
     }
 
@@ -114,8 +383,57 @@ public class GameController {
         ui.onKey(this::handlePlayerInput); // Pass Callback to UI
     }
 
+    /**
+     * Starts the game on a fixed-timestep loop instead of ui.onStep, so the simulation runs
+     * at a steady rate however fast or slow the UI renders. Player input is still taken from
+     * ui.onKey. The loop calls stepGame() and renderGame() from its own thread.
+     *
+     * @param ticksPerSecond The fixed simulation rate.
+     * @param maxFramesPerSecond The maximum render rate.
+     * @return The running loop, which can be stopped with GameLoop.stop().
+     */
+    public GameLoop startFixedStepLoop(int ticksPerSecond, int maxFramesPerSecond) {
+        GameLoop loop = new GameLoop(this::stepGame, alpha -> timedRender(),
+                ticksPerSecond, maxFramesPerSecond, 5, false);
+        ui.onKey(this::handlePlayerInput);
+        loop.start();
+        this.loop = loop;
+        return loop;
+    }
+
+    /**
+     * Starts the game with the simulation and rendering on separate threads, so they overlap
+     * on separate cores. A fixed-timestep loop runs the ticks and publishes a FrameSnapshot
+     * after each one, while ui.onStep draws the latest published frame on the UI's thread.
+     * Player input is taken from ui.onKey.
+     *
+     * @param ticksPerSecond The fixed simulation rate.
+     * @return The running simulation loop, which can be stopped with GameLoop.stop().
+     */
+    public GameLoop startParallelLoop(int ticksPerSecond) {
+        setFramePublishing(true);
+        renderingSnapshots = true;
+        if (deltaTracker != null && model.getEntityListener() == deltaTracker) {
+            // Frames are rendered on another thread, from snapshots, so they are diffed instead.
+            model.setEntityListener(null);
+            deltaTracker.reset();
+            requestKeyframe();
+        }
+        GameLoop loop = new GameLoop(this::stepGame, null, ticksPerSecond, 1, 5, false);
+        ui.onStep(tick -> {
+            long start = metrics.begin();
+            renderLatestFrame();
+            metrics.endPhase(TickPhase.RENDER, start);
+        });
+        ui.onKey(this::handlePlayerInput);
+        loop.start();
+        this.loop = loop;
+        return loop;
+    }
+
     /**
      * Uses the provided tick to call and advance the following:
+     *      - Applies the player input queued since the last tick.
      *      - A call to renderGame() to draw the current state of the game.
      *      - A call to model.updateGame(tick) to advance the game by the given tick.
      *      - A call to model.checkCollisions() to handle game interactions.
@@ -126,11 +444,90 @@ public class GameController {
      * @provided
      */
     public void onTick(int tick) {
-        renderGame(); // Update Visual
+        applyCommands(); // Apply queued input before drawing, so it shows this frame
+        timedRender(); // Update Visual
+        simulate(tick);
+    }
+
+    private void timedRender() {
+        long start = metrics.begin();
+        renderGame();
+        metrics.endPhase(TickPhase.RENDER, start);
+    }
+
+    /**
+     * Makes stepGame() publish a FrameSnapshot after every tick, for renderLatestFrame() and
+     * other readers on other threads. Publishing copies every object, so it is off unless
+     * something reads the frames; startParallelLoop() turns it on.
+     *
+     * @param enabled Whether to publish a frame after each tick.
+     */
+    public void setFramePublishing(boolean enabled) {
+        this.publishingFrames = enabled;
+    }
+
+    /**
+     * Returns whether stepGame() publishes a FrameSnapshot after every tick.
+     *
+     * @return True if frames are published.
+     */
+    public boolean isFramePublishing() {
+        return publishingFrames;
+    }
+
+    /**
+     * Advances the simulation by one tick without rendering: applies queued input, updates
+     * objects, checks collisions, spawns new objects and levels up, as in onTick(), then
+     * publishes a FrameSnapshot of the result if frame publishing is enabled.
+     *
+     * @param tick the tick to advance the game by
+     */
+    public void stepGame(int tick) {
+        applyCommands(); // Apply queued input
+        simulate(tick);
+    }
+
+    /**
+     * Runs a tick whose input has already been applied, so onTick() drains the input queue
+     * only once, before drawing the frame.
+     */
+    private void simulate(int tick) {
+        long time = metrics.begin();
         model.updateGame(tick); // Update GameObjects
+        time = metrics.endPhase(TickPhase.UPDATE, time);
         model.checkCollisions(); // Check for Collisions
+        time = metrics.endPhase(TickPhase.COLLISION, time);
         model.spawnObjects(); // Handles new spawns
+        time = metrics.endPhase(TickPhase.SPAWN, time);
         model.levelUp(); // Level up when score threshold is met
+        metrics.endPhase(TickPhase.LEVEL_UP, time);
+        metrics.endTick(tick, model);
+        if (publishingFrames) {
+            model.publishFrame(tick);
+        }
+        if (recorder != null) {
+            recorder.tickFinished(tick, recorder.isCheckpointDue() ? StateChecksum.of(model) : 0);
+        }
+    }
+
+    /**
+     * Starts or stops timing each phase of every tick. While enabled, the timings, object
+     * counts and per-tick collisions and spawns can be polled through getMetrics(), and are
+     * also emitted as Flight Recorder events. While disabled, ticks are not measured at all.
+     *
+     * @param enabled Whether to collect metrics.
+     */
+    public void setMetricsEnabled(boolean enabled) {
+        metrics.setEnabled(enabled);
+    }
+
+    /**
+     * Returns the metrics collected for this game's ticks.
+     *
+     * @return The metrics, which may be polled from any thread.
+     */
+    public TickMetrics getMetrics() {
+        return metrics;
     }
 
     /**
@@ -0,0 +1,205 @@
+package game;
+
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.DoubleConsumer;
+import java.util.function.IntConsumer;
+
+/**
+ * A fixed-timestep game loop that runs on its own thread, independent of the UI's frame rate.
+ *
+ * Simulation ticks run at a fixed rate. Rendering runs at its own, capped rate and never more
+ * than once per pass of the loop. If the loop falls behind (for example because a render was
+ * slow) it catches up by running up to maxCatchUpTicks ticks back to back without rendering;
+ * any further backlog is skipped and counted rather than letting the loop spiral.
+ *
+ * Waiting uses a sleep/spin hybrid: the thread parks until shortly before the next deadline,
+ * then spins for the remainder, which holds pacing far tighter than sleeping alone.
+ */
+public class GameLoop implements Runnable {
+    /** How long before a deadline the loop stops sleeping and starts spinning. */
+    private static final long SPIN_NANOS = 1_000_000;
+    /** How long the loop sleeps between checks while paused. */
+    private static final long PAUSE_PARK_NANOS = 5_000_000;
+
+    private final IntConsumer simulation;
+    private final DoubleConsumer renderer;
+    private final long tickNanos;
+    private final long frameNanos;
+    private final int maxCatchUpTicks;
+    private final boolean interpolate;
+
+    private volatile boolean running;
+    private volatile boolean paused;
+    private Thread thread;
+    private volatile long ticks;
+    private volatile long frames;
+    private volatile long skippedTicks;
+
+    /**
+     * Constructs a GameLoop.
+     *
+     * @param simulation Runs one simulation tick, given the tick number.
+     * @param renderer Draws a frame, given how far (from 0 to 1) the time is between the last
+     *                 tick and the next, or always 1 if interpolation is off. May be null if
+     *                 frames are drawn elsewhere, in which case only the simulation runs.
+     * @param ticksPerSecond The fixed simulation rate.
+     * @param maxFramesPerSecond The maximum render rate.
+     * @param maxCatchUpTicks The most ticks run in a row before rendering when behind.
+     * @param interpolate Whether to pass the renderer a blend factor for smoothing motion.
+     */
+    public GameLoop(IntConsumer simulation, DoubleConsumer renderer, int ticksPerSecond,
+                    int maxFramesPerSecond, int maxCatchUpTicks, boolean interpolate) {
+        this.simulation = simulation;
+        this.renderer = renderer;
+        this.tickNanos = 1_000_000_000L / ticksPerSecond;
+        this.frameNanos = 1_000_000_000L / maxFramesPerSecond;
+        this.maxCatchUpTicks = maxCatchUpTicks;
+        this.interpolate = interpolate;
+    }
+
+    /**
+     * Starts the loop on a new thread.
+     *
+     * @throws IllegalStateException If the loop is already running.
+     */
+    public synchronized void start() {
+        if (running) {
+            throw new IllegalStateException("Game loop already running");
+        }
+        running = true;
+        thread = new Thread(this, "game-loop");
+        thread.start();
+    }
+
+    /**
+     * Stops the loop and waits for its thread to finish the current pass.
+     */
+    public synchronized void stop() {
+        running = false;
+        if (thread != null && thread != Thread.currentThread()) {
+            try {
+                thread.join();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        thread = null;
+    }
+
+    /**
+     * Returns whether the loop is running.
+     *
+     * @return True between start() and stop().
+     */
+    public boolean isRunning() {
+        return running;
+    }
+
+    /**
+     * Pauses or resumes the simulation. While paused no ticks run and no frames are drawn,
+     * and time spent paused is not caught up on when resumed.
+     *
+     * @param paused Whether to pause the loop.
+     */
+    public void setPaused(boolean paused) {
+        this.paused = paused;
+    }
+
+    /**
+     * Returns whether the loop is paused.
+     *
+     * @return True if the loop is paused.
+     */
+    public boolean isPaused() {
+        return paused;
+    }
+
+    /**
+     * Gets the number of simulation ticks run.
+     *
+     * @return The tick count.
+     */
+    public long getTicks() {
+        return ticks;
+    }
+
+    /**
+     * Gets the number of frames rendered.
+     *
+     * @return The frame count.
+     */
+    public long getFrames() {
+        return frames;
+    }
+
+    /**
+     * Gets the number of ticks skipped because the loop fell too far behind to catch up.
+     *
+     * @return The skipped tick count.
+     */
+    public long getSkippedTicks() {
+        return skippedTicks;
+    }
+
+    /**
+     * Runs the loop on the calling thread until stop() is called.
+     */
+    @Override
+    public void run() {
+        int tick = 0;
+        long now = System.nanoTime();
+        long nextTick = now;
+        long nextFrame = now;
+        while (running) {
+            if (paused) {
+                LockSupport.parkNanos(this, PAUSE_PARK_NANOS);
+                nextTick = System.nanoTime();
+                continue;
+            }
+            now = System.nanoTime();
+            int caughtUp = 0;
+            while (now >= nextTick && caughtUp < maxCatchUpTicks) {
+                simulation.accept(tick++);
+                ticks++;
+                nextTick += tickNanos;
+                caughtUp++;
+                now = System.nanoTime();
+            }
+            if (now >= nextTick) {
+                long behind = (now - nextTick) / tickNanos + 1;
+                skippedTicks += behind;
+                nextTick += behind * tickNanos;
+            }
+
+            if (renderer == null) {
+                waitUntil(nextTick);
+                continue;
+            }
+            if (now >= nextFrame) {
+                double alpha = 1.0;
+                if (interpolate) {
+                    alpha = 1.0 - (double) (nextTick - now) / tickNanos;
+                    alpha = Math.max(0.0, Math.min(1.0, alpha));
+                }
+                renderer.accept(alpha);
+                frames++;
+                nextFrame += frameNanos;
+                if (nextFrame < now) {
+                    nextFrame = now + frameNanos;
+                }
+            }
+
+            waitUntil(Math.min(nextTick, nextFrame));
+        }
+    }
+
+    private void waitUntil(long deadline) {
+        long remaining = deadline - System.nanoTime();
+        if (remaining > SPIN_NANOS) {
+            LockSupport.parkNanos(this, remaining - SPIN_NANOS);
+        }
+        while (running && System.nanoTime() < deadline) {
+            Thread.onSpinWait();
+        }
+    }
+}
@@ -2,13 +2,20 @@ package game;
 
 
 import game.core.*;
+import game.render.FrameSnapshot;
+import game.spawn.ClassicSpawnDirector;
+import game.spawn.SpawnDirector;
+import game.ui.ObjectGraphic;
+import game.utility.LogLevel;
 import game.utility.Logger;
+import game.utility.TimingWheel;
 import game.core.SpaceObject;
 
 import java.util.AbstractSet;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
-import java.util.Random;
 
 /**
  * Represents the game information and state. Stores and manipulates the game state.
@@ -25,13 +32,43 @@ public class GameModel {
     public static final double ENEMY_SPAWN_RATE = 0.5; // Percentage of asteroid spawn chance
     public static final double POWER_UP_SPAWN_RATE = 0.25; // Percentage of asteroid spawn chance
 
-    private final Random random = new Random(); // ONLY USED IN this.spawnObjects()
+    // ONLY USED IN this.spawnObjects()
+    private SpawnDirector spawnDirector = new ClassicSpawnDirector();
+    private final SpawnDirector.Target spawnTarget = new SpawnTarget();
 
     private List<SpaceObject> spaceObjects;
-    private Ship ship;
+    private EntityStore store; // null unless array storage is enabled
+    private ChunkedWorld world; // null unless a chunked world is set
+    private final ChunkedWorld.StepHandler dormantStep = this::keepDormant;
+    private final SpatialGrid grid = new SpatialGrid();
+    private boolean[] removed = new boolean[64]; // scratch flags reused by checkCollisions()
+    private int removedCount;
+    private final CollisionMatrix collisions = new CollisionMatrix();
+    private final SpatialGrid.PairHandler pairHit = this::onPair;
+    private Ship ship; // the first of ships, or null if there are none
+    private final List<Ship> ships = new ArrayList<>();
+    private final List<Ship> shipsView = Collections.unmodifiableList(ships);
     private int level;
     private Logger logger;
     private int spawnRate;
+    private final int width;
+    private final int height;
+    private final long[] collisionCounts = new long[CollisionType.values().length];
+    private long spawnCount;
+    private ObjectPools pools; // null unless pooling is enabled
+    private int bulletSpeed = FixedPoint.ONE; // fixed-point cells per tick, upwards
+    private TimingWheel<SpaceObject> wakeups; // null unless scheduled updates are enabled
+    private final List<SpaceObject> woken = new ArrayList<>(); // objects ticked in the last update
+    private final TimingWheel.Handler<SpaceObject> wake = this::wake;
+    private boolean wakeAll; // whether the next update must tick every object
+    private int currentTick;
+    private boolean leftBounds;
+    private final Object token = new Object(); // identifies this model to the objects it shares
+    private boolean sharing; // whether some objects may be shared with another model
+    private boolean forked; // whether forks sharing this model's objects may still be in use
+    private EntityListener entityListener;
+    private volatile FrameSnapshot latestFrame;
+    private long framesPublished;
 
     /**
      * Models a game, storing and modifying data relevant to the game.
@@ -46,28 +83,485 @@ public class GameModel {
      * @param logger a functional interface for passing information between classes.
      */
     public GameModel(Logger logger) {
+        this(logger, GAME_WIDTH, GAME_HEIGHT);
+    }
+
+    /**
+     * Models a game in a world of the given size, rather than GAME_WIDTH by GAME_HEIGHT.
+     * The ship is kept within the world, and objects are removed once they leave it.
+     *
+     * @param logger a functional interface for passing information between classes.
+     * @param width The number of columns in the world.
+     * @param height The number of rows in the world.
+     */
+    public GameModel(Logger logger, int width, int height) {
         this.logger = logger;
         this.spaceObjects = new ArrayList<>();
         this.level = START_LEVEL;
         this.spawnRate = START_SPAWN_RATE;
-        this.ship = new Ship();
+        this.width = width;
+        this.height = height;
+        this.ship = newShip();
+        ships.add(ship);
+        registerCollisions();
+    }
+
+    private Ship newShip() {
+        return applyBounds(new Ship());
+    }
+
+    /**
+     * Keeps the ship within the world, which on the default board is GAME_WIDTH by GAME_HEIGHT
+     * rather than Controllable's default bounds.
+     */
+    private Ship applyBounds(Ship ship) {
+        ship.setBounds(width, height);
+        return ship;
+    }
+
+    /**
+     * Returns the number of columns in the world.
+     * @return The world width.
+     */
+    public int getWidth() {
+        return width;
+    }
+
+    /**
+     * Returns the number of rows in the world.
+     * @return The world height.
+     */
+    public int getHeight() {
+        return height;
+    }
+
+    /**
+     * Restores the model to the state it was constructed in, keeping the same logger.
+     * Clears all space objects, collision and spawn counts, resets the level and spawn rate,
+     * and replaces the ship with a new one. The Random instance is left as is.
+     */
+    public void reset() {
+        reportRemovedAll();
+        if (pools != null) {
+            for (int i = 0; i < spaceObjects.size(); i++) {
+                release(spaceObjects.get(i));
+            }
+            if (world != null) {
+                world.forEach(this::release);
+            }
+        }
+        spaceObjects.clear();
+        if (store != null) {
+            store.clear();
+        }
+        if (world != null) {
+            world.clear();
+        }
+        sharing = false;
+        level = START_LEVEL;
+        spawnRate = START_SPAWN_RATE;
+        ship = newShip();
+        ships.clear();
+        ships.add(ship);
+        Arrays.fill(collisionCounts, 0);
+        spawnCount = 0;
+        clearWakeups();
+        reportSpawnedAll();
+    }
+
+    /**
+     * Makes spawning, firing and removing objects reuse objects from the given pools instead
+     * of allocating new ones and leaving old ones as garbage, so a steady-state game does not
+     * allocate. Once pooling is enabled, an object removed from the game may be reused as a
+     * newly spawned object of the same type, so callers must not keep references to space
+     * objects across ticks.
+     * @param pools The pools to use, or null to stop pooling.
+     */
+    public void setObjectPools(ObjectPools pools) {
+        this.pools = pools;
+    }
+
+    /**
+     * Makes updateGame() tick only the objects that can change at that tick. Each object is kept
+     * in a timing wheel under the next tick it acts at (see SpaceObject.getNextWakeTick()), so
+     * the cost of an update follows the number of objects that move rather than the number in
+     * the game. Power-ups are never ticked, and descending enemies only every tenth tick.
+     * Objects must then be added through addObject() rather than directly to the list returned
+     * by getSpaceObjects(), or they are not ticked until ticks are skipped or the game is reset.
+     * Scheduled updates cannot be combined with a chunked world.
+     * @param enabled Whether to schedule updates.
+     * @throws IllegalStateException If enabling them while a chunked world is set.
+     */
+    public void setScheduledUpdates(boolean enabled) {
+        if (enabled && world != null) {
+            throw new IllegalStateException("Scheduled updates cannot use a chunked world");
+        }
+        if (enabled != (wakeups != null)) {
+            wakeups = enabled ? new TimingWheel<>(0) : null;
+            woken.clear();
+            wakeAll = true;
+        }
+    }
+
+    /**
+     * Returns whether updateGame() only ticks the objects that can change at each tick.
+     * @return True if scheduled updates are enabled.
+     */
+    public boolean isScheduledUpdates() {
+        return wakeups != null;
+    }
+
+    /**
+     * Switches between keeping space objects as a list of objects and keeping them in an
+     * EntityStore, as parallel arrays of positions and type tags. An entity in the store costs
+     * a few bytes rather than a whole object, and updateGame() and checkCollisions() become
+     * loops over the arrays, which suits worlds of hundreds of thousands of objects.
+     *
+     * The objects already in the game are moved across, and are reported to the entity listener
+     * as removed and spawned again under new ids. In the store, objects move by their type's rule
+     * rather than their own tick(), object pools and scheduled updates are not used, and
+     * collision responses and the listener are handed EntityStore.Views.
+     * getSpaceObjects() then returns a copy, so objects must be added through addObject().
+     * Switching should be done between ticks, as objects moved across start their next tick
+     * where they are. Array storage cannot be combined with a chunked world.
+     * @param enabled Whether to keep objects in an EntityStore.
+     * @throws IllegalStateException If enabling it while a chunked world is set.
+     */
+    public void setArrayStorage(boolean enabled) {
+        if (enabled == (store != null)) {
+            return;
+        }
+        if (enabled && world != null) {
+            throw new IllegalStateException("Array storage cannot use a chunked world");
+        }
+        reportRemovedAll();
+        if (enabled) {
+            EntityStore moved = new EntityStore();
+            for (int i = 0; i < spaceObjects.size(); i++) {
+                moved.add(spaceObjects.get(i));
+                if (pools != null) {
+                    release(spaceObjects.get(i));
+                }
+            }
+            spaceObjects.clear();
+            sharing = false;
+            store = moved;
+        } else {
+            for (int slot = 0; slot < store.getSlotCount(); slot++) {
+                if (store.isLive(slot)) {
+                    spaceObjects.add(store.newObject(slot));
+                }
+            }
+            store = null;
+        }
+        clearWakeups();
+        reportSpawnedAll();
+    }
+
+    /**
+     * Returns whether space objects are kept in an EntityStore.
+     * @return True if array storage is enabled.
+     */
+    public boolean isArrayStorage() {
+        return store != null;
+    }
+
+    /**
+     * Returns the store space objects are kept in with array storage.
+     * @return The store, or null if array storage is not enabled.
+     */
+    public EntityStore getEntityStore() {
+        return store;
+    }
+
+    /**
+     * Keeps space objects in a ChunkedWorld, so that only the objects near a ship are simulated
+     * at full rate. Each update, objects in chunks within the world's active radius of any ship
+     * are kept in the list of active objects, and ticked and checked for collisions as usual;
+     * every other object is dormant, kept in its chunk, stepped every so often through the ticks
+     * it missed, and never collides. Dormant objects are reported to the entity listener as they
+     * move and leave the world, as active ones are. A world millions of cells across then costs
+     * in proportion to the objects near the ships and the chunks in use, rather than every
+     * object, and getObjectsIn() only visits the chunks in view.
+     *
+     * Objects are sorted into chunks by the next update. getSpaceObjects() then returns a copy,
+     * so objects must be added through addObject(). Published frames and forks only hold the
+     * active objects, and a fork has no chunked world of its own. Setting null moves every
+     * dormant object back into the list of active objects.
+     * @param world A new, empty world, or null to keep every object active.
+     * @throws IllegalStateException If array storage or scheduled updates are enabled.
+     * @throws IllegalArgumentException If the world already holds objects.
+     */
+    public void setChunkedWorld(ChunkedWorld world) {
+        if (world != null && (store != null || wakeups != null)) {
+            throw new IllegalStateException(
+                    "A chunked world cannot be combined with array storage or scheduled updates");
+        }
+        if (world != null && world.size() > 0) {
+            throw new IllegalArgumentException("The chunked world is already in use");
+        }
+        if (this.world != null) {
+            this.world.catchUp(currentTick, dormantStep);
+            this.world.forEach(spaceObjects::add);
+            this.world.clear();
+        }
+        this.world = world;
+    }
+
+    /**
+     * Returns the world space objects are kept in, as set by setChunkedWorld().
+     * @return The world, or null if every object is kept active.
+     */
+    public ChunkedWorld getChunkedWorld() {
+        return world;
+    }
+
+    /**
+     * Empties the timing wheel, so the next update ticks every object and schedules them again.
+     */
+    private void clearWakeups() {
+        if (wakeups != null) {
+            wakeups.clear(wakeups.getNow());
+            woken.clear();
+            wakeAll = true;
+        }
+    }
+
+    /**
+     * Returns the pools objects are reused from, including their hit and miss counts.
+     * @return The pools, or null if pooling is not enabled.
+     */
+    public ObjectPools getObjectPools() {
+        return pools;
+    }
+
+    /**
+     * Copies the current state into an immutable FrameSnapshot and makes it the latest frame.
+     * Should be called by the thread running the simulation, once a tick has finished.
+     * @param tick The tick that just finished.
+     * @return The published frame.
+     */
+    public FrameSnapshot publishFrame(int tick) {
+        FrameSnapshot frame = new FrameSnapshot(framesPublished++, tick, level,
+                store == null ? spaceObjects : store.views(), ships);
+        latestFrame = frame;
+        return frame;
+    }
+
+    /**
+     * Returns the most recently published frame. Safe to call from any thread without
+     * locking, including while a tick is running; the frame never changes once published.
+     * @return The latest frame, or null if none has been published.
+     */
+    public FrameSnapshot getLatestFrame() {
+        return latestFrame;
     }
 
     /**
      * Returns the current instance of the Ship.
-     * @return The current Ship instance.
+     * In a world with several ships, this is the first of them.
+     * @return The current Ship instance, or null if every ship has been removed.
      */
     public Ship getShip() {
         return ship;
     }
 
+    /**
+     * Returns every ship in the world, with getShip() first.
+     * @return An unmodifiable view of the ships.
+     */
+    public List<Ship> getShips() {
+        return shipsView;
+    }
+
+    /**
+     * Adds another ship to the world, for example for a new player.
+     * @param x The x-coordinate of the new ship.
+     * @param y The y-coordinate of the new ship.
+     * @return The new ship, with full health and no score.
+     */
+    public Ship addShip(int x, int y) {
+        Ship added = applyBounds(new Ship(x, y, Ship.START_HEALTH));
+        ships.add(added);
+        ship = ships.get(0);
+        if (entityListener != null) {
+            entityListener.spawned(added);
+        }
+        return added;
+    }
+
+    /**
+     * Removes a ship from the world. If it was the first ship, getShip() returns the next.
+     * @param removed The ship to remove.
+     * @return True if the ship was in the world.
+     */
+    public boolean removeShip(Ship removed) {
+        boolean found = ships.remove(removed);
+        ship = ships.isEmpty() ? null : ships.get(0);
+        if (found && entityListener != null) {
+            entityListener.removed(removed);
+        }
+        return found;
+    }
+
+
+    /**
+     * Reports every space object and ship added to, moved within or removed from the game to
+     * the given listener as it happens, on the thread changing the model. Everything already in
+     * the game is reported as spawned straight away. Ships are reported when they are added and
+     * removed, but not when they move, as they are moved directly rather than by the model.
+     * Forks do not report to the listener.
+     * @param listener The listener, or null to stop reporting.
+     */
+    public void setEntityListener(EntityListener listener) {
+        this.entityListener = listener;
+        reportSpawnedAll();
+    }
+
+    /**
+     * Returns the listener set by setEntityListener().
+     * @return The listener, or null if there is none.
+     */
+    public EntityListener getEntityListener() {
+        return entityListener;
+    }
+
+    private void reportSpawnedAll() {
+        if (entityListener != null) {
+            for (int i = 0; i < spaceObjects.size(); i++) {
+                entityListener.spawned(spaceObjects.get(i));
+            }
+            if (store != null) {
+                store.reportSpawned(entityListener);
+            }
+            if (world != null) {
+                world.forEach(entityListener::spawned);
+            }
+            for (int i = 0; i < ships.size(); i++) {
+                entityListener.spawned(ships.get(i));
+            }
+        }
+    }
+
+    private void reportRemovedAll() {
+        if (entityListener != null) {
+            for (int i = 0; i < spaceObjects.size(); i++) {
+                entityListener.removed(spaceObjects.get(i));
+            }
+            if (store != null) {
+                store.reportRemoved(entityListener);
+            }
+            if (world != null) {
+                world.forEach(entityListener::removed);
+            }
+            for (int i = 0; i < ships.size(); i++) {
+                entityListener.removed(ships.get(i));
+            }
+        }
+    }
+
+    /**
+     * Returns whether an object ended its last move in a different cell from the one it started
+     * the tick in.
+     */
+    private static boolean changedCell(SpaceObject object) {
+        return FixedPoint.toCell(object.getPreviousFixedX()) != object.getX()
+                || FixedPoint.toCell(object.getPreviousFixedY()) != object.getY();
+    }
+
+    /**
+     * Returns the logger the model reports game events to.
+     * @return The logger given to the constructor.
+     */
+    public Logger getLogger() {
+        return logger;
+    }
 
     /**
      * Returns the list of SpaceObjects present in the game.
+     * With array storage, this is a new list of views copied from the store, so changing it
+     * does not change the game. With a chunked world, this is a new list of the active objects
+     * followed by the dormant ones, which are first stepped up to the last update.
      * @return A list of SpaceObject instances.
      */
     public List<SpaceObject> getSpaceObjects() {
-        return spaceObjects;
+        if (world != null) {
+            world.catchUp(currentTick, dormantStep);
+            List<SpaceObject> objects = new ArrayList<>(spaceObjects.size() + world.size());
+            objects.addAll(spaceObjects);
+            world.forEach(objects::add);
+            return objects;
+        }
+        return store == null ? spaceObjects : store.views();
+    }
+
+    /**
+     * Adds the space objects inside the given rectangle of cells to a list, for drawing only
+     * what is in view. With a chunked world, only the chunks overlapping the rectangle are
+     * visited, and dormant objects in them are first stepped up to the last update. With array
+     * storage, a new view of each object is added.
+     * @param left The x-coordinate of the left column of the rectangle.
+     * @param top The y-coordinate of the top row of the rectangle.
+     * @param viewWidth The number of columns in the rectangle.
+     * @param viewHeight The number of rows in the rectangle.
+     * @param out The list to add the objects to.
+     */
+    public void getObjectsIn(int left, int top, int viewWidth, int viewHeight,
+                             List<? super SpaceObject> out) {
+        int right = left + viewWidth;
+        int bottom = top + viewHeight;
+        if (store != null) {
+            for (int slot = 0; slot < store.getSlotCount(); slot++) {
+                if (store.isLive(slot)) {
+                    int x = FixedPoint.toCell(store.getFixedX(slot));
+                    int y = FixedPoint.toCell(store.getFixedY(slot));
+                    if (x >= left && x < right && y >= top && y < bottom) {
+                        out.add(store.view(slot));
+                    }
+                }
+            }
+            return;
+        }
+        for (int i = 0; i < spaceObjects.size(); i++) {
+            SpaceObject object = spaceObjects.get(i);
+            int x = object.getX();
+            int y = object.getY();
+            if (x >= left && x < right && y >= top && y < bottom) {
+                out.add(object);
+            }
+        }
+        if (world != null) {
+            world.collect(left, top, viewWidth, viewHeight, currentTick, dormantStep, out);
+        }
+    }
+
+    /**
+     * Returns the number of space objects in the game, without copying them as
+     * getSpaceObjects() does with array storage.
+     * @return The object count.
+     */
+    public int getObjectCount() {
+        if (world != null) {
+            return spaceObjects.size() + world.size();
+        }
+        return store == null ? spaceObjects.size() : store.size();
+    }
+
+    /**
+     * Adds the number of space objects of each type in the game to the given counts.
+     * @param counts Counts indexed by EntityType ordinal.
+     */
+    public void countObjects(long[] counts) {
+        if (store != null) {
+            store.countTypes(counts);
+            return;
+        }
+        for (int i = 0; i < spaceObjects.size(); i++) {
+            counts[spaceObjects.get(i).getType().ordinal()]++;
+        }
+        if (world != null) {
+            world.countTypes(counts);
+        }
     }
 
     /**
@@ -78,144 +572,861 @@ public class GameModel {
         return level;
     }
 
+    /**
+     * Returns the current spawn rate, as a percentage chance per tick.
+     * @return The spawn rate.
+     */
+    public int getSpawnRate() {
+        return spawnRate;
+    }
+
+    /**
+     * Returns the internal state of the spawn director's random sequence, so the game can be
+     * saved and resumed with the same sequence of spawns.
+     * @return The state of the spawn director.
+     */
+    public long getRandomState() {
+        return spawnDirector.getState();
+    }
+
+    /**
+     * Replaces the director that decides what spawns each tick. The default is a
+     * ClassicSpawnDirector, which spawns exactly as the game always has; a StreamSpawnDirector
+     * keeps each kind of spawn independent and reproducible across threads. The new director
+     * keeps its own random state, so it should be seeded afterwards for a reproducible game.
+     * @param spawnDirector The director to use.
+     */
+    public void setSpawnDirector(SpawnDirector spawnDirector) {
+        this.spawnDirector = spawnDirector;
+    }
+
+    /**
+     * Returns the director that decides what spawns each tick.
+     * @return The spawn director.
+     */
+    public SpawnDirector getSpawnDirector() {
+        return spawnDirector;
+    }
+
+    /**
+     * Replaces the whole game state with a single ship, for example when loading a saved game.
+     * Collision counts are cleared, and any other ships are removed.
+     * @param ship The ship to use.
+     * @param level The game level.
+     * @param spawnRate The spawn rate, as a percentage chance per tick.
+     * @param randomState A state returned by getRandomState() with the same kind of director.
+     * @param objects The space objects in the game, in order. The list is copied.
+     */
+    public void restore(Ship ship, int level, int spawnRate, long randomState,
+                        List<SpaceObject> objects) {
+        restore(List.of(ship), level, spawnRate, randomState, objects);
+    }
+
+    /**
+     * Replaces the whole game state, for example when loading a saved game.
+     * Collision counts are cleared.
+     * @param ships The ships to use, in order, replacing every current ship. The list is copied.
+     * @param level The game level.
+     * @param spawnRate The spawn rate, as a percentage chance per tick.
+     * @param randomState A state returned by getRandomState() with the same kind of director.
+     * @param objects The space objects in the game, in order. The list is copied.
+     */
+    public void restore(List<Ship> ships, int level, int spawnRate, long randomState,
+                        List<SpaceObject> objects) {
+        reportRemovedAll();
+        this.ships.clear();
+        for (int i = 0; i < ships.size(); i++) {
+            this.ships.add(applyBounds(ships.get(i)));
+        }
+        this.ship = this.ships.isEmpty() ? null : this.ships.get(0);
+        this.level = level;
+        this.spawnRate = spawnRate;
+        spawnDirector.setState(randomState);
+        spaceObjects.clear();
+        if (world != null) {
+            world.clear();
+        }
+        if (store == null) {
+            spaceObjects.addAll(objects);
+        } else {
+            store.clear();
+            for (int i = 0; i < objects.size(); i++) {
+                store.add(objects.get(i));
+            }
+        }
+        sharing = false;
+        Arrays.fill(collisionCounts, 0);
+        clearWakeups();
+        reportSpawnedAll();
+    }
+
+    /**
+     * Returns an independent copy of the game, for looking ahead by trying out moves.
+     *
+     * The copy shares the space objects with this model rather than copying them, and replaces a
+     * shared object with its own copy before changing it. Until endForks() is called, this
+     * model does the same, so its forks keep seeing the state they were forked from. Forking
+     * therefore costs about as much as copying the list of references, and a short lookahead
+     * only copies the objects it moves. The ships, level, spawn rate, spawn director, collision
+     * and spawn counts and bullet speed are copied, so the fork spawns exactly what this model
+     * would. The fork discards log messages, does not pool objects or schedule updates, and has
+     * the standard collision responses rather than any registered on this model. Shared objects
+     * must not be changed directly, for example through getSpaceObjects(). With array storage,
+     * the fork gets its own copy of the store's arrays instead. With a chunked world, the fork
+     * only holds the active objects, which are all a lookahead near the ships can meet.
+     * @return The forked model.
+     */
+    public GameModel fork() {
+        for (int i = 0; i < spaceObjects.size(); i++) {
+            SpaceObject object = spaceObjects.get(i);
+            if (object instanceof ObjectWithPosition) {
+                ((ObjectWithPosition) object).share(token);
+            }
+        }
+        sharing = true;
+        forked = true;
+
+        GameModel fork = new GameModel(text -> { }, width, height);
+        fork.spaceObjects = new ArrayList<>(spaceObjects);
+        fork.store = store == null ? null : store.copy();
+        fork.sharing = true;
+        fork.ships.clear();
+        for (int i = 0; i < ships.size(); i++) {
+            fork.ships.add((Ship) ships.get(i).copy());
+        }
+        fork.ship = fork.ships.isEmpty() ? null : fork.ships.get(0);
+        fork.level = level;
+        fork.spawnRate = spawnRate;
+        fork.spawnDirector = spawnDirector.copy();
+        System.arraycopy(collisionCounts, 0, fork.collisionCounts, 0, collisionCounts.length);
+        fork.spawnCount = spawnCount;
+        fork.bulletSpeed = bulletSpeed;
+        fork.leftBounds = leftBounds;
+        return fork;
+    }
+
+    /**
+     * Declares that no fork of this model, nor any fork of those, will be stepped or read
+     * again. Until then, this model copies each object it shares with its forks before changing
+     * it and never returns such objects to its pools; afterwards it changes and reuses them in
+     * place again. A search that forks the model on every tick should call this once it has
+     * decided, so the live game does not copy every moving object each tick.
+     */
+    public void endForks() {
+        forked = false;
+    }
+
+    /**
+     * Returns whether this model may change an object in place: it has not been shared, or this
+     * model shared it and no fork that may use it is still in use.
+     */
+    private boolean owns(ObjectWithPosition object) {
+        return forked ? !object.isShared() : object.isOwnedBy(token);
+    }
+
+    /**
+     * Replaces a shared object with this model's own copy if it changes at the given tick: it
+     * moves, or its previous position has to be brought up to date. Objects that do not change
+     * stay shared and must be left alone, so null is returned for them.
+     */
+    private SpaceObject ownIfChanging(int index, SpaceObject object, int tick) {
+        if (!(object instanceof ObjectWithPosition) || owns((ObjectWithPosition) object)) {
+            return object;
+        }
+        if (object.getNextWakeTick(tick - 1) > tick
+                && object.getPreviousFixedX() == object.getFixedX()
+                && object.getPreviousFixedY() == object.getFixedY()) {
+            return null;
+        }
+        SpaceObject copy = ((ObjectWithPosition) object).copy();
+        spaceObjects.set(index, copy);
+        return copy;
+    }
+
+    /**
+     * Replaces every object this model may not change in place with its own copy.
+     * @return True if any object was replaced.
+     */
+    private boolean ownAll() {
+        boolean copied = false;
+        for (int i = 0; i < spaceObjects.size(); i++) {
+            SpaceObject object = spaceObjects.get(i);
+            if (object instanceof ObjectWithPosition && !owns((ObjectWithPosition) object)) {
+                spaceObjects.set(i, ((ObjectWithPosition) object).copy());
+                copied = true;
+            }
+        }
+        sharing = false;
+        return copied;
+    }
+
+    /**
+     * Returns an object to the pools, unless it is shared with a fork that may still use it.
+     */
+    private void release(SpaceObject object) {
+        if (!sharing || !(object instanceof ObjectWithPosition)
+                || owns((ObjectWithPosition) object)) {
+            pools.release(object);
+        }
+    }
+
+    /**
+     * Returns the number of collisions of the given type resolved since the model was created
+     * or last reset.
+     * @param type The type of collision to count.
+     * @return The number of collisions of that type.
+     */
+    public long getCollisionCount(CollisionType type) {
+        return collisionCounts[type.ordinal()];
+    }
+
+    /**
+     * Returns the number of objects spawned by spawnObjects() since the model was created
+     * or last reset.
+     * @return The number of objects spawned.
+     */
+    public long getSpawnCount() {
+        return spawnCount;
+    }
+
     /**
      * Adds a SpaceObject to the list of spaceObjects in the game.
      * @param object The SpaceObject to be added.
      */
     public void addObject(SpaceObject object) {
-        spaceObjects.add(object);
+        if (store != null) {
+            reportStored(store.add(object));
+            return;
+        }
+        if (world != null && !world.isActive(object.getX(), object.getY())) {
+            world.add(object, currentTick);
+        } else {
+            spaceObjects.add(object);
+        }
+        if (wakeups != null) {
+            wakeups.schedule(object, wakeups.getNow());
+        }
+        if (entityListener != null) {
+            entityListener.spawned(object);
+        }
     }
 
     /**
-     * Updates the game state by processing the tick for each space object and removing those
-     * outside the game bounds.
+     * Updates the game state by processing the tick for each space object. Objects that have
+     * moved below the bottom row or above the top row are removed by the next call to
+     * checkCollisions(), once they have been checked along the path that took them out, so a
+     * fast bullet still hits an enemy it passed on its way off the board.
+     * If scheduled updates are enabled, only the objects due at this tick are ticked. With
+     * array storage, the store moves its objects instead (see EntityStore.update()). With a
+     * chunked world, only the active objects are ticked, and a share of the dormant chunks is
+     * stepped afterwards.
      * @param tick The current tick or frame count in the game loop.
      */
     public void updateGame(int tick) {
-        for (SpaceObject object : spaceObjects) {
+        if (store != null) {
+            if (store.update(tick, height, entityListener)) {
+                leftBounds = true;
+            }
+            return;
+        }
+        if (wakeups != null) {
+            updateScheduled(tick);
+            return;
+        }
+        if (world != null) {
+            activateChunks(tick);
+        }
+        int size = spaceObjects.size();
+        for (int i = 0; i < size; i++) {
+            SpaceObject object = spaceObjects.get(i);
+            if (sharing) {
+                object = ownIfChanging(i, object, tick);
+                if (object == null) {
+                    continue;
+                }
+            }
+            object.beginStep();
             object.tick(tick);
+            if (entityListener != null && changedCell(object)) {
+                entityListener.moved(object);
+            }
+            if (!leftBounds && isOutOfBounds(object)) {
+                leftBounds = true;
+            }
+        }
+        if (world != null) {
+            world.stepDormant(tick, dormantStep);
         }
-        List<SpaceObject> remainingObjects = new ArrayList<>();
+    }
 
-        for (SpaceObject object : spaceObjects) {
-            if (object.getY() <= GAME_HEIGHT) {
-                remainingObjects.add(object);
+    /**
+     * Makes the chunks near the ships' current positions the active ones: active objects now
+     * in a dormant chunk are moved to the world, and the objects of newly active chunks are
+     * stepped up to the last tick and moved to the list of active objects, ready to be ticked.
+     * A dormant object is always this model's own, so the world can step it in place.
+     */
+    private void activateChunks(int tick) {
+        world.focus(ships);
+        int kept = 0;
+        for (int i = 0; i < spaceObjects.size(); i++) {
+            SpaceObject object = spaceObjects.get(i);
+            if (world.isActive(object.getX(), object.getY())) {
+                spaceObjects.set(kept++, object);
+            } else if (sharing && object instanceof ObjectWithPosition
+                    && !owns((ObjectWithPosition) object)) {
+                world.add(((ObjectWithPosition) object).copy(), tick - 1);
+            } else {
+                world.add(object, tick - 1);
             }
         }
+        truncate(kept);
+        world.activate(tick - 1, dormantStep, spaceObjects);
+        currentTick = tick;
+    }
 
-        spaceObjects = remainingObjects;
+    /**
+     * Reports a step of a dormant object, and drops it once it has left the world.
+     * @return False if the object left the world.
+     */
+    private boolean keepDormant(SpaceObject object) {
+        if (entityListener != null && changedCell(object)) {
+            entityListener.moved(object);
+        }
+        if (!isOutOfBounds(object)) {
+            return true;
+        }
+        if (entityListener != null) {
+            entityListener.removed(object);
+        }
+        if (pools != null) {
+            release(object);
+        }
+        return false;
+    }
+
+    /**
+     * Ticks the objects whose wake-up tick has come and schedules each for the next tick it
+     * acts at. Objects ticked in the last update first have their previous position brought up
+     * to date, as they are not ticked again until they next move. If ticks were skipped, or the
+     * game was reset or restored, every object is ticked, as it would be without scheduling.
+     * After a fork that may still be in use, the wheel and the objects ticked in the last update
+     * may be shared with it, so this model takes its own copy of every shared object and
+     * schedules them all again; each copy's previous position is brought up to date when it
+     * is ticked.
+     */
+    private void updateScheduled(int tick) {
+        if (sharing && ownAll()) {
+            woken.clear();
+            wakeAll = true;
+        }
+        for (int i = 0; i < woken.size(); i++) {
+            woken.get(i).beginStep();
+        }
+        woken.clear();
+        if (wakeAll || tick != wakeups.getNow() + 1) {
+            wakeups.clear(tick - 1L);
+            for (int i = 0; i < spaceObjects.size(); i++) {
+                wakeups.schedule(spaceObjects.get(i), tick);
+            }
+            wakeAll = false;
+        }
+        currentTick = tick;
+        wakeups.advance(tick, wake);
+    }
+
+    private long wake(SpaceObject object) {
+        object.beginStep();
+        object.tick(currentTick);
+        woken.add(object);
+        if (entityListener != null && changedCell(object)) {
+            entityListener.moved(object);
+        }
+        if (!isOutOfBounds(object)) {
+            return object.getNextWakeTick(currentTick);
+        }
+        leftBounds = true;
+        return TimingWheel.NEVER;
+    }
+
+    /**
+     * Returns whether an object is above the top row or below the bottom row, so it can no
+     * longer collide with anything once its path has been checked.
+     */
+    private boolean isOutOfBounds(SpaceObject object) {
+        int y = object.getY();
+        return y < 0 || y > height;
     }
 
     /**
      * Checks for collisions between the ship and other space objects, such as power-ups,
      * asteroids, and enemies. The appropriate effects are applied and objects are removed if
      * they collide with the ship or other objects.
+     * Objects are first bucketed by cell, so only objects sharing a cell are ever compared.
+     * With several ships, they are checked in order, and an object removed by one ship
+     * cannot also hit a later ship in the same cell.
+     * Objects and ships that moved into another cell this tick are then checked along their
+     * path, so a bullet and an enemy that swapped cells, a ship that moved through an asteroid,
+     * or a fast bullet that skipped over an enemy, still collide. Finally, objects that left the
+     * board during the last update are removed along with those destroyed.
+     * With array storage, the store does the same over its arrays.
      */
     public void checkCollisions() {
-        List<SpaceObject> toRemove = new ArrayList<>();
-
-        for (SpaceObject object : spaceObjects) {
-            if (ship.getX() == object.getX() && ship.getY() == object.getY()) {
-                if (object instanceof HealthPowerUp) {
-                    ((HealthPowerUp) object).applyEffect(ship);
-                    logger.log("Power-up collected: " + object.render());
-                    toRemove.add(object);
-
-                } else if (object instanceof ShieldPowerUp) {
-                    ((ShieldPowerUp) object).applyEffect(ship);
-                    logger.log("Power-up collected: " + object.render());
-                    toRemove.add(object);
-
-                } else if (object instanceof Asteroid) {
-                    ship.takeDamage(ASTEROID_DAMAGE);
-                    logger.log("Hit by asteroid! Health reduced by " + ASTEROID_DAMAGE + ".");
-                    toRemove.add(object);
-
-                } else if (object instanceof Enemy) {
-                    ship.takeDamage(ENEMY_DAMAGE);
-                    logger.log("Hit by enemy! Health reduced by " + ENEMY_DAMAGE + ".");
-                    toRemove.add(object);
+        if (store != null) {
+            store.checkCollisions(ships, collisions, leftBounds, height, entityListener);
+            leftBounds = false;
+            for (int s = 0; s < ships.size(); s++) {
+                ships.get(s).beginStep();
+            }
+            return;
+        }
+        int count = spaceObjects.size();
+        if (removed.length < count) {
+            removed = new boolean[Math.max(count, removed.length * 2)];
+        }
+        grid.build(spaceObjects);
+
+        for (int s = 0; s < ships.size(); s++) {
+            Ship current = ships.get(s);
+            for (int node = grid.first(current.getX(), current.getY());
+                 node != SpatialGrid.NONE; node = grid.next(node)) {
+                int index = grid.indexAt(node);
+                if (!removed[index] && (collisions.collide(current, spaceObjects.get(index))
+                        & CollisionMatrix.REMOVE_SECOND) != 0) {
+                    markRemoved(index);
+                }
+            }
+        }
+        checkSweptShips();
+
+        grid.forEachPair(pairHit);
+        checkSweptCollisions(count);
+        removeMarked();
+        for (int s = 0; s < ships.size(); s++) {
+            ships.get(s).beginStep();
+        }
+    }
+
+    /**
+     * Finds the objects a ship met while moving since the last check without ending in the
+     * ship's cell, such as an asteroid it swapped cells with. A ship's previous position is
+     * where it was at the end of the last check, so every move made in between is swept. Objects
+     * ending in another cell of the rectangle between the ship's previous and current cell are
+     * found here; moving objects ending outside it are found by checkSweptCollisions().
+     */
+    private void checkSweptShips() {
+        for (int s = 0; s < ships.size(); s++) {
+            Ship current = ships.get(s);
+            int x = current.getX();
+            int y = current.getY();
+            int fromX = FixedPoint.toCell(current.getPreviousFixedX());
+            int fromY = FixedPoint.toCell(current.getPreviousFixedY());
+            if (fromX == x && fromY == y) {
+                continue;
+            }
+            for (int cellY = Math.min(fromY, y); cellY <= Math.max(fromY, y); cellY++) {
+                for (int cellX = Math.min(fromX, x); cellX <= Math.max(fromX, x); cellX++) {
+                    if (cellX == x && cellY == y) {
+                        continue;
+                    }
+                    for (int node = grid.first(cellX, cellY);
+                         node != SpatialGrid.NONE; node = grid.next(node)) {
+                        int index = grid.indexAt(node);
+                        if (!removed[index] && FixedPoint.sweptOverlap(current,
+                                spaceObjects.get(index))) {
+                            shipHit(current, index);
+                        }
+                    }
                 }
             }
         }
+    }
+
+    /**
+     * Applies the response for a ship meeting an object, marking the object if it is removed.
+     * @return True if the object was removed.
+     */
+    private boolean shipHit(Ship current, int index) {
+        if ((collisions.collide(current, spaceObjects.get(index))
+                & CollisionMatrix.REMOVE_SECOND) != 0) {
+            markRemoved(index);
+            return true;
+        }
+        return false;
+    }
 
-        for (SpaceObject object1 : spaceObjects) {
-            for (SpaceObject object2 : spaceObjects) {
-                if (object1.getX() == object2.getX() && object1.getY() == object2.getY()) {
-                    if (object1 instanceof Bullet && object2 instanceof Enemy) {
-                        toRemove.add(object1);
-                        toRemove.add(object2);
+    /**
+     * Finds pairs of objects that met during the last tick without ending it in the same cell.
+     * For each object that changed cell, every object ending in another cell of the rectangle
+     * between its previous and current cell is a candidate, and candidates are confirmed with
+     * an exact swept test. Pairs in the same cell have already been handled by the grid. A pair
+     * where both objects' rectangles cover the other's final cell is found from both sides, so
+     * it is only handled from the object with the lower index. Objects already removed this
+     * tick, by a ship, in their cell or earlier along a path, take no further part.
+     * Each moving object is first checked against any ship whose path it crossed without
+     * ending inside, as those meetings are not found from the ship's side.
+     */
+    private void checkSweptCollisions(int count) {
+        for (int i = 0; i < count; i++) {
+            if (removed[i]) {
+                continue;
+            }
+            SpaceObject moving = spaceObjects.get(i);
+            int x = moving.getX();
+            int y = moving.getY();
+            int fromX = FixedPoint.toCell(moving.getPreviousFixedX());
+            int fromY = FixedPoint.toCell(moving.getPreviousFixedY());
+            if (fromX == x && fromY == y) {
+                continue;
+            }
+            if (hitsShipOnPath(i, moving)) {
+                continue;
+            }
+            path:
+            for (int cellY = Math.min(fromY, y); cellY <= Math.max(fromY, y); cellY++) {
+                for (int cellX = Math.min(fromX, x); cellX <= Math.max(fromX, x); cellX++) {
+                    if (cellX == x && cellY == y) {
+                        continue;
+                    }
+                    for (int node = grid.first(cellX, cellY);
+                         node != SpatialGrid.NONE; node = grid.next(node)) {
+                        int other = grid.indexAt(node);
+                        SpaceObject candidate = spaceObjects.get(other);
+                        if (removed[other] || (other < i && pathCovers(candidate, x, y))) {
+                            continue;
+                        }
+                        if (FixedPoint.sweptOverlap(moving, candidate)) {
+                            onPair(i, other);
+                            if (!removed[i] && !removed[other]) {
+                                onPair(other, i);
+                            }
+                            if (removed[i]) {
+                                break path;
+                            }
+                        }
                     }
                 }
             }
         }
-        spaceObjects.removeAll(toRemove);
     }
 
+    /**
+     * Checks a moving object against every ship whose path it crossed but did not end in.
+     * @return True if a ship removed the object.
+     */
+    private boolean hitsShipOnPath(int index, SpaceObject moving) {
+        for (int s = 0; s < ships.size(); s++) {
+            Ship current = ships.get(s);
+            if (!pathCovers(current, moving.getX(), moving.getY())
+                    && pathsMeet(current, moving) && FixedPoint.sweptOverlap(current, moving)
+                    && shipHit(current, index)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Returns whether the rectangles between two objects' previous and current cells overlap,
+     * which they must if the objects met along their paths.
+     */
+    private static boolean pathsMeet(SpaceObject first, SpaceObject second) {
+        int firstFromX = FixedPoint.toCell(first.getPreviousFixedX());
+        int firstFromY = FixedPoint.toCell(first.getPreviousFixedY());
+        int secondFromX = FixedPoint.toCell(second.getPreviousFixedX());
+        int secondFromY = FixedPoint.toCell(second.getPreviousFixedY());
+        return Math.max(firstFromX, first.getX()) >= Math.min(secondFromX, second.getX())
+                && Math.max(secondFromX, second.getX()) >= Math.min(firstFromX, first.getX())
+                && Math.max(firstFromY, first.getY()) >= Math.min(secondFromY, second.getY())
+                && Math.max(secondFromY, second.getY()) >= Math.min(firstFromY, first.getY());
+    }
+
+    /**
+     * Returns whether the given cell is inside the rectangle between an object's previous and
+     * current cell.
+     */
+    private static boolean pathCovers(SpaceObject object, int cellX, int cellY) {
+        int fromX = FixedPoint.toCell(object.getPreviousFixedX());
+        int fromY = FixedPoint.toCell(object.getPreviousFixedY());
+        return cellX >= Math.min(fromX, object.getX()) && cellX <= Math.max(fromX, object.getX())
+                && cellY >= Math.min(fromY, object.getY())
+                && cellY <= Math.max(fromY, object.getY());
+    }
+
+    /**
+     * Returns the table of collision responses used by checkCollisions(). Responses can be
+     * registered or replaced to change what happens when two types of object meet, including
+     * new types, without changing checkCollisions(). Collisions with the ship use the pair
+     * (SHIP, type), with the ship as the first object.
+     * @return The collision matrix.
+     */
+    public CollisionMatrix getCollisionMatrix() {
+        return collisions;
+    }
+
+    /**
+     * Registers the standard responses: the ship collects power-ups and is damaged by asteroids
+     * and enemies, and a bullet destroys an enemy in the same cell along with itself.
+     */
+    private void registerCollisions() {
+        collisions.register(EntityType.SHIP, EntityType.HEALTH_POWER_UP,
+                powerUpCollision(CollisionType.HEALTH_POWER_UP));
+        collisions.register(EntityType.SHIP, EntityType.SHIELD_POWER_UP,
+                powerUpCollision(CollisionType.SHIELD_POWER_UP));
+        collisions.register(EntityType.SHIP, EntityType.ASTEROID, (first, second) -> {
+            ((Ship) first).takeDamage(ASTEROID_DAMAGE);
+            logger.log(LogLevel.INFO,
+                    "Hit by asteroid! Health reduced by " + ASTEROID_DAMAGE + ".");
+            collisionCounts[CollisionType.ASTEROID.ordinal()]++;
+            return CollisionMatrix.REMOVE_SECOND;
+        });
+        collisions.register(EntityType.SHIP, EntityType.ENEMY, (first, second) -> {
+            ((Ship) first).takeDamage(ENEMY_DAMAGE);
+            logger.log(LogLevel.INFO,
+                    "Hit by enemy! Health reduced by " + ENEMY_DAMAGE + ".");
+            collisionCounts[CollisionType.ENEMY.ordinal()]++;
+            return CollisionMatrix.REMOVE_SECOND;
+        });
+        collisions.register(EntityType.BULLET, EntityType.ENEMY, (first, second) -> {
+            collisionCounts[CollisionType.BULLET_ENEMY.ordinal()]++;
+            return CollisionMatrix.REMOVE_BOTH;
+        });
+    }
+
+    private CollisionMatrix.Response powerUpCollision(CollisionType type) {
+        return (first, second) -> {
+            ((PowerUpEffect) second).applyEffect((Ship) first);
+            logPowerUp(second);
+            collisionCounts[type.ordinal()]++;
+            return CollisionMatrix.REMOVE_SECOND;
+        };
+    }
+
+    private void logPowerUp(SpaceObject powerUp) {
+        if (logger.isEnabled(LogLevel.INFO)) {
+            ObjectGraphic graphic = powerUp.render();
+            logger.log(LogLevel.INFO, () -> "Power-up collected: " + graphic);
+        }
+    }
+
+    private void onPair(int first, int second) {
+        int outcome = collisions.collide(spaceObjects.get(first), spaceObjects.get(second));
+        if ((outcome & CollisionMatrix.REMOVE_FIRST) != 0) {
+            markRemoved(first);
+        }
+        if ((outcome & CollisionMatrix.REMOVE_SECOND) != 0) {
+            markRemoved(second);
+        }
+    }
+
+    private void markRemoved(int index) {
+        if (!removed[index]) {
+            removed[index] = true;
+            removedCount++;
+        }
+    }
+
+    /**
+     * Removes every object whose index is marked, and every object that has left the board,
+     * in a single in-place pass that keeps the remaining objects in their original order, and
+     * clears the marks for the next call.
+     */
+    private void removeMarked() {
+        if (removedCount == 0 && !leftBounds) {
+            return;
+        }
+        boolean checkBounds = leftBounds;
+        int size = spaceObjects.size();
+        int kept = 0;
+        for (int i = 0; i < size; i++) {
+            if (removed[i] || (checkBounds && isOutOfBounds(spaceObjects.get(i)))) {
+                removed[i] = false;
+                if (wakeups != null) {
+                    wakeups.cancel(spaceObjects.get(i));
+                }
+                if (entityListener != null) {
+                    entityListener.removed(spaceObjects.get(i));
+                }
+                if (pools != null) {
+                    release(spaceObjects.get(i));
+                }
+            } else {
+                if (kept != i) {
+                    spaceObjects.set(kept, spaceObjects.get(i));
+                }
+                kept++;
+            }
+        }
+        removedCount = 0;
+        leftBounds = false;
+        truncate(kept);
+    }
+
+    /**
+     * Drops objects from the end of the list until it holds the given number of objects.
+     * Removing from the end does not shift or allocate.
+     *
+     * @param size The number of objects to keep.
+     */
+    private void truncate(int size) {
+        for (int i = spaceObjects.size() - 1; i >= size; i--) {
+            spaceObjects.remove(i);
+        }
+    }
+
+
+    /**
+     * Sets how fast new bullets move. The default is one cell per tick; when the game is run at
+     * a lower tick rate, bullets can be made correspondingly faster without passing through
+     * enemies, as collisions are checked along each bullet's path.
+     * @param cellsPerTick The upward speed of new bullets, in fixed-point cells per tick.
+     * @see FixedPoint
+     */
+    public void setBulletSpeed(int cellsPerTick) {
+        this.bulletSpeed = cellsPerTick;
+    }
+
+    /**
+     * Gets how fast new bullets move.
+     * @return The upward speed of new bullets, in fixed-point cells per tick.
+     */
+    public int getBulletSpeed() {
+        return bulletSpeed;
+    }
 
     /**
      * Fires a bullet from the current position of the ship and adds it to the space objects.
+     * Does nothing if every ship has been removed.
      */
     public void fireBullet() {
+        if (ship != null) {
+            fireBullet(ship);
+        }
+    }
 
-        Bullet bullet = new Bullet(getShip().getX(), getShip().getY());
-        spaceObjects.add(bullet);
-        logger.log("Core.Bullet fired!");
+    /**
+     * Fires a bullet from the current position of the given ship.
+     * @param shooter The ship firing the bullet.
+     */
+    public void fireBullet(Ship shooter) {
+        int x = shooter.getX();
+        int y = shooter.getY();
+        if (store != null) {
+            reportStored(store.add(EntityType.BULLET, FixedPoint.fromCell(x),
+                    FixedPoint.fromCell(y), 0, -bulletSpeed));
+        } else {
+            Bullet bullet = pools == null ? new Bullet(x, y) : pools.bullet(x, y);
+            bullet.setVelocity(0, -bulletSpeed);
+            addObject(bullet);
+        }
+        logger.log(LogLevel.INFO, "Core.Bullet fired!");
     }
 
 
     /**
      * Spawns new space objects, such as asteroids, enemies, and power-ups, at random positions
-     * based on spawn rates.
+     * based on spawn rates. What spawns is decided by the spawn director.
      */
     public void spawnObjects() {
-        if (random.nextInt(100) < spawnRate) {
-            int x = random.nextInt(GAME_WIDTH);
-            if (!(ship.getX() == x && ship.getY() == 0)) {
-                addObject(new Asteroid(x, 0));
-            }
+        spawnDirector.spawn(spawnTarget);
+    }
+
+    /**
+     * Lets the spawn director read the spawn rate and add objects to the top row.
+     */
+    private class SpawnTarget implements SpawnDirector.Target {
+
+        @Override
+        public int getWidth() {
+            return width;
+        }
+
+        @Override
+        public int getSpawnRate() {
+            return spawnRate;
         }
 
-        if (random.nextInt(100) < spawnRate * ENEMY_SPAWN_RATE) {
-            int x = random.nextInt(GAME_WIDTH);
-            if (!(ship.getX() == x && ship.getY() == 0)) {
-                addObject(new Enemy(x, 0));
+        @Override
+        public boolean isBlocked(int x) {
+            return isShipAt(x, 0);
+        }
+
+        @Override
+        public void spawn(EntityType type, int x) {
+            if (store != null) {
+                reportStored(store.add(type, x, 0));
+                spawnCount++;
+                return;
+            }
+            switch (type) {
+                case ASTEROID:
+                    addObject(pools == null ? new Asteroid(x, 0) : pools.asteroid(x, 0));
+                    break;
+                case ENEMY:
+                    addObject(pools == null ? new Enemy(x, 0) : pools.enemy(x, 0));
+                    break;
+                case SHIELD_POWER_UP:
+                    addObject(pools == null
+                            ? new ShieldPowerUp(x, 0) : pools.shieldPowerUp(x, 0));
+                    break;
+                case HEALTH_POWER_UP:
+                    addObject(pools == null
+                            ? new HealthPowerUp(x, 0) : pools.healthPowerUp(x, 0));
+                    break;
+                default:
+                    throw new IllegalArgumentException("Cannot spawn " + type);
             }
+            spawnCount++;
         }
-        if (random.nextInt(100) < spawnRate * POWER_UP_SPAWN_RATE) {
-            int x = random.nextInt(GAME_WIDTH);
-            if (!(ship.getX() == x && ship.getY() == 0)) {
-                if (random.nextBoolean()) {
-                    addObject(new ShieldPowerUp(x, 0));
-                } else {
-                    addObject(new HealthPowerUp(x, 0));
-                }
+    }
+
+    private void reportStored(int slot) {
+        if (entityListener != null) {
+            entityListener.spawned(store.view(slot));
+        }
+    }
+
+    private boolean isShipAt(int x, int y) {
+        for (int i = 0; i < ships.size(); i++) {
+            Ship current = ships.get(i);
+            if (current.getX() == x && current.getY() == y) {
+                return true;
             }
         }
+        return false;
     }
 
     /**
      * Increases the game level if the score threshold for the current level is reached.
      * It also increases the spawn rate of new objects.
+     * With several ships, the highest score counts.
      */
     public void levelUp() {
-        if (ship.getScore() >= getLevel() * SCORE_THRESHOLD) {
+        int score = 0;
+        for (int i = 0; i < ships.size(); i++) {
+            score = Math.max(score, ships.get(i).getScore());
+        }
+        if (score >= getLevel() * SCORE_THRESHOLD) {
             spawnRate += SPAWN_RATE_INCREASE;
             level += 1;
-            logger.log("Level Up! Welcome to Level " + level
-                    + ". Spawn rate increased to " + spawnRate + "%.");
+            if (logger.isEnabled(LogLevel.INFO)) {
+                int newLevel = level;
+                int newSpawnRate = spawnRate;
+                logger.log(LogLevel.INFO, () -> "Level Up! Welcome to Level " + newLevel
+                        + ". Spawn rate increased to " + newSpawnRate + "%.");
+            }
         }
     }
 
     /**
-     * Sets the seed of the Random instance created in the constructor using .setSeed().
+     * Restarts the spawn director's random sequence from the given seed using its setSeed(),
+     * so the same seed and input always produce the same game.
      *
      * This method should NEVER be called.
      *
-     * @param seed to be set for the Random instance
+     * @param seed to be set for the spawn director
      * @provided
      */
     public void setRandomSeed(int seed) {
-        this.random.setSeed(seed);
+        this.spawnDirector.setSeed(seed);
     }
 }
@@ -0,0 +1,48 @@
+package game.assets;
+
+import java.nio.file.Path;
+import java.nio.file.Paths;
+
+/**
+ * Holds the game's single TextureAtlas, loaded from the working directory the first time it is
+ * needed.
+ *
+ * A graphical front end should call preload() while starting up, before the first frame is drawn,
+ * so that no frame waits on the disk; every later call to atlas() is a field read. Headless games
+ * never draw sprites, so they never load the atlas.
+ */
+public final class AssetCache {
+
+    private AssetCache() {
+    }
+
+    /**
+     * Loads the atlas when the class is first used, which the JVM guarantees happens once.
+     */
+    private static class Holder {
+        private static final TextureAtlas ATLAS = load();
+
+        private static TextureAtlas load() {
+            Path root = Paths.get("");
+            return TextureAtlas.load(root, root.resolve(TextureAtlas.DEFAULT_CACHE));
+        }
+    }
+
+    /**
+     * Gets the atlas, loading it if this is the first call.
+     *
+     * @return The shared atlas.
+     */
+    public static TextureAtlas atlas() {
+        return Holder.ATLAS;
+    }
+
+    /**
+     * Loads the atlas now if it has not been loaded yet.
+     *
+     * @return How the atlas was loaded.
+     */
+    public static AtlasMetrics preload() {
+        return atlas().getMetrics();
+    }
+}
@@ -0,0 +1,119 @@
+package game.assets;
+
+/**
+ * How a TextureAtlas was loaded and how long it took.
+ */
+public class AtlasMetrics {
+    private final boolean fromCache;
+    private final int assets;
+    private final int missing;
+    private final long bytesRead;
+    private final long decodeNanos;
+    private final long loadNanos;
+    private final int width;
+    private final int height;
+
+    /**
+     * Constructs an AtlasMetrics.
+     *
+     * @param fromCache True if the atlas was read from its cache file rather than packed.
+     * @param assets The number of distinct asset files in the atlas.
+     * @param missing The number of assets replaced by placeholders.
+     * @param bytesRead The number of bytes read from disk.
+     * @param decodeNanos The time spent decoding images, or 0 if none were decoded.
+     * @param loadNanos The total time taken to load the atlas.
+     * @param width The width of the atlas image.
+     * @param height The height of the atlas image.
+     */
+    public AtlasMetrics(boolean fromCache, int assets, int missing, long bytesRead,
+                        long decodeNanos, long loadNanos, int width, int height) {
+        this.fromCache = fromCache;
+        this.assets = assets;
+        this.missing = missing;
+        this.bytesRead = bytesRead;
+        this.decodeNanos = decodeNanos;
+        this.loadNanos = loadNanos;
+        this.width = width;
+        this.height = height;
+    }
+
+    /**
+     * Returns whether the atlas was read from its cache file rather than packed from the assets.
+     *
+     * @return True if the cache was used.
+     */
+    public boolean isFromCache() {
+        return fromCache;
+    }
+
+    /**
+     * Gets the number of distinct asset files in the atlas.
+     *
+     * @return The number of assets.
+     */
+    public int getAssets() {
+        return assets;
+    }
+
+    /**
+     * Gets the number of assets that were missing or unreadable and replaced by placeholders.
+     *
+     * @return The number of missing assets.
+     */
+    public int getMissing() {
+        return missing;
+    }
+
+    /**
+     * Gets the number of bytes read from disk to load the atlas.
+     *
+     * @return The bytes read.
+     */
+    public long getBytesRead() {
+        return bytesRead;
+    }
+
+    /**
+     * Gets the time spent decoding images.
+     *
+     * @return The decode time in nanoseconds, or 0 if the atlas came from the cache.
+     */
+    public long getDecodeNanos() {
+        return decodeNanos;
+    }
+
+    /**
+     * Gets the total time taken to load the atlas, including reading, decoding, packing and
+     * writing the cache.
+     *
+     * @return The load time in nanoseconds.
+     */
+    public long getLoadNanos() {
+        return loadNanos;
+    }
+
+    /**
+     * Gets the width of the atlas image.
+     *
+     * @return The width in pixels.
+     */
+    public int getWidth() {
+        return width;
+    }
+
+    /**
+     * Gets the height of the atlas image.
+     *
+     * @return The height in pixels.
+     */
+    public int getHeight() {
+        return height;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("cache=%b assets=%d missing=%d bytes=%d decode=%.2fms "
+                        + "load=%.2fms atlas=%dx%d", fromCache, assets, missing, bytesRead,
+                decodeNanos / 1e6, loadNanos / 1e6, width, height);
+    }
+}
@@ -0,0 +1,111 @@
+package game.assets;
+
+import java.awt.image.BufferedImage;
+
+/**
+ * The area of a TextureAtlas holding one sprite.
+ *
+ * The region's image shares the atlas's pixels rather than copying them, so drawing it costs no
+ * more than drawing part of the atlas, and regions can be looked up and drawn every frame without
+ * allocating.
+ */
+public class AtlasRegion {
+    private final String path;
+    private final int x;
+    private final int y;
+    private final int width;
+    private final int height;
+    private final boolean placeholder;
+    private final BufferedImage image;
+
+    /**
+     * Constructs an AtlasRegion.
+     *
+     * @param path The asset path the sprite was loaded from.
+     * @param atlas The atlas image the region is part of.
+     * @param x The left edge of the region in the atlas.
+     * @param y The top edge of the region in the atlas.
+     * @param width The width of the region.
+     * @param height The height of the region.
+     * @param placeholder True if the asset could not be loaded and a placeholder was packed.
+     */
+    public AtlasRegion(String path, BufferedImage atlas, int x, int y, int width, int height,
+                       boolean placeholder) {
+        this.path = path;
+        this.x = x;
+        this.y = y;
+        this.width = width;
+        this.height = height;
+        this.placeholder = placeholder;
+        this.image = atlas.getSubimage(x, y, width, height);
+    }
+
+    /**
+     * Gets the asset path the sprite was loaded from.
+     *
+     * @return The path, relative to the asset root.
+     */
+    public String getPath() {
+        return path;
+    }
+
+    /**
+     * Gets the left edge of the region in the atlas.
+     *
+     * @return The x coordinate in pixels.
+     */
+    public int getX() {
+        return x;
+    }
+
+    /**
+     * Gets the top edge of the region in the atlas.
+     *
+     * @return The y coordinate in pixels.
+     */
+    public int getY() {
+        return y;
+    }
+
+    /**
+     * Gets the width of the region.
+     *
+     * @return The width in pixels.
+     */
+    public int getWidth() {
+        return width;
+    }
+
+    /**
+     * Gets the height of the region.
+     *
+     * @return The height in pixels.
+     */
+    public int getHeight() {
+        return height;
+    }
+
+    /**
+     * Returns whether the asset was missing or unreadable, so a placeholder was packed instead.
+     *
+     * @return True if the region holds a placeholder.
+     */
+    public boolean isPlaceholder() {
+        return placeholder;
+    }
+
+    /**
+     * Gets the sprite as an image backed by the atlas. The image must not be modified.
+     *
+     * @return The sprite image.
+     */
+    public BufferedImage getImage() {
+        return image;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%s@%d,%d %dx%d%s", path, x, y, width, height,
+                placeholder ? " (placeholder)" : "");
+    }
+}
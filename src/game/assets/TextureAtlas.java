@@ -0,0 +1,442 @@
+package game.assets;
+
+import game.core.EntityType;
+import game.core.GraphicRegistry;
+import game.ui.ObjectGraphic;
+
+import javax.imageio.ImageIO;
+import javax.imageio.stream.MemoryCacheImageInputStream;
+import java.awt.AlphaComposite;
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Every sprite in the game packed into one image, with the area of each resolved once when the
+ * atlas is loaded.
+ *
+ * Packing reads the image path of every type in the GraphicRegistry, each file in a single read,
+ * decodes it in memory and places it on shelves in one ARGB image. The packed pixels and region
+ * table are then saved to a cache file, so later starts skip decoding altogether: the cache is
+ * memory-mapped (or read in one pass when small) and copied into the atlas in bulk. The cache
+ * records the size and modification time of every asset and is packed again when any of them
+ * change, or when it cannot be read.
+ *
+ * Regions are held in an array indexed by EntityType id, so a renderer finds a sprite with one
+ * array lookup and never touches the file system once the atlas is loaded. Assets that are
+ * missing or cannot be decoded are packed as a placeholder, so the game still starts without them.
+ *
+ * An atlas is not modified once loaded, so it can be shared between threads.
+ */
+public class TextureAtlas {
+    /** Where the cache is kept unless another file is given, relative to the asset root. */
+    public static final String DEFAULT_CACHE = "assets/atlas.cache";
+
+    private static final int MAGIC = 0x53474154; // "SGAT"
+    private static final short VERSION = 1;
+    private static final int HEADER_BYTES = 4 + 2 + 8 + 4 * 3;
+    private static final int REGION_BYTES = 1 + 4 * 4;
+    private static final long MAP_THRESHOLD = 1 << 20;
+    private static final int PADDING = 1;
+    private static final int PLACEHOLDER_SIZE = 16;
+
+    private final BufferedImage image;
+    /** Regions indexed by EntityType id; index 0 is unused. */
+    private final AtlasRegion[] regions = new AtlasRegion[EntityType.values().length + 1];
+    private final Map<String, AtlasRegion> byPath = new HashMap<>();
+    private final AtlasMetrics metrics;
+
+    /**
+     * Constructs a TextureAtlas from packed pixels and the placement of each asset.
+     */
+    private TextureAtlas(BufferedImage image, List<String> paths, int[][] placements,
+                         boolean[] placeholders, AtlasMetrics metrics) {
+        this.image = image;
+        this.metrics = metrics;
+        for (int i = 0; i < paths.size(); i++) {
+            int[] placement = placements[i];
+            byPath.put(paths.get(i), new AtlasRegion(paths.get(i), image, placement[0],
+                    placement[1], placement[2], placement[3], placeholders[i]));
+        }
+        for (EntityType type : EntityType.values()) {
+            regions[type.getId()] = byPath.get(GraphicRegistry.getPath(type));
+        }
+    }
+
+    /**
+     * Loads the atlas from its cache file if it is up to date, or packs it from the assets and
+     * saves the cache otherwise. Failing to save the cache does not stop the atlas loading.
+     *
+     * @param root The directory the asset paths are relative to.
+     * @param cache The cache file, or null to always pack the atlas and not save it.
+     * @return The loaded atlas.
+     */
+    public static TextureAtlas load(Path root, Path cache) {
+        long start = System.nanoTime();
+        List<String> paths = assetPaths();
+        long fingerprint = fingerprint(root, paths);
+        if (cache != null && Files.isRegularFile(cache)) {
+            try {
+                TextureAtlas atlas = readCache(cache, paths, fingerprint, start);
+                if (atlas != null) {
+                    return atlas;
+                }
+            } catch (IOException | IllegalArgumentException e) {
+                // An unreadable or corrupt cache is packed again and replaced.
+            }
+        }
+        return pack(root, paths, fingerprint, cache, start);
+    }
+
+    /**
+     * Gets the distinct image paths of every entity type, in type order.
+     */
+    private static List<String> assetPaths() {
+        List<String> paths = new ArrayList<>();
+        for (EntityType type : EntityType.values()) {
+            String path = GraphicRegistry.getPath(type);
+            if (!paths.contains(path)) {
+                paths.add(path);
+            }
+        }
+        return paths;
+    }
+
+    /**
+     * Summarises the path, size and modification time of every asset, without reading them.
+     */
+    private static long fingerprint(Path root, List<String> paths) {
+        long hash = VERSION;
+        for (String path : paths) {
+            hash = mix(hash * 31 + path.hashCode());
+            try {
+                BasicFileAttributes attributes = Files.readAttributes(root.resolve(path),
+                        BasicFileAttributes.class);
+                hash = mix(hash + attributes.size());
+                hash = mix(hash + attributes.lastModifiedTime().toMillis());
+            } catch (IOException e) {
+                hash = mix(hash - 1);
+            }
+        }
+        return hash;
+    }
+
+    /**
+     * The 64-bit finalizer from MurmurHash3, which spreads every input bit over the result.
+     */
+    private static long mix(long z) {
+        z = (z ^ (z >>> 33)) * 0xFF51AFD7ED558CCDL;
+        z = (z ^ (z >>> 33)) * 0xC4CEB9FE1A85EC53L;
+        return z ^ (z >>> 33);
+    }
+
+    private static TextureAtlas pack(Path root, List<String> paths, long fingerprint, Path cache,
+                                     long start) {
+        int count = paths.size();
+        BufferedImage[] sprites = new BufferedImage[count];
+        boolean[] placeholders = new boolean[count];
+        long bytesRead = 0;
+        long decodeNanos = 0;
+        int missing = 0;
+        for (int i = 0; i < count; i++) {
+            BufferedImage sprite = null;
+            try {
+                byte[] bytes = Files.readAllBytes(root.resolve(paths.get(i)));
+                bytesRead += bytes.length;
+                long decodeStart = System.nanoTime();
+                // Decoding from memory keeps ImageIO from spooling the stream to a temporary file.
+                sprite = ImageIO.read(new MemoryCacheImageInputStream(
+                        new ByteArrayInputStream(bytes)));
+                decodeNanos += System.nanoTime() - decodeStart;
+            } catch (IOException e) {
+                // A missing or unreadable asset is replaced by a placeholder below.
+            }
+            if (sprite == null) {
+                sprite = placeholder();
+                placeholders[i] = true;
+                missing++;
+            }
+            sprites[i] = sprite;
+        }
+
+        int[][] placements = new int[count][];
+        int[] size = place(sprites, placements);
+        BufferedImage image = new BufferedImage(size[0], size[1], BufferedImage.TYPE_INT_ARGB);
+        Graphics2D graphics = image.createGraphics();
+        graphics.setComposite(AlphaComposite.Src);
+        for (int i = 0; i < count; i++) {
+            graphics.drawImage(sprites[i], placements[i][0], placements[i][1], null);
+        }
+        graphics.dispose();
+
+        if (cache != null) {
+            try {
+                writeCache(cache, image, placements, placeholders, fingerprint);
+            } catch (IOException e) {
+                // The atlas is still usable; it is packed again on the next start.
+            }
+        }
+        AtlasMetrics metrics = new AtlasMetrics(false, count, missing, bytesRead, decodeNanos,
+                System.nanoTime() - start, image.getWidth(), image.getHeight());
+        return new TextureAtlas(image, paths, placements, placeholders, metrics);
+    }
+
+    /**
+     * Places the sprites on shelves, tallest first, in an atlas whose width is the smallest
+     * power of two that could hold their total area (or the widest sprite, if wider).
+     *
+     * @param sprites The sprites to place.
+     * @param placements Filled with the x, y, width and height of each sprite.
+     * @return The width and height of the atlas.
+     */
+    private static int[] place(BufferedImage[] sprites, int[][] placements) {
+        Integer[] order = new Integer[sprites.length];
+        long area = 0;
+        int widest = 1;
+        for (int i = 0; i < sprites.length; i++) {
+            order[i] = i;
+            area += (long) (sprites[i].getWidth() + PADDING) * (sprites[i].getHeight() + PADDING);
+            widest = Math.max(widest, sprites[i].getWidth());
+        }
+        Arrays.sort(order, (a, b) -> sprites[b].getHeight() - sprites[a].getHeight());
+
+        int width = 1;
+        while ((long) width * width < area) {
+            width <<= 1;
+        }
+        width = Math.max(width, widest);
+        int x = 0;
+        int y = 0;
+        int shelf = 0;
+        for (int i : order) {
+            int spriteWidth = sprites[i].getWidth();
+            int spriteHeight = sprites[i].getHeight();
+            if (x + spriteWidth > width) {
+                y += shelf + PADDING;
+                x = 0;
+                shelf = 0;
+            }
+            placements[i] = new int[] {x, y, spriteWidth, spriteHeight};
+            x += spriteWidth + PADDING;
+            shelf = Math.max(shelf, spriteHeight);
+        }
+        return new int[] {width, Math.max(1, y + shelf)};
+    }
+
+    /**
+     * Creates a magenta and black checkerboard to stand in for a missing sprite.
+     */
+    private static BufferedImage placeholder() {
+        BufferedImage sprite = new BufferedImage(PLACEHOLDER_SIZE, PLACEHOLDER_SIZE,
+                BufferedImage.TYPE_INT_ARGB);
+        for (int y = 0; y < PLACEHOLDER_SIZE; y++) {
+            for (int x = 0; x < PLACEHOLDER_SIZE; x++) {
+                sprite.setRGB(x, y, ((x / 4 + y / 4) & 1) == 0 ? 0xFFFF00FF : 0xFF000000);
+            }
+        }
+        return sprite;
+    }
+
+    private static void writeCache(Path cache, BufferedImage image, int[][] placements,
+                                   boolean[] placeholders, long fingerprint) throws IOException {
+        int width = image.getWidth();
+        int height = image.getHeight();
+        int[] pixels = (int[]) image.getRaster().getDataElements(0, 0, width, height, null);
+        ByteBuffer out = ByteBuffer.allocate(HEADER_BYTES + REGION_BYTES * placements.length
+                + 4 * pixels.length);
+        out.putInt(MAGIC);
+        out.putShort(VERSION);
+        out.putLong(fingerprint);
+        out.putInt(width);
+        out.putInt(height);
+        out.putInt(placements.length);
+        for (int i = 0; i < placements.length; i++) {
+            out.put((byte) (placeholders[i] ? 1 : 0));
+            for (int value : placements[i]) {
+                out.putInt(value);
+            }
+        }
+        out.asIntBuffer().put(pixels);
+        out.position(out.limit());
+        out.flip();
+
+        Path parent = cache.toAbsolutePath().getParent();
+        if (parent != null) {
+            Files.createDirectories(parent);
+        }
+        Path temp = cache.resolveSibling(cache.getFileName() + ".tmp");
+        try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            while (out.hasRemaining()) {
+                channel.write(out);
+            }
+        }
+        Files.move(temp, cache, StandardCopyOption.REPLACE_EXISTING,
+                StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    /**
+     * Reads the cache file, memory-mapping it if it is large.
+     *
+     * @return The atlas, or null if the cache was written for other assets or another version.
+     * @throws IllegalArgumentException If the file is not a valid cache.
+     */
+    private static TextureAtlas readCache(Path cache, List<String> paths, long fingerprint,
+                                          long start) throws IOException {
+        ByteBuffer in;
+        long size;
+        try (FileChannel channel = FileChannel.open(cache, StandardOpenOption.READ)) {
+            size = channel.size();
+            if (size >= MAP_THRESHOLD) {
+                in = channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+            } else {
+                in = ByteBuffer.allocate((int) size);
+                while (in.hasRemaining() && channel.read(in) >= 0) {
+                    // keep reading until the buffer is full or the file ends
+                }
+                in.flip();
+            }
+        }
+        try {
+            if (in.getInt() != MAGIC) {
+                throw new IllegalArgumentException("Not a texture atlas cache");
+            }
+            if (in.getShort() != VERSION || in.getLong() != fingerprint) {
+                return null;
+            }
+            int width = in.getInt();
+            int height = in.getInt();
+            int count = in.getInt();
+            if (count != paths.size()) {
+                return null;
+            }
+            if (width <= 0 || height <= 0
+                    || (long) REGION_BYTES * count + 4L * width * height != in.remaining()) {
+                throw new IllegalArgumentException("Corrupt texture atlas cache size");
+            }
+            int[][] placements = new int[count][4];
+            boolean[] placeholders = new boolean[count];
+            int missing = 0;
+            for (int i = 0; i < count; i++) {
+                placeholders[i] = in.get() != 0;
+                missing += placeholders[i] ? 1 : 0;
+                for (int j = 0; j < 4; j++) {
+                    placements[i][j] = in.getInt();
+                }
+                int[] placement = placements[i];
+                if (placement[0] < 0 || placement[1] < 0 || placement[2] <= 0
+                        || placement[3] <= 0 || placement[0] + placement[2] > width
+                        || placement[1] + placement[3] > height) {
+                    throw new IllegalArgumentException("Corrupt texture atlas region: " + i);
+                }
+            }
+            int[] pixels = new int[width * height];
+            in.asIntBuffer().get(pixels);
+            // Copying through the raster, rather than wrapping the array, leaves the image
+            // managed, so Java2D can keep a copy in video memory.
+            BufferedImage image = new BufferedImage(width, height, BufferedImage.TYPE_INT_ARGB);
+            image.getRaster().setDataElements(0, 0, width, height, pixels);
+            AtlasMetrics metrics = new AtlasMetrics(true, count, missing, size, 0,
+                    System.nanoTime() - start, width, height);
+            return new TextureAtlas(image, paths, placements, placeholders, metrics);
+        } catch (BufferUnderflowException e) {
+            throw new IllegalArgumentException("Truncated texture atlas cache", e);
+        }
+    }
+
+    /**
+     * Gets the packed image holding every sprite. The image must not be modified.
+     *
+     * @return The atlas image.
+     */
+    public BufferedImage getImage() {
+        return image;
+    }
+
+    /**
+     * Gets the sprite for the given type.
+     *
+     * @param type The entity type.
+     * @return The region holding the type's sprite.
+     */
+    public AtlasRegion getRegion(EntityType type) {
+        return regions[type.getId()];
+    }
+
+    /**
+     * Gets the sprite for the given type id.
+     *
+     * @param id The id returned by EntityType.getId().
+     * @return The region holding the type's sprite.
+     */
+    public AtlasRegion getRegion(int id) {
+        return regions[id];
+    }
+
+    /**
+     * Gets the sprite for a graphic returned by render(). Graphics are matched by identity
+     * against the shared instances in the GraphicRegistry, so no strings are compared.
+     *
+     * @param graphic The graphic to draw.
+     * @return The region holding its sprite, or null if it is not a registered graphic.
+     */
+    public AtlasRegion getRegion(ObjectGraphic graphic) {
+        for (int id = 1; id < regions.length; id++) {
+            if (GraphicRegistry.get(id) == graphic) {
+                return regions[id];
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Gets the sprite loaded from the given asset path.
+     *
+     * @param path The path, as registered in the GraphicRegistry.
+     * @return The region holding the sprite, or null if the path is not in the atlas.
+     */
+    public AtlasRegion getRegion(String path) {
+        return byPath.get(path);
+    }
+
+    /**
+     * Gets how the atlas was loaded and how long it took.
+     *
+     * @return The load metrics.
+     */
+    public AtlasMetrics getMetrics() {
+        return metrics;
+    }
+
+    /**
+     * Loads the atlas and prints how it was loaded and where each sprite was placed. Running it
+     * twice shows the difference between packing the assets and reading the cache.
+     * Usage: TextureAtlas [assetRoot] [cacheFile]
+     *
+     * @param args The optional asset root directory and cache file.
+     */
+    public static void main(String[] args) {
+        Path root = Paths.get(args.length > 0 ? args[0] : "");
+        Path cache = args.length > 1 ? Paths.get(args[1]) : root.resolve(DEFAULT_CACHE);
+        TextureAtlas atlas = load(root, cache);
+        System.out.println(atlas.getMetrics());
+        for (EntityType type : EntityType.values()) {
+            System.out.println(type + ": " + atlas.getRegion(type));
+        }
+    }
+}
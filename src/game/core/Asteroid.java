@@ -24,10 +24,20 @@ public class Asteroid extends DescendingEnemy {
     }
 
     /**
-     * Returns a new ObjectGraphic instance which contains the textRepresentation
+     * Gets the type of this object.
+     *
+     * @return EntityType.ASTEROID
+     */
+    @Override
+    public EntityType getType() {
+        return EntityType.ASTEROID;
+    }
+
+    /**
+     * Returns the shared ObjectGraphic instance which contains the textRepresentation
      * and the pathToImage.
      */
     public ObjectGraphic render() {
-        return new ObjectGraphic("🌑", "assets/asteroid.png");
+        return GraphicRegistry.get(EntityType.ASTEROID);
     }
 }
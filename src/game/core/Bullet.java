@@ -4,6 +4,7 @@ import game.ui.ObjectGraphic;
 
 /**
  * Represents a Bullet, which is an object with a position that moves upward.
+ * By default a bullet moves one cell per tick; faster bullets can be given a larger velocity.
  *
  */
 public class Bullet extends ObjectWithPosition {
@@ -16,23 +17,33 @@ public class Bullet extends ObjectWithPosition {
      */
     public Bullet(int x, int y) {
         super(x, y);
+        setVelocity(0, -FixedPoint.ONE);
     }
 
     /**
-     * Subtracts 1 from y position, causing Bullet instance
-     * to move up.
+     * Moves the bullet by its velocity, which is up one cell per tick unless changed.
      *
      * @param tick The current game tick
      */
     public void tick(int tick) {
-        y -= 1;
+        advance();
     }
 
     /**
-     * Returns a new ObjectGraphic instance which contains the textRepresentation
+     * Gets the type of this object.
+     *
+     * @return EntityType.BULLET
+     */
+    @Override
+    public EntityType getType() {
+        return EntityType.BULLET;
+    }
+
+    /**
+     * Returns the shared ObjectGraphic instance which contains the textRepresentation
      * and the pathToImage.
      */
     public ObjectGraphic render() {
-        return new ObjectGraphic("🔺", "assets/bullet.png");
+        return GraphicRegistry.get(EntityType.BULLET);
     }
 }
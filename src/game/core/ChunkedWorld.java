@@ -0,0 +1,537 @@
+package game.core;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Sparse, chunked storage for the space objects of a world far larger than the default board,
+ * used by GameModel.setChunkedWorld().
+ *
+ * The world is divided into square chunks, and the chunks within an active radius of a ship
+ * are active: their objects are kept in the model's list and simulated at full rate by the
+ * model, with collisions. Objects in every other chunk are dormant and kept here. Only chunks
+ * holding at least one dormant object exist, so empty regions cost no memory and no time, and
+ * emptied chunks are kept for reuse rather than left as garbage.
+ *
+ * Dormant objects keep moving, but are stepped in batches: each call to stepDormant() visits a
+ * share of the chunks in turn, and steps each of their objects through every tick it missed,
+ * so each chunk falls at most STEP_PERIOD ticks behind. Dormant objects do not collide with
+ * anything. Each object remembers the last tick it was stepped to, so objects can move between
+ * chunks that were stepped at different times.
+ */
+public class ChunkedWorld {
+    /** Every dormant chunk is stepped at least once every STEP_PERIOD ticks. */
+    public static final int STEP_PERIOD = 16;
+
+    private static final int INITIAL_CAPACITY = 64;
+
+    private final int chunkSize;
+    private final int activeRadius;
+
+    /** Open-addressed table from packed chunk coordinates to chunk. */
+    private long[] keys = new long[INITIAL_CAPACITY];
+    private Chunk[] table = new Chunk[INITIAL_CAPACITY];
+    private int chunkCount;
+    private int size;
+    private int cursor; // the next table slot stepDormant() visits
+    private Chunk freeChunks; // emptied chunks, linked through Chunk.next
+
+    private int[] focusX = new int[4]; // the chunk each ship is in, set by focus()
+    private int[] focusY = new int[4];
+    private int focusCount;
+    private boolean focused; // whether focus() has been called
+
+    private Chunk[] visiting = new Chunk[INITIAL_CAPACITY]; // scratch for gather()
+    private SpaceObject[] moved = new SpaceObject[INITIAL_CAPACITY]; // objects changing chunk
+    private int movedCount;
+
+    /**
+     * Called for each dormant object after it has been stepped through a tick.
+     */
+    @FunctionalInterface
+    public interface StepHandler {
+
+        /**
+         * Reports a step of a dormant object, and decides whether it stays in the world.
+         *
+         * @param object The object that was just ticked.
+         * @return False if the object has left the world and should be dropped.
+         */
+        boolean stepped(SpaceObject object);
+    }
+
+    /**
+     * A square region of the world and the dormant objects in it, each with the last tick it
+     * was stepped to.
+     */
+    private static class Chunk {
+        private int chunkX;
+        private int chunkY;
+        // Small to start with, as a chunk in a sparse region often holds a single object.
+        private SpaceObject[] objects = new SpaceObject[2];
+        private int[] ticks = new int[2];
+        private int size;
+        private Chunk next; // the next free chunk, while this one is free
+    }
+
+    /**
+     * Constructs an empty ChunkedWorld.
+     *
+     * @param chunkSize The number of cells along each side of a chunk.
+     * @param activeRadius How many chunks either side of a ship's chunk are active. Must be at
+     *                     least 1, so objects one cell away from a ship are always active.
+     */
+    public ChunkedWorld(int chunkSize, int activeRadius) {
+        if (chunkSize < 1) {
+            throw new IllegalArgumentException("Chunk size must be positive: " + chunkSize);
+        }
+        if (activeRadius < 1) {
+            throw new IllegalArgumentException("Active radius must be at least 1: "
+                    + activeRadius);
+        }
+        this.chunkSize = chunkSize;
+        this.activeRadius = activeRadius;
+    }
+
+    /**
+     * Gets the number of cells along each side of a chunk.
+     *
+     * @return The chunk size.
+     */
+    public int getChunkSize() {
+        return chunkSize;
+    }
+
+    /**
+     * Gets how many chunks either side of a ship's chunk are active.
+     *
+     * @return The active radius.
+     */
+    public int getActiveRadius() {
+        return activeRadius;
+    }
+
+    /**
+     * Gets the number of chunks currently holding dormant objects.
+     *
+     * @return The number of chunks in use.
+     */
+    public int getChunkCount() {
+        return chunkCount;
+    }
+
+    /**
+     * Gets the number of dormant objects.
+     *
+     * @return The number of objects kept in chunks.
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Makes the chunks within the active radius of the given ships the active ones.
+     *
+     * @param ships The ships to simulate around.
+     */
+    public void focus(List<Ship> ships) {
+        if (focusX.length < ships.size()) {
+            focusX = new int[ships.size()];
+            focusY = new int[ships.size()];
+        }
+        focusCount = ships.size();
+        focused = true;
+        for (int i = 0; i < focusCount; i++) {
+            focusX[i] = chunkOf(ships.get(i).getX());
+            focusY[i] = chunkOf(ships.get(i).getY());
+        }
+    }
+
+    /**
+     * Returns whether a cell is in an active chunk, as of the last call to focus(). Until
+     * focus() is first called, no ship is known, so every cell is active.
+     *
+     * @param x The x-coordinate of the cell.
+     * @param y The y-coordinate of the cell.
+     * @return True if objects in the cell should be simulated at full rate.
+     */
+    public boolean isActive(int x, int y) {
+        if (!focused) {
+            return true;
+        }
+        int chunkX = chunkOf(x);
+        int chunkY = chunkOf(y);
+        for (int i = 0; i < focusCount; i++) {
+            if (Math.abs(chunkX - focusX[i]) <= activeRadius
+                    && Math.abs(chunkY - focusY[i]) <= activeRadius) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Adds a dormant object to the chunk containing its position.
+     *
+     * @param object The object to add.
+     * @param tick The last tick the object has been stepped to.
+     */
+    public void add(SpaceObject object, int tick) {
+        Chunk chunk = chunkFor(chunkOf(object.getX()), chunkOf(object.getY()), true);
+        if (chunk.size == chunk.objects.length) {
+            chunk.objects = Arrays.copyOf(chunk.objects, chunk.size * 2);
+            chunk.ticks = Arrays.copyOf(chunk.ticks, chunk.size * 2);
+        }
+        chunk.objects[chunk.size] = object;
+        chunk.ticks[chunk.size++] = tick;
+        size++;
+    }
+
+    /**
+     * Moves the objects of every active chunk to the given list, after stepping them to the
+     * given tick. The emptied chunks are kept for reuse.
+     *
+     * @param tick The tick to step the objects to.
+     * @param handler Told of each step, and decides which objects stay in the world.
+     * @param active The list of active objects to add to.
+     */
+    public void activate(int tick, StepHandler handler, List<SpaceObject> active) {
+        for (int f = 0; f < focusCount; f++) {
+            for (int chunkY = focusY[f] - activeRadius; chunkY <= focusY[f] + activeRadius;
+                 chunkY++) {
+                for (int chunkX = focusX[f] - activeRadius; chunkX <= focusX[f] + activeRadius;
+                     chunkX++) {
+                    Chunk chunk = chunkFor(chunkX, chunkY, false);
+                    if (chunk != null) {
+                        activate(chunk, tick, handler, active);
+                    }
+                }
+            }
+        }
+    }
+
+    private void activate(Chunk chunk, int tick, StepHandler handler, List<SpaceObject> active) {
+        // Take the chunk out first, so objects stepped into a dormant chunk are never put back.
+        removeChunk(chunk);
+        for (int i = 0; i < chunk.size; i++) {
+            SpaceObject object = chunk.objects[i];
+            if (!stepTo(object, chunk.ticks[i], tick, handler)) {
+                continue;
+            }
+            if (isActive(object.getX(), object.getY())) {
+                active.add(object);
+            } else {
+                add(object, tick);
+            }
+        }
+        size -= chunk.size;
+        free(chunk);
+    }
+
+    /**
+     * Steps the next share of the dormant chunks to the given tick, so that every chunk is
+     * stepped at least once every STEP_PERIOD calls.
+     *
+     * @param tick The tick to step the objects to.
+     * @param handler Told of each step, and decides which objects stay in the world.
+     */
+    public void stepDormant(int tick, StepHandler handler) {
+        int slots = (table.length + STEP_PERIOD - 1) / STEP_PERIOD;
+        int count = 0;
+        for (int i = 0; i < slots; i++) {
+            cursor = (cursor + 1) & (table.length - 1);
+            if (table[cursor] != null) {
+                count = visit(count, table[cursor]);
+            }
+        }
+        step(count, tick, handler);
+    }
+
+    /**
+     * Steps every dormant chunk to the given tick.
+     *
+     * @param tick The tick to step the objects to.
+     * @param handler Told of each step, and decides which objects stay in the world.
+     */
+    public void catchUp(int tick, StepHandler handler) {
+        int count = 0;
+        for (Chunk chunk : table) {
+            if (chunk != null) {
+                count = visit(count, chunk);
+            }
+        }
+        step(count, tick, handler);
+    }
+
+    /**
+     * Adds every dormant object inside the given rectangle to a list, visiting only the chunks
+     * that overlap it. Those chunks are first stepped to the given tick.
+     *
+     * @param left The x-coordinate of the left column of the rectangle.
+     * @param top The y-coordinate of the top row of the rectangle.
+     * @param width The number of columns in the rectangle.
+     * @param height The number of rows in the rectangle.
+     * @param tick The tick to step the objects to.
+     * @param handler Told of each step, and decides which objects stay in the world.
+     * @param out The list to add the objects to.
+     */
+    public void collect(int left, int top, int width, int height, int tick, StepHandler handler,
+                        List<? super SpaceObject> out) {
+        int right = left + width;
+        int bottom = top + height;
+        step(gather(left, top, right, bottom), tick, handler);
+        // Objects stepped into the rectangle may have moved to a chunk not gathered before.
+        int count = gather(left, top, right, bottom);
+        for (int c = 0; c < count; c++) {
+            Chunk chunk = visiting[c];
+            visiting[c] = null;
+            for (int i = 0; i < chunk.size; i++) {
+                SpaceObject object = chunk.objects[i];
+                int x = object.getX();
+                int y = object.getY();
+                if (x >= left && x < right && y >= top && y < bottom) {
+                    out.add(object);
+                }
+            }
+        }
+    }
+
+    /**
+     * Puts the chunks overlapping a rectangle in the visiting array, looking up each chunk of
+     * the rectangle unless there are fewer chunks in use than that.
+     *
+     * @return The number of chunks gathered.
+     */
+    private int gather(int left, int top, int right, int bottom) {
+        int fromX = chunkOf(left);
+        int fromY = chunkOf(top);
+        int toX = chunkOf(right - 1);
+        int toY = chunkOf(bottom - 1);
+        int count = 0;
+        if ((long) (toX - fromX + 1) * (toY - fromY + 1) > chunkCount) {
+            for (Chunk chunk : table) {
+                if (chunk != null && chunk.chunkX >= fromX && chunk.chunkX <= toX
+                        && chunk.chunkY >= fromY && chunk.chunkY <= toY) {
+                    count = visit(count, chunk);
+                }
+            }
+            return count;
+        }
+        for (int chunkY = fromY; chunkY <= toY; chunkY++) {
+            for (int chunkX = fromX; chunkX <= toX; chunkX++) {
+                Chunk chunk = chunkFor(chunkX, chunkY, false);
+                if (chunk != null) {
+                    count = visit(count, chunk);
+                }
+            }
+        }
+        return count;
+    }
+
+    private int visit(int count, Chunk chunk) {
+        if (count == visiting.length) {
+            visiting = Arrays.copyOf(visiting, count * 2);
+        }
+        visiting[count] = chunk;
+        return count + 1;
+    }
+
+    /**
+     * Steps the objects of the gathered chunks to the given tick. Objects that left the world
+     * are dropped, and objects that moved to another chunk are moved once every gathered chunk
+     * has been stepped, so no object is stepped twice and no chunk is reused while gathered.
+     */
+    private void step(int count, int tick, StepHandler handler) {
+        for (int c = 0; c < count; c++) {
+            Chunk chunk = visiting[c];
+            int kept = 0;
+            for (int i = 0; i < chunk.size; i++) {
+                SpaceObject object = chunk.objects[i];
+                if (!stepTo(object, chunk.ticks[i], tick, handler)) {
+                    size--;
+                    continue;
+                }
+                if (chunkOf(object.getX()) != chunk.chunkX
+                        || chunkOf(object.getY()) != chunk.chunkY) {
+                    if (movedCount == moved.length) {
+                        moved = Arrays.copyOf(moved, movedCount * 2);
+                    }
+                    moved[movedCount++] = object;
+                    size--;
+                    continue;
+                }
+                chunk.objects[kept] = object;
+                chunk.ticks[kept++] = tick;
+            }
+            Arrays.fill(chunk.objects, kept, chunk.size, null);
+            chunk.size = kept;
+        }
+        for (int c = 0; c < count; c++) {
+            if (visiting[c].size == 0) {
+                removeChunk(visiting[c]);
+                free(visiting[c]);
+            }
+            visiting[c] = null;
+        }
+        for (int i = 0; i < movedCount; i++) {
+            add(moved[i], tick);
+            moved[i] = null;
+        }
+        movedCount = 0;
+    }
+
+    /**
+     * Ticks an object at every tick after the given one, up to and including the target tick,
+     * at which it can change.
+     *
+     * @return False if the handler dropped the object.
+     */
+    private static boolean stepTo(SpaceObject object, int from, int to, StepHandler handler) {
+        for (long next = object.getNextWakeTick(from); next <= to;
+             next = object.getNextWakeTick((int) next)) {
+            object.beginStep();
+            object.tick((int) next);
+            if (!handler.stepped(object)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Passes every dormant object to the given action, without stepping it.
+     *
+     * @param action The action to perform on each object.
+     */
+    public void forEach(Consumer<? super SpaceObject> action) {
+        for (Chunk chunk : table) {
+            if (chunk != null) {
+                for (int i = 0; i < chunk.size; i++) {
+                    action.accept(chunk.objects[i]);
+                }
+            }
+        }
+    }
+
+    /**
+     * Adds the number of dormant objects of each type to the given counts.
+     *
+     * @param counts Counts indexed by EntityType ordinal.
+     */
+    public void countTypes(long[] counts) {
+        for (Chunk chunk : table) {
+            if (chunk != null) {
+                for (int i = 0; i < chunk.size; i++) {
+                    counts[chunk.objects[i].getType().ordinal()]++;
+                }
+            }
+        }
+    }
+
+    /**
+     * Drops every dormant object, keeping the chunks for reuse.
+     */
+    public void clear() {
+        for (int slot = 0; slot < table.length; slot++) {
+            if (table[slot] != null) {
+                free(table[slot]);
+                table[slot] = null;
+            }
+        }
+        chunkCount = 0;
+        size = 0;
+    }
+
+    private int chunkOf(int cell) {
+        return Math.floorDiv(cell, chunkSize);
+    }
+
+    private static long key(int chunkX, int chunkY) {
+        return ((long) chunkX << 32) | (chunkY & 0xFFFFFFFFL);
+    }
+
+    private static int hash(long key) {
+        return (int) ((key * 0x9E3779B97F4A7C15L) >>> 32);
+    }
+
+    private int slot(long key) {
+        int mask = table.length - 1;
+        int slot = hash(key) & mask;
+        while (table[slot] != null && keys[slot] != key) {
+            slot = (slot + 1) & mask;
+        }
+        return slot;
+    }
+
+    private Chunk chunkFor(int chunkX, int chunkY, boolean create) {
+        long key = key(chunkX, chunkY);
+        int slot = slot(key);
+        if (table[slot] != null || !create) {
+            return table[slot];
+        }
+        if ((chunkCount + 1) * 2 > table.length) {
+            rehash(table.length * 2);
+            slot = slot(key);
+        }
+        Chunk chunk = freeChunks;
+        if (chunk == null) {
+            chunk = new Chunk();
+        } else {
+            freeChunks = chunk.next;
+            chunk.next = null;
+        }
+        chunk.chunkX = chunkX;
+        chunk.chunkY = chunkY;
+        keys[slot] = key;
+        table[slot] = chunk;
+        chunkCount++;
+        return chunk;
+    }
+
+    /**
+     * Keeps an emptied chunk for reuse, dropping its references to objects.
+     */
+    private void free(Chunk chunk) {
+        Arrays.fill(chunk.objects, 0, chunk.size, null);
+        chunk.size = 0;
+        chunk.next = freeChunks;
+        freeChunks = chunk;
+    }
+
+    /**
+     * Takes a chunk out of the table, shifting later entries of the same probe run back into
+     * its slot so lookups never need tombstones.
+     */
+    private void removeChunk(Chunk chunk) {
+        int slot = slot(key(chunk.chunkX, chunk.chunkY));
+        int mask = table.length - 1;
+        table[slot] = null;
+        chunkCount--;
+        int next = (slot + 1) & mask;
+        while (table[next] != null) {
+            int ideal = hash(keys[next]) & mask;
+            if (((next - ideal) & mask) >= ((next - slot) & mask)) {
+                table[slot] = table[next];
+                keys[slot] = keys[next];
+                table[next] = null;
+                slot = next;
+            }
+            next = (next + 1) & mask;
+        }
+    }
+
+    private void rehash(int capacity) {
+        Chunk[] oldTable = table;
+        table = new Chunk[capacity];
+        keys = new long[capacity];
+        for (Chunk chunk : oldTable) {
+            if (chunk != null) {
+                long key = key(chunk.chunkX, chunk.chunkY);
+                int slot = slot(key);
+                keys[slot] = key;
+                table[slot] = chunk;
+            }
+        }
+    }
+}
@@ -0,0 +1,86 @@
+package game.core;
+
+/**
+ * A table from a pair of entity types to what happens when objects of those types collide.
+ *
+ * Responses are stored in a flat array indexed by the two type ids, so finding the response
+ * for a pair is a single array lookup whatever the number of types. Pairs are ordered: a
+ * response registered for (BULLET, ENEMY) is used when a bullet is the first object of the
+ * pair, and (ENEMY, BULLET) is a separate entry. Pairs with no response do nothing.
+ */
+public class CollisionMatrix {
+    /** Outcome flag: both objects stay in the game. */
+    public static final int KEEP = 0;
+    /** Outcome flag: the first object of the pair is removed. */
+    public static final int REMOVE_FIRST = 1;
+    /** Outcome flag: the second object of the pair is removed. */
+    public static final int REMOVE_SECOND = 2;
+    /** Outcome flag: both objects of the pair are removed. */
+    public static final int REMOVE_BOTH = REMOVE_FIRST | REMOVE_SECOND;
+
+    private static final int STRIDE = EntityType.values().length + 1;
+
+    private final Response[] responses = new Response[STRIDE * STRIDE];
+
+    /**
+     * Applies the effect of two objects colliding.
+     */
+    @FunctionalInterface
+    public interface Response {
+
+        /**
+         * Applies the effect of a collision.
+         *
+         * @param first The object of the first registered type.
+         * @param second The object of the second registered type.
+         * @return Outcome flags saying which objects should be removed.
+         */
+        int collide(SpaceObject first, SpaceObject second);
+    }
+
+    /**
+     * Sets the response for objects of the first type colliding with objects of the second.
+     *
+     * @param first The type of the first object.
+     * @param second The type of the second object.
+     * @param response The response, or null to make the pair do nothing.
+     */
+    public void register(EntityType first, EntityType second, Response response) {
+        responses[first.getId() * STRIDE + second.getId()] = response;
+    }
+
+    /**
+     * Gets the response for objects of the first type colliding with objects of the second.
+     *
+     * @param first The type of the first object.
+     * @param second The type of the second object.
+     * @return The response, or null if the pair does nothing.
+     */
+    public Response get(EntityType first, EntityType second) {
+        return responses[first.getId() * STRIDE + second.getId()];
+    }
+
+    /**
+     * Gets the response for objects of the given type ids colliding, for callers that hold
+     * type ids rather than objects.
+     *
+     * @param firstTypeId The id of the first object's type, as returned by EntityType.getId().
+     * @param secondTypeId The id of the second object's type.
+     * @return The response, or null if the pair does nothing.
+     */
+    public Response get(int firstTypeId, int secondTypeId) {
+        return responses[firstTypeId * STRIDE + secondTypeId];
+    }
+
+    /**
+     * Applies the response registered for the types of the two objects, if any.
+     *
+     * @param first The first object.
+     * @param second The second object.
+     * @return Outcome flags saying which objects should be removed.
+     */
+    public int collide(SpaceObject first, SpaceObject second) {
+        Response response = responses[first.getTypeId() * STRIDE + second.getTypeId()];
+        return response == null ? KEEP : response.collide(first, second);
+    }
+}
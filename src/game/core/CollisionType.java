@@ -0,0 +1,17 @@
+package game.core;
+
+/**
+ * The kinds of collision the game model resolves.
+ */
+public enum CollisionType {
+    /** The ship collected a health power-up. */
+    HEALTH_POWER_UP,
+    /** The ship collected a shield power-up. */
+    SHIELD_POWER_UP,
+    /** The ship was hit by an asteroid. */
+    ASTEROID,
+    /** The ship was hit by an enemy. */
+    ENEMY,
+    /** A bullet hit an enemy. */
+    BULLET_ENEMY
+}
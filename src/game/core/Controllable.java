@@ -11,6 +11,12 @@ import java.nio.BufferOverflowException;
  */
 public abstract class Controllable extends ObjectWithPosition {
 
+    /** The default width and height of the area the object can move within. */
+    public static final int DEFAULT_BOUND = 20;
+
+    private int boundWidth = DEFAULT_BOUND;
+    private int boundHeight = DEFAULT_BOUND;
+
     /**
      * Constructs a Controllable object with the specified initial position.
      *
@@ -21,6 +27,18 @@ public abstract class Controllable extends ObjectWithPosition {
         super(x, y);
     }
 
+    /**
+     * Sets the size of the area the object can move within. Coordinates must stay between
+     * 0 (inclusive) and the given width or height (exclusive).
+     *
+     * @param width The number of columns the object can move across.
+     * @param height The number of rows the object can move across.
+     */
+    public void setBounds(int width, int height) {
+        this.boundWidth = width;
+        this.boundHeight = height;
+    }
+
     /**
      * Moves the object in the specified direction while ensuring it stays within bounds.
      *
@@ -37,14 +55,14 @@ public abstract class Controllable extends ObjectWithPosition {
             }
         } else if (direction == Direction.DOWN) {
             int newY = getY() + 1;
-            if (newY >= 20) {
+            if (newY >= boundHeight) {
                 throw new BoundaryExceededException("Cannot move down. Out of Bounds!");
             } else {
                 this.y += 1;
             }
         } else if (direction == Direction.RIGHT) {
             int newX = getX() + 1;
-            if (newX >= 20) {
+            if (newX >= boundWidth) {
                 throw new BoundaryExceededException("Cannot move right. Out of Bounds!");
             } else {
                 this.x += 1;
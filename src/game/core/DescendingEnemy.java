@@ -2,7 +2,8 @@ package game.core;
 
 /**
  * Represents an enemy that moves downward over time.
- * This class extends ObjectWithPosition and updates its position periodically.
+ * This class extends ObjectWithPosition and updates its position periodically: on every tenth
+ * tick it moves by its velocity, which is one cell down unless changed.
  */
 public abstract class DescendingEnemy extends ObjectWithPosition {
 
@@ -14,18 +15,30 @@ public abstract class DescendingEnemy extends ObjectWithPosition {
      */
     public  DescendingEnemy(int x, int y) {
         super(x, y);
+        setVelocity(0, FixedPoint.ONE);
     }
 
     /**
      * Updates the enemy's position based on the game tick.
-     * The enemy moves downward every 10 ticks.
+     * The enemy moves by its velocity every 10 ticks.
      *
      * @param tick The current game tick.
      */
     @Override
     public void tick(int tick) {
         if (tick % 10 == 0) {
-            this.y += 1;
+            advance();
         }
     }
+
+    /**
+     * Returns the next multiple of 10 after the given tick, when the enemy next moves.
+     *
+     * @param tick The tick the enemy was last ticked at.
+     * @return The next tick the enemy moves at.
+     */
+    @Override
+    public long getNextWakeTick(int tick) {
+        return tick - Math.floorMod(tick, 10) + 10L;
+    }
 }
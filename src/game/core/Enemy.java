@@ -19,12 +19,22 @@ public class Enemy extends DescendingEnemy {
     }
 
     /**
-     * Returns a new ObjectGraphic instance representing the enemy.
+     * Gets the type of this object.
      *
-     * @return A new ObjectGraphic containing both a text and image representation of the enemy.
+     * @return EntityType.ENEMY
+     */
+    @Override
+    public EntityType getType() {
+        return EntityType.ENEMY;
+    }
+
+    /**
+     * Returns the shared ObjectGraphic instance representing the enemy.
+     *
+     * @return The shared ObjectGraphic containing both a text and image representation of the enemy.
      */
     @Override
     public ObjectGraphic render() {
-        return new ObjectGraphic("👾", "assets/enemy.png");
+        return GraphicRegistry.get(EntityType.ENEMY);
     }
 }
@@ -0,0 +1,32 @@
+package game.core;
+
+/**
+ * Receives the space objects a GameModel adds, moves and removes as it happens, so a renderer
+ * or network view can follow the game without comparing every object every frame.
+ *
+ * Only an object's entity id, type and position should be read, and only during the call: once
+ * removed, an object may be reused straight away as a new entity with a new id.
+ */
+public interface EntityListener {
+
+    /**
+     * Reports an object added to the game.
+     *
+     * @param object The new object.
+     */
+    void spawned(SpaceObject object);
+
+    /**
+     * Reports an object that moved into another cell.
+     *
+     * @param object The object, at its new position.
+     */
+    void moved(SpaceObject object);
+
+    /**
+     * Reports an object removed from the game.
+     *
+     * @param object The object, which is still at its last position.
+     */
+    void removed(SpaceObject object);
+}
@@ -0,0 +1,900 @@
+package game.core;
+
+import game.ui.ObjectGraphic;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Holds space objects as parallel arrays rather than as one object each, for worlds with more
+ * objects than are worth keeping as separate instances.
+ *
+ * Each entity is a slot: its fixed-point position is held in xs and ys and its type in a byte
+ * tag, alongside an index into a small table of the velocities in use and a generation that
+ * renews its entity id when the slot is reused. Removed slots are chained into a free-list
+ * through xs and reused before the arrays grow, so an entity keeps its slot for as long as it
+ * is in play. An entity costs 11 bytes, where an ObjectWithPosition and the list slot referring
+ * to it cost 54 to 61 (see EntityMemory in the benchmarks); the collision grid built each tick
+ * costs the same with either.
+ *
+ * Entities move by their type's rule rather than by their own tick(): bullets every tick,
+ * asteroids and enemies every tenth tick, and power-ups never. The previous position used for
+ * swept collisions is not stored but worked out from that rule and the tick of the last update.
+ * update() and checkCollisions() work as GameModel's own do, as loops over the arrays. Collision
+ * responses and EntityListeners are handed a View of the entity, which is only valid during the
+ * call. Entities are visited in slot order, so where several collisions in one cell depend on
+ * each other, they may be resolved in a different order than in a list of objects.
+ */
+public class EntityStore {
+    /** The lowest entity id of an entity in a store; lower ids belong to ObjectWithPositions. */
+    public static final int FIRST_ENTITY_ID = 1 << 30;
+
+    private static final int SLOT_BITS = 23;
+    private static final int MAX_SLOTS = 1 << SLOT_BITS;
+    private static final int GENERATION_MASK = (FIRST_ENTITY_ID >>> SLOT_BITS) - 1;
+    private static final int MAX_VELOCITIES = 256;
+    private static final int INITIAL_CAPACITY = 64;
+    private static final int NONE = -1;
+
+    /** The bits of a type tag holding the type id; 0 marks a free slot. */
+    private static final int TYPE_MASK = 0x0F;
+    private static final int TYPE_COUNT = EntityType.values().length;
+    /** Tag flag: added since the last update, so the entity has not moved yet. */
+    private static final int FRESH = 0x10;
+    /** Tag flag: marked for removal by the collision check in progress. */
+    private static final int REMOVED = 0x20;
+
+    /** How entities of each type move, indexed by type id. */
+    private static final byte NEVER_MOVES = 0;
+    private static final byte EVERY_TICK = 1;
+    private static final byte EVERY_TENTH_TICK = 2;
+    private static final byte[] RULES = new byte[TYPE_MASK + 1];
+
+    static {
+        RULES[EntityType.BULLET.getId()] = EVERY_TICK;
+        RULES[EntityType.ASTEROID.getId()] = EVERY_TENTH_TICK;
+        RULES[EntityType.ENEMY.getId()] = EVERY_TENTH_TICK;
+    }
+
+    /** Fixed-point positions; the x of a free slot holds the next free slot. */
+    private int[] xs = new int[INITIAL_CAPACITY];
+    private int[] ys = new int[INITIAL_CAPACITY];
+    private byte[] types = new byte[INITIAL_CAPACITY];
+    private byte[] motions = new byte[INITIAL_CAPACITY];
+    private byte[] generations = new byte[INITIAL_CAPACITY];
+    /** The distinct velocities of the entities, indexed by motion. */
+    private int[] velocityXs = new int[4];
+    private int[] velocityYs = new int[4];
+    private int velocityCount;
+    private int slotCount;
+    private int size;
+    private int freeHead = NONE;
+    private int lastUpdate;
+
+    private SpatialGrid grid; // allocated by the first checkCollisions()
+    private CollisionMatrix collisions; // only set during checkCollisions()
+    /** For each type id, a bit for each type id it has a response with, in either order. */
+    private final int[] partners = new int[TYPE_MASK + 1];
+    private int markedCount;
+    private final View first = new View();
+    private final View second = new View();
+    private final SpatialGrid.PairHandler pairHit = this::onPair;
+
+    /**
+     * A space object's state copied out of a store, for rendering, collision responses and
+     * listeners. A view does not move by itself, and changing the store does not change a view.
+     */
+    public static final class View implements SpaceObject, PowerUpEffect {
+        private static final PowerUpEffect HEALTH = new HealthPowerUp(0, 0);
+        private static final PowerUpEffect SHIELD = new ShieldPowerUp(0, 0);
+
+        private int entityId;
+        private int typeId;
+        private int fixedX;
+        private int fixedY;
+        private int previousX;
+        private int previousY;
+        private int velocityX;
+        private int velocityY;
+
+        private View() {
+        }
+
+        @Override
+        public int getX() {
+            return FixedPoint.toCell(fixedX);
+        }
+
+        @Override
+        public int getY() {
+            return FixedPoint.toCell(fixedY);
+        }
+
+        @Override
+        public EntityType getType() {
+            return EntityType.fromId(typeId);
+        }
+
+        @Override
+        public int getTypeId() {
+            return typeId;
+        }
+
+        @Override
+        public int getEntityId() {
+            return entityId;
+        }
+
+        @Override
+        public int getFixedX() {
+            return fixedX;
+        }
+
+        @Override
+        public int getFixedY() {
+            return fixedY;
+        }
+
+        @Override
+        public int getPreviousFixedX() {
+            return previousX;
+        }
+
+        @Override
+        public int getPreviousFixedY() {
+            return previousY;
+        }
+
+        @Override
+        public int getVelocityX() {
+            return velocityX;
+        }
+
+        @Override
+        public int getVelocityY() {
+            return velocityY;
+        }
+
+        /**
+         * Does nothing, as entities in a store are moved by the store.
+         *
+         * @param tick The current game tick.
+         */
+        @Override
+        public void tick(int tick) {
+        }
+
+        @Override
+        public long getNextWakeTick(int tick) {
+            return NEVER;
+        }
+
+        /**
+         * Applies the effect of the power-up the view shows, as that power-up's class does.
+         *
+         * @param ship The ship collecting the power-up.
+         * @throws UnsupportedOperationException If the entity is not a power-up.
+         */
+        @Override
+        public void applyEffect(Ship ship) {
+            switch (getType()) {
+                case HEALTH_POWER_UP:
+                    HEALTH.applyEffect(ship);
+                    break;
+                case SHIELD_POWER_UP:
+                    SHIELD.applyEffect(ship);
+                    break;
+                default:
+                    throw new UnsupportedOperationException(getType() + " is not a power-up");
+            }
+        }
+
+        @Override
+        public ObjectGraphic render() {
+            return GraphicRegistry.get(getType());
+        }
+    }
+
+    /**
+     * Adds an entity moving at the usual speed of its type: one cell up per tick for bullets,
+     * one cell down per move for asteroids and enemies, and not at all for power-ups.
+     *
+     * @param type The type of the entity.
+     * @param x The x-coordinate of the entity's cell.
+     * @param y The y-coordinate of the entity's cell.
+     * @return The entity's slot.
+     */
+    public int add(EntityType type, int x, int y) {
+        int velocityY;
+        switch (RULES[type.getId()]) {
+            case EVERY_TICK:
+                velocityY = -FixedPoint.ONE;
+                break;
+            case EVERY_TENTH_TICK:
+                velocityY = FixedPoint.ONE;
+                break;
+            default:
+                velocityY = 0;
+        }
+        return add(type, FixedPoint.fromCell(x), FixedPoint.fromCell(y), 0, velocityY);
+    }
+
+    /**
+     * Adds an entity with the type, position and velocity of the given object. The object
+     * itself is not kept.
+     *
+     * @param object The object to copy.
+     * @return The entity's slot.
+     */
+    public int add(SpaceObject object) {
+        return add(object.getType(), object.getFixedX(), object.getFixedY(),
+                object.getVelocityX(), object.getVelocityY());
+    }
+
+    /**
+     * Adds an entity, reusing a free slot if there is one. The entity has not moved until the
+     * next update, so its previous position is its current one.
+     *
+     * @param type The type of the entity.
+     * @param fixedX The fixed-point x-coordinate.
+     * @param fixedY The fixed-point y-coordinate.
+     * @param velocityX The fixed-point distance moved along the x-axis each time it moves.
+     * @param velocityY The fixed-point distance moved along the y-axis each time it moves.
+     * @return The entity's slot.
+     * @throws IllegalArgumentException If the type is SHIP, as ships are not kept in a store.
+     * @throws IllegalStateException If the store is full, or holds 256 different velocities.
+     */
+    public int add(EntityType type, int fixedX, int fixedY, int velocityX, int velocityY) {
+        if (type == EntityType.SHIP) {
+            throw new IllegalArgumentException("Ships are not kept in an EntityStore");
+        }
+        byte motion = motion(velocityX, velocityY);
+        int slot = freeHead;
+        if (slot != NONE) {
+            freeHead = xs[slot];
+        } else {
+            if (slotCount == xs.length) {
+                grow();
+            }
+            slot = slotCount++;
+        }
+        xs[slot] = fixedX;
+        ys[slot] = fixedY;
+        types[slot] = (byte) (type.getId() | FRESH);
+        motions[slot] = motion;
+        size++;
+        return slot;
+    }
+
+    /**
+     * Removes an entity, freeing its slot for reuse under a new entity id.
+     *
+     * @param slot The entity's slot.
+     * @throws IllegalArgumentException If the slot holds no entity.
+     */
+    public void remove(int slot) {
+        if (!isLive(slot)) {
+            throw new IllegalArgumentException("No entity in slot " + slot);
+        }
+        free(slot);
+    }
+
+    /**
+     * Removes every entity. Slots are reused from the start again, each under a new id.
+     */
+    public void clear() {
+        for (int slot = 0; slot < slotCount; slot++) {
+            if (types[slot] != 0) {
+                generations[slot] = (byte) ((generations[slot] + 1) & GENERATION_MASK);
+            }
+        }
+        slotCount = 0;
+        size = 0;
+        freeHead = NONE;
+    }
+
+    /**
+     * Returns an independent copy of the store.
+     *
+     * @return The copy.
+     */
+    public EntityStore copy() {
+        EntityStore copy = new EntityStore();
+        copy.copyFrom(this);
+        return copy;
+    }
+
+    /**
+     * Replaces every entity in this store with those of another, in the same slots and with
+     * the same ids, costing an array copy per field.
+     *
+     * @param other The store to copy.
+     */
+    public void copyFrom(EntityStore other) {
+        int count = other.slotCount;
+        if (xs.length < count) {
+            int capacity = other.xs.length;
+            xs = new int[capacity];
+            ys = new int[capacity];
+            types = new byte[capacity];
+            motions = new byte[capacity];
+            generations = new byte[capacity];
+        }
+        System.arraycopy(other.xs, 0, xs, 0, count);
+        System.arraycopy(other.ys, 0, ys, 0, count);
+        System.arraycopy(other.types, 0, types, 0, count);
+        System.arraycopy(other.motions, 0, motions, 0, count);
+        System.arraycopy(other.generations, 0, generations, 0, count);
+        velocityXs = other.velocityXs.clone();
+        velocityYs = other.velocityYs.clone();
+        velocityCount = other.velocityCount;
+        slotCount = count;
+        size = other.size;
+        freeHead = other.freeHead;
+        lastUpdate = other.lastUpdate;
+    }
+
+    /**
+     * Returns the number of entities in the store.
+     *
+     * @return The entity count.
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Returns one more than the highest slot that has been used since the store was cleared.
+     * Slots below it may be free.
+     *
+     * @return The number of slots to visit.
+     */
+    public int getSlotCount() {
+        return slotCount;
+    }
+
+    /**
+     * Returns whether a slot holds an entity.
+     *
+     * @param slot The slot.
+     * @return True if the slot is in use.
+     */
+    public boolean isLive(int slot) {
+        return slot >= 0 && slot < slotCount && types[slot] != 0;
+    }
+
+    /**
+     * Gets the type of an entity.
+     *
+     * @param slot The entity's slot.
+     * @return The type.
+     */
+    public EntityType getType(int slot) {
+        return EntityType.fromId(types[slot] & TYPE_MASK);
+    }
+
+    /**
+     * Gets the entity id of an entity, which stays the same for as long as it is in the store.
+     *
+     * @param slot The entity's slot.
+     * @return The id, which is at least FIRST_ENTITY_ID.
+     */
+    public int getEntityId(int slot) {
+        return FIRST_ENTITY_ID | (generations[slot] << SLOT_BITS) | slot;
+    }
+
+    /**
+     * Gets the fixed-point x-coordinate of an entity.
+     *
+     * @param slot The entity's slot.
+     * @return The x-coordinate.
+     */
+    public int getFixedX(int slot) {
+        return xs[slot];
+    }
+
+    /**
+     * Gets the fixed-point y-coordinate of an entity.
+     *
+     * @param slot The entity's slot.
+     * @return The y-coordinate.
+     */
+    public int getFixedY(int slot) {
+        return ys[slot];
+    }
+
+    /**
+     * Gets the fixed-point x-coordinate an entity had at the start of the last update.
+     *
+     * @param slot The entity's slot.
+     * @return The previous x-coordinate.
+     */
+    public int getPreviousFixedX(int slot) {
+        int x = xs[slot];
+        return moved(types[slot]) ? x - velocityXs[motions[slot] & 0xFF] : x;
+    }
+
+    /**
+     * Gets the fixed-point y-coordinate an entity had at the start of the last update.
+     *
+     * @param slot The entity's slot.
+     * @return The previous y-coordinate.
+     */
+    public int getPreviousFixedY(int slot) {
+        int y = ys[slot];
+        return moved(types[slot]) ? y - velocityYs[motions[slot] & 0xFF] : y;
+    }
+
+    /**
+     * Returns a view of an entity's current state.
+     *
+     * @param slot The entity's slot.
+     * @return A new view, which does not change with the store.
+     */
+    public View view(int slot) {
+        return load(new View(), slot);
+    }
+
+    /**
+     * Returns a view of every entity, in slot order.
+     *
+     * @return A new list of new views.
+     */
+    public List<SpaceObject> views() {
+        List<SpaceObject> views = new ArrayList<>(size);
+        for (int slot = 0; slot < slotCount; slot++) {
+            if (types[slot] != 0) {
+                views.add(view(slot));
+            }
+        }
+        return views;
+    }
+
+    /**
+     * Creates an object with the type, position and velocity of an entity, for moving it out
+     * of the store. The object starts its next tick where the entity is now.
+     *
+     * @param slot The entity's slot.
+     * @return A new object.
+     */
+    public ObjectWithPosition newObject(int slot) {
+        ObjectWithPosition object;
+        switch (getType(slot)) {
+            case ASTEROID:
+                object = new Asteroid(0, 0);
+                break;
+            case ENEMY:
+                object = new Enemy(0, 0);
+                break;
+            case BULLET:
+                object = new Bullet(0, 0);
+                break;
+            case HEALTH_POWER_UP:
+                object = new HealthPowerUp(0, 0);
+                break;
+            case SHIELD_POWER_UP:
+                object = new ShieldPowerUp(0, 0);
+                break;
+            default:
+                throw new IllegalStateException("Unexpected type in slot " + slot);
+        }
+        object.setFixedPosition(xs[slot], ys[slot]);
+        int motion = motions[slot] & 0xFF;
+        object.setVelocity(velocityXs[motion], velocityYs[motion]);
+        return object;
+    }
+
+    /**
+     * Reports every entity to the listener as spawned.
+     *
+     * @param listener The listener.
+     */
+    public void reportSpawned(EntityListener listener) {
+        for (int slot = 0; slot < slotCount; slot++) {
+            if (types[slot] != 0) {
+                listener.spawned(load(first, slot));
+            }
+        }
+    }
+
+    /**
+     * Reports every entity to the listener as removed.
+     *
+     * @param listener The listener.
+     */
+    public void reportRemoved(EntityListener listener) {
+        for (int slot = 0; slot < slotCount; slot++) {
+            if (types[slot] != 0) {
+                listener.removed(load(first, slot));
+            }
+        }
+    }
+
+    /**
+     * Adds the number of entities of each type to the given counts.
+     *
+     * @param counts Counts indexed by EntityType ordinal.
+     */
+    public void countTypes(long[] counts) {
+        for (int slot = 0; slot < slotCount; slot++) {
+            int tag = types[slot];
+            if (tag != 0) {
+                counts[(tag & TYPE_MASK) - 1]++;
+            }
+        }
+    }
+
+    /**
+     * Moves every entity that moves at the given tick by its velocity, as ticking each object
+     * would. Entities that leave the rows from 0 to height are removed by the next
+     * checkCollisions(), once their path has been checked.
+     *
+     * @param tick The current tick.
+     * @param height The number of rows in the world.
+     * @param listener Told of entities that moved into another cell, or null.
+     * @return True if an entity left the board.
+     */
+    public boolean update(int tick, int height, EntityListener listener) {
+        boolean tenth = tick % 10 == 0;
+        boolean leftBounds = false;
+        for (int slot = 0; slot < slotCount; slot++) {
+            int tag = types[slot];
+            if (tag == 0) {
+                continue;
+            }
+            if ((tag & FRESH) != 0) {
+                tag &= ~FRESH;
+                types[slot] = (byte) tag;
+            }
+            int rule = RULES[tag & TYPE_MASK];
+            if (rule == NEVER_MOVES || (rule == EVERY_TENTH_TICK && !tenth)) {
+                continue;
+            }
+            int motion = motions[slot] & 0xFF;
+            int fromX = xs[slot];
+            int fromY = ys[slot];
+            int x = fromX + velocityXs[motion];
+            int y = fromY + velocityYs[motion];
+            xs[slot] = x;
+            ys[slot] = y;
+            int cellY = FixedPoint.toCell(y);
+            if (listener != null && (FixedPoint.toCell(x) != FixedPoint.toCell(fromX)
+                    || cellY != FixedPoint.toCell(fromY))) {
+                listener.moved(load(first, slot));
+            }
+            if (cellY < 0 || cellY > height) {
+                leftBounds = true;
+            }
+        }
+        lastUpdate = tick;
+        return leftBounds;
+    }
+
+    /**
+     * Resolves collisions between the ships and the entities, and between entities, as
+     * GameModel.checkCollisions() does for a list of objects: entities are bucketed by cell,
+     * then those that changed cell are checked along their paths. Entities that were hit, or
+     * have left the board, are removed.
+     *
+     * @param ships The ships, in the order they are checked.
+     * @param collisions The responses to apply, which are handed Views of the entities.
+     * @param leftBounds Whether an entity may have left the board since the last check.
+     * @param height The number of rows in the world.
+     * @param listener Told of the entities removed, or null.
+     */
+    public void checkCollisions(List<Ship> ships, CollisionMatrix collisions, boolean leftBounds,
+                                int height, EntityListener listener) {
+        if (grid == null) {
+            grid = new SpatialGrid();
+        }
+        this.collisions = collisions;
+        for (int a = 1; a <= TYPE_COUNT; a++) {
+            int mask = 0;
+            for (int b = 1; b <= TYPE_COUNT; b++) {
+                if (collisions.get(a, b) != null || collisions.get(b, a) != null) {
+                    mask |= 1 << b;
+                }
+            }
+            partners[a] = mask;
+        }
+        int count = slotCount;
+        grid.clear();
+        for (int slot = 0; slot < count; slot++) {
+            if (types[slot] != 0) {
+                grid.insert(slot, FixedPoint.toCell(xs[slot]), FixedPoint.toCell(ys[slot]));
+            }
+        }
+
+        for (int s = 0; s < ships.size(); s++) {
+            Ship current = ships.get(s);
+            for (int node = grid.first(current.getX(), current.getY());
+                 node != SpatialGrid.NONE; node = grid.next(node)) {
+                int slot = grid.indexAt(node);
+                if (!isMarked(slot)) {
+                    shipHit(current, slot);
+                }
+            }
+        }
+        checkSweptShips(ships);
+
+        grid.forEachPair(pairHit);
+        checkSweptCollisions(ships, count);
+        this.collisions = null;
+        if (markedCount > 0 || leftBounds) {
+            removeMarked(leftBounds, height, listener);
+        }
+    }
+
+    /**
+     * Finds the entities a ship met while moving since the last check without ending in the
+     * ship's cell, from the cells of the rectangle between its previous and current cell.
+     */
+    private void checkSweptShips(List<Ship> ships) {
+        for (int s = 0; s < ships.size(); s++) {
+            Ship current = ships.get(s);
+            int x = current.getX();
+            int y = current.getY();
+            int fromX = FixedPoint.toCell(current.getPreviousFixedX());
+            int fromY = FixedPoint.toCell(current.getPreviousFixedY());
+            if (fromX == x && fromY == y) {
+                continue;
+            }
+            for (int cellY = Math.min(fromY, y); cellY <= Math.max(fromY, y); cellY++) {
+                for (int cellX = Math.min(fromX, x); cellX <= Math.max(fromX, x); cellX++) {
+                    if (cellX == x && cellY == y) {
+                        continue;
+                    }
+                    for (int node = grid.first(cellX, cellY);
+                         node != SpatialGrid.NONE; node = grid.next(node)) {
+                        int slot = grid.indexAt(node);
+                        if (!isMarked(slot) && sweptOverlap(current, slot)) {
+                            shipHit(current, slot);
+                        }
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Finds pairs of entities that met during the last update without ending it in the same
+     * cell, from the cells of the rectangle between each moving entity's previous and current
+     * cell. A pair found from both sides is only handled from the lower slot.
+     */
+    private void checkSweptCollisions(List<Ship> ships, int count) {
+        for (int slot = 0; slot < count; slot++) {
+            int tag = types[slot];
+            if (tag == 0 || (tag & REMOVED) != 0 || !moved(tag)) {
+                continue;
+            }
+            int x = FixedPoint.toCell(xs[slot]);
+            int y = FixedPoint.toCell(ys[slot]);
+            int fromX = FixedPoint.toCell(getPreviousFixedX(slot));
+            int fromY = FixedPoint.toCell(getPreviousFixedY(slot));
+            if (fromX == x && fromY == y) {
+                continue;
+            }
+            if (hitsShipOnPath(ships, slot, fromX, fromY, x, y)) {
+                continue;
+            }
+            int typePartners = partners[tag & TYPE_MASK];
+            if (typePartners == 0) {
+                continue;
+            }
+            path:
+            for (int cellY = Math.min(fromY, y); cellY <= Math.max(fromY, y); cellY++) {
+                for (int cellX = Math.min(fromX, x); cellX <= Math.max(fromX, x); cellX++) {
+                    if (cellX == x && cellY == y) {
+                        continue;
+                    }
+                    for (int node = grid.first(cellX, cellY);
+                         node != SpatialGrid.NONE; node = grid.next(node)) {
+                        int other = grid.indexAt(node);
+                        int otherTag = types[other];
+                        // A pair with no response either way cannot change anything.
+                        if ((otherTag & REMOVED) != 0
+                                || (typePartners & (1 << (otherTag & TYPE_MASK))) == 0
+                                || (other < slot && pathCovers(other, x, y))) {
+                            continue;
+                        }
+                        if (sweptOverlap(slot, other)) {
+                            onPair(slot, other);
+                            if (!isMarked(slot) && !isMarked(other)) {
+                                onPair(other, slot);
+                            }
+                            if (isMarked(slot)) {
+                                break path;
+                            }
+                        }
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Checks a moving entity against every ship whose path it crossed but did not end in.
+     * @return True if a ship removed the entity.
+     */
+    private boolean hitsShipOnPath(List<Ship> ships, int slot, int fromX, int fromY,
+                                   int x, int y) {
+        for (int s = 0; s < ships.size(); s++) {
+            Ship current = ships.get(s);
+            int shipX = current.getX();
+            int shipY = current.getY();
+            int shipFromX = FixedPoint.toCell(current.getPreviousFixedX());
+            int shipFromY = FixedPoint.toCell(current.getPreviousFixedY());
+            boolean covers = x >= Math.min(shipFromX, shipX) && x <= Math.max(shipFromX, shipX)
+                    && y >= Math.min(shipFromY, shipY) && y <= Math.max(shipFromY, shipY);
+            boolean meet = Math.max(shipFromX, shipX) >= Math.min(fromX, x)
+                    && Math.max(fromX, x) >= Math.min(shipFromX, shipX)
+                    && Math.max(shipFromY, shipY) >= Math.min(fromY, y)
+                    && Math.max(fromY, y) >= Math.min(shipFromY, shipY);
+            if (!covers && meet && sweptOverlap(current, slot) && shipHit(current, slot)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Returns whether the given cell is inside the rectangle between an entity's previous and
+     * current cell.
+     */
+    private boolean pathCovers(int slot, int cellX, int cellY) {
+        int x = FixedPoint.toCell(xs[slot]);
+        int y = FixedPoint.toCell(ys[slot]);
+        int fromX = FixedPoint.toCell(getPreviousFixedX(slot));
+        int fromY = FixedPoint.toCell(getPreviousFixedY(slot));
+        return cellX >= Math.min(fromX, x) && cellX <= Math.max(fromX, x)
+                && cellY >= Math.min(fromY, y) && cellY <= Math.max(fromY, y);
+    }
+
+    private boolean sweptOverlap(Ship ship, int slot) {
+        return FixedPoint.sweptOverlap(ship.getPreviousFixedX(), ship.getPreviousFixedY(),
+                ship.getFixedX(), ship.getFixedY(),
+                getPreviousFixedX(slot), getPreviousFixedY(slot), xs[slot], ys[slot]);
+    }
+
+    private boolean sweptOverlap(int slot, int other) {
+        return FixedPoint.sweptOverlap(getPreviousFixedX(slot), getPreviousFixedY(slot),
+                xs[slot], ys[slot],
+                getPreviousFixedX(other), getPreviousFixedY(other), xs[other], ys[other]);
+    }
+
+    /**
+     * Applies the response for a ship meeting an entity, marking the entity if it is removed.
+     * @return True if the entity was removed.
+     */
+    private boolean shipHit(Ship ship, int slot) {
+        if ((collisions.collide(ship, load(second, slot)) & CollisionMatrix.REMOVE_SECOND) != 0) {
+            mark(slot);
+            return true;
+        }
+        return false;
+    }
+
+    private void onPair(int slot, int other) {
+        // Most pairs have no response, so rule them out before copying the entities out.
+        int typeId = types[slot] & TYPE_MASK;
+        int otherTypeId = types[other] & TYPE_MASK;
+        if ((partners[typeId] & (1 << otherTypeId)) == 0) {
+            return;
+        }
+        CollisionMatrix.Response response = collisions.get(typeId, otherTypeId);
+        if (response == null) {
+            return;
+        }
+        int outcome = response.collide(load(first, slot), load(second, other));
+        if ((outcome & CollisionMatrix.REMOVE_FIRST) != 0) {
+            mark(slot);
+        }
+        if ((outcome & CollisionMatrix.REMOVE_SECOND) != 0) {
+            mark(other);
+        }
+    }
+
+    private boolean isMarked(int slot) {
+        return (types[slot] & REMOVED) != 0;
+    }
+
+    private void mark(int slot) {
+        int tag = types[slot];
+        if ((tag & REMOVED) == 0) {
+            types[slot] = (byte) (tag | REMOVED);
+            markedCount++;
+        }
+    }
+
+    /**
+     * Frees every marked slot, and every slot whose entity has left the board.
+     */
+    private void removeMarked(boolean leftBounds, int height, EntityListener listener) {
+        for (int slot = 0; slot < slotCount; slot++) {
+            int tag = types[slot];
+            if (tag == 0) {
+                continue;
+            }
+            boolean out = false;
+            if (leftBounds) {
+                int y = FixedPoint.toCell(ys[slot]);
+                out = y < 0 || y > height;
+            }
+            if ((tag & REMOVED) != 0 || out) {
+                if (listener != null) {
+                    listener.removed(load(first, slot));
+                }
+                free(slot);
+            }
+        }
+        markedCount = 0;
+    }
+
+    /**
+     * Returns whether an entity with the given tag moved in the last update.
+     */
+    private boolean moved(int tag) {
+        if ((tag & FRESH) != 0) {
+            return false;
+        }
+        int rule = RULES[tag & TYPE_MASK];
+        return rule == EVERY_TICK || (rule == EVERY_TENTH_TICK && lastUpdate % 10 == 0);
+    }
+
+    private void free(int slot) {
+        types[slot] = 0;
+        generations[slot] = (byte) ((generations[slot] + 1) & GENERATION_MASK);
+        xs[slot] = freeHead;
+        freeHead = slot;
+        size--;
+    }
+
+    private View load(View view, int slot) {
+        int motion = motions[slot] & 0xFF;
+        view.entityId = getEntityId(slot);
+        view.typeId = types[slot] & TYPE_MASK;
+        view.fixedX = xs[slot];
+        view.fixedY = ys[slot];
+        view.previousX = getPreviousFixedX(slot);
+        view.previousY = getPreviousFixedY(slot);
+        view.velocityX = velocityXs[motion];
+        view.velocityY = velocityYs[motion];
+        return view;
+    }
+
+    /**
+     * Finds the index of the given velocity in the table, adding it if it is new.
+     */
+    private byte motion(int velocityX, int velocityY) {
+        for (int i = 0; i < velocityCount; i++) {
+            if (velocityXs[i] == velocityX && velocityYs[i] == velocityY) {
+                return (byte) i;
+            }
+        }
+        if (velocityCount == MAX_VELOCITIES) {
+            throw new IllegalStateException("An EntityStore holds at most " + MAX_VELOCITIES
+                    + " different velocities");
+        }
+        if (velocityCount == velocityXs.length) {
+            velocityXs = Arrays.copyOf(velocityXs, velocityCount * 2);
+            velocityYs = Arrays.copyOf(velocityYs, velocityCount * 2);
+        }
+        velocityXs[velocityCount] = velocityX;
+        velocityYs[velocityCount] = velocityY;
+        return (byte) velocityCount++;
+    }
+
+    private void grow() {
+        if (xs.length == MAX_SLOTS) {
+            throw new IllegalStateException("An EntityStore holds at most " + MAX_SLOTS
+                    + " entities");
+        }
+        int capacity = Math.min(xs.length * 2, MAX_SLOTS);
+        xs = Arrays.copyOf(xs, capacity);
+        ys = Arrays.copyOf(ys, capacity);
+        types = Arrays.copyOf(types, capacity);
+        motions = Arrays.copyOf(motions, capacity);
+        generations = Arrays.copyOf(generations, capacity);
+    }
+}
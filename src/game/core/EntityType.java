@@ -0,0 +1,39 @@
+package game.core;
+
+/**
+ * The concrete kinds of space object in the game, each with a compact numeric id.
+ * Id 0 is reserved to mean "no entity".
+ */
+public enum EntityType {
+    ASTEROID,
+    ENEMY,
+    BULLET,
+    HEALTH_POWER_UP,
+    SHIELD_POWER_UP,
+    SHIP;
+
+    private static final EntityType[] BY_ID = values();
+
+    /**
+     * Gets the compact id of this type.
+     *
+     * @return The id, between 1 and the number of types (inclusive).
+     */
+    public byte getId() {
+        return (byte) (ordinal() + 1);
+    }
+
+    /**
+     * Gets the type with the given compact id.
+     *
+     * @param id The id returned by getId().
+     * @return The matching type.
+     * @throws IllegalArgumentException If no type has the given id.
+     */
+    public static EntityType fromId(int id) {
+        if (id < 1 || id > BY_ID.length) {
+            throw new IllegalArgumentException("Unknown entity type id: " + id);
+        }
+        return BY_ID[id - 1];
+    }
+}
@@ -0,0 +1,123 @@
+package game.core;
+
+/**
+ * Helpers for the fixed-point coordinates used for sub-cell motion.
+ *
+ * A fixed-point coordinate is a cell coordinate shifted left by SHIFT bits, with the low bits
+ * holding the position within the cell, so ONE is the width of a cell. Converting back to a cell
+ * rounds towards negative infinity, so an object is always in the cell its top-left corner is in.
+ */
+public final class FixedPoint {
+    /** The number of fractional bits in a fixed-point coordinate. */
+    public static final int SHIFT = 8;
+    /** The width of one cell in fixed-point units. */
+    public static final int ONE = 1 << SHIFT;
+    /** The mask selecting the fractional bits of a fixed-point coordinate. */
+    public static final int FRACTION_MASK = ONE - 1;
+
+    private FixedPoint() {
+    }
+
+    /**
+     * Converts a cell coordinate to a fixed-point coordinate at the start of the cell.
+     *
+     * @param cell The cell coordinate.
+     * @return The fixed-point coordinate.
+     */
+    public static int fromCell(int cell) {
+        return cell << SHIFT;
+    }
+
+    /**
+     * Converts a fixed-point coordinate to the cell containing it.
+     *
+     * @param fixed The fixed-point coordinate.
+     * @return The cell coordinate.
+     */
+    public static int toCell(int fixed) {
+        return fixed >> SHIFT;
+    }
+
+    /**
+     * Converts a speed in cells per tick to fixed-point units per tick, rounded to the
+     * nearest unit.
+     *
+     * @param cellsPerTick The speed in cells per tick.
+     * @return The speed in fixed-point units per tick.
+     */
+    public static int fromCells(double cellsPerTick) {
+        return (int) Math.round(cellsPerTick * ONE);
+    }
+
+    /**
+     * Returns whether two objects, each a cell-sized square, overlapped at any moment while
+     * moving in a straight line from their previous to their current position. Objects that only
+     * touch along an edge do not overlap.
+     *
+     * This is a slab test on the motion of the first object relative to the second: on each axis
+     * it finds the interval of the tick during which the objects overlap on that axis, and the
+     * objects met if the intervals for both axes intersect. Objects that swap cells in a single
+     * tick, or pass through each other, are found even though they never share a cell at the end
+     * of a tick.
+     *
+     * @param first One of the objects.
+     * @param second The other object.
+     * @return True if the objects overlapped during the last tick.
+     */
+    public static boolean sweptOverlap(SpaceObject first, SpaceObject second) {
+        return sweptOverlap(first.getPreviousFixedX(), first.getPreviousFixedY(),
+                first.getFixedX(), first.getFixedY(),
+                second.getPreviousFixedX(), second.getPreviousFixedY(),
+                second.getFixedX(), second.getFixedY());
+    }
+
+    /**
+     * Returns whether two cell-sized squares overlapped at any moment while moving in a straight
+     * line from their previous to their current fixed-point positions, as for
+     * sweptOverlap(SpaceObject, SpaceObject), for objects that are not held as SpaceObjects.
+     *
+     * @param firstFromX The previous x-coordinate of the first object.
+     * @param firstFromY The previous y-coordinate of the first object.
+     * @param firstX The current x-coordinate of the first object.
+     * @param firstY The current y-coordinate of the first object.
+     * @param secondFromX The previous x-coordinate of the second object.
+     * @param secondFromY The previous y-coordinate of the second object.
+     * @param secondX The current x-coordinate of the second object.
+     * @param secondY The current y-coordinate of the second object.
+     * @return True if the objects overlapped during the last tick.
+     */
+    public static boolean sweptOverlap(int firstFromX, int firstFromY, int firstX, int firstY,
+                                       int secondFromX, int secondFromY,
+                                       int secondX, int secondY) {
+        long startX = (long) firstFromX - secondFromX;
+        long startY = (long) firstFromY - secondFromY;
+        long endX = (long) firstX - secondX;
+        long endY = (long) firstY - secondY;
+
+        double enter = 0;
+        double exit = 1;
+        long deltaX = endX - startX;
+        if (deltaX == 0) {
+            if (Math.abs(startX) >= ONE) {
+                return false;
+            }
+        } else {
+            double a = (double) (-ONE - startX) / deltaX;
+            double b = (double) (ONE - startX) / deltaX;
+            enter = Math.max(enter, Math.min(a, b));
+            exit = Math.min(exit, Math.max(a, b));
+        }
+        long deltaY = endY - startY;
+        if (deltaY == 0) {
+            if (Math.abs(startY) >= ONE) {
+                return false;
+            }
+        } else {
+            double a = (double) (-ONE - startY) / deltaY;
+            double b = (double) (ONE - startY) / deltaY;
+            enter = Math.max(enter, Math.min(a, b));
+            exit = Math.min(exit, Math.max(a, b));
+        }
+        return enter < exit;
+    }
+}
@@ -0,0 +1,73 @@
+package game.core;
+
+import game.ui.ObjectGraphic;
+
+/**
+ * Holds the single shared ObjectGraphic for each entity type.
+ * The text and image of a type never change, so every render() call for that type returns
+ * the same instance. Renderers can key off EntityType.getId() rather than comparing strings,
+ * and can cache decoded assets by graphic identity.
+ */
+public final class GraphicRegistry {
+    private static final String[] TEXT = new String[EntityType.values().length + 1];
+    private static final String[] PATHS = new String[EntityType.values().length + 1];
+    private static final ObjectGraphic[] GRAPHICS = new ObjectGraphic[EntityType.values().length + 1];
+
+    static {
+        register(EntityType.ASTEROID, "🌑", "assets/asteroid.png");
+        register(EntityType.ENEMY, "👾", "assets/enemy.png");
+        register(EntityType.BULLET, "🔺", "assets/bullet.png");
+        register(EntityType.HEALTH_POWER_UP, "❤️", "assets/health.png");
+        register(EntityType.SHIELD_POWER_UP, "💠", "assets/shield.png");
+        register(EntityType.SHIP, "🚀", "assets/ship.png");
+    }
+
+    private GraphicRegistry() {
+    }
+
+    private static void register(EntityType type, String text, String path) {
+        TEXT[type.getId()] = text;
+        PATHS[type.getId()] = path;
+        GRAPHICS[type.getId()] = new ObjectGraphic(text, path);
+    }
+
+    /**
+     * Gets the shared graphic for the given type. The instance must not be modified.
+     *
+     * @param type The entity type.
+     * @return The graphic for every entity of that type.
+     */
+    public static ObjectGraphic get(EntityType type) {
+        return GRAPHICS[type.getId()];
+    }
+
+    /**
+     * Gets the shared graphic for the given type id.
+     *
+     * @param id The id returned by EntityType.getId().
+     * @return The graphic for every entity of that type.
+     */
+    public static ObjectGraphic get(int id) {
+        return GRAPHICS[id];
+    }
+
+    /**
+     * Gets the text representation of the given type.
+     *
+     * @param type The entity type.
+     * @return The text drawn for entities of that type.
+     */
+    public static String getText(EntityType type) {
+        return TEXT[type.getId()];
+    }
+
+    /**
+     * Gets the image path of the given type.
+     *
+     * @param type The entity type.
+     * @return The path to the image drawn for entities of that type.
+     */
+    public static String getPath(EntityType type) {
+        return PATHS[type.getId()];
+    }
+}
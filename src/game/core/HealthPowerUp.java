@@ -19,12 +19,22 @@ public class HealthPowerUp extends PowerUp {
     }
 
     /**
-     * Returns a new ObjectGraphic instance representing the health power-up.
+     * Gets the type of this object.
      *
-     * @return A new ObjectGraphic containing both a text and image representation of the power-up.
+     * @return EntityType.HEALTH_POWER_UP
+     */
+    @Override
+    public EntityType getType() {
+        return EntityType.HEALTH_POWER_UP;
+    }
+
+    /**
+     * Returns the shared ObjectGraphic instance representing the health power-up.
+     *
+     * @return The shared ObjectGraphic containing both a text and image representation of the power-up.
      */
     public ObjectGraphic render() {
-        return new ObjectGraphic("❤️", "assets/health.png");
+        return GraphicRegistry.get(EntityType.HEALTH_POWER_UP);
     }
 
     /**
@@ -36,6 +46,5 @@ public class HealthPowerUp extends PowerUp {
     @Override
     public void applyEffect(Ship ship) {
         ship.heal(20);
-        System.out.println("Health restored by 20!");
     }
 }
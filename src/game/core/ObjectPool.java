@@ -0,0 +1,117 @@
+package game.core;
+
+/**
+ * A bounded pool of reusable objects of one type.
+ *
+ * obtain() hands out a released object moved to the requested position, or creates a new one
+ * if the pool is empty. release() keeps the object for reuse unless the pool is full, in which
+ * case it is left for the garbage collector. The pool is not thread-safe.
+ *
+ * @param <T> The type of object pooled.
+ */
+public class ObjectPool<T extends ObjectWithPosition> {
+    private final Factory<T> factory;
+    private final ObjectWithPosition[] free;
+    private int freeCount;
+    private long hits;
+    private long misses;
+    private long discards;
+
+    /**
+     * Creates a new object at a position when the pool is empty.
+     *
+     * @param <T> The type of object created.
+     */
+    @FunctionalInterface
+    public interface Factory<T> {
+
+        /**
+         * Creates an object at the given position.
+         *
+         * @param x The x-coordinate of the new object.
+         * @param y The y-coordinate of the new object.
+         * @return The new object.
+         */
+        T create(int x, int y);
+    }
+
+    /**
+     * Constructs an empty ObjectPool.
+     *
+     * @param factory Creates objects when the pool is empty, e.g. Bullet::new.
+     * @param capacity The most released objects the pool keeps.
+     */
+    public ObjectPool(Factory<T> factory, int capacity) {
+        this.factory = factory;
+        this.free = new ObjectWithPosition[capacity];
+    }
+
+    /**
+     * Returns an object at the given position, reusing a released one if possible.
+     *
+     * @param x The x-coordinate of the object.
+     * @param y The y-coordinate of the object.
+     * @return An object that is not in use.
+     */
+    @SuppressWarnings("unchecked")
+    public T obtain(int x, int y) {
+        if (freeCount == 0) {
+            misses++;
+            return factory.create(x, y);
+        }
+        hits++;
+        T object = (T) free[--freeCount];
+        free[freeCount] = null;
+        object.reset(x, y);
+        return object;
+    }
+
+    /**
+     * Returns an object to the pool. The caller must not use the object afterwards.
+     *
+     * @param object An object no longer in the game.
+     */
+    public void release(T object) {
+        if (freeCount == free.length) {
+            discards++;
+            return;
+        }
+        free[freeCount++] = object;
+    }
+
+    /**
+     * Gets the number of released objects waiting to be reused.
+     *
+     * @return The number of pooled objects.
+     */
+    public int getFreeCount() {
+        return freeCount;
+    }
+
+    /**
+     * Gets the number of calls to obtain() that reused a pooled object.
+     *
+     * @return The hit count.
+     */
+    public long getHits() {
+        return hits;
+    }
+
+    /**
+     * Gets the number of calls to obtain() that had to create a new object.
+     *
+     * @return The miss count.
+     */
+    public long getMisses() {
+        return misses;
+    }
+
+    /**
+     * Gets the number of released objects dropped because the pool was full.
+     *
+     * @return The discard count.
+     */
+    public long getDiscards() {
+        return discards;
+    }
+}
@@ -0,0 +1,152 @@
+package game.core;
+
+/**
+ * One ObjectPool for each kind of space object that is spawned and removed during play:
+ * asteroids, enemies, bullets and both power-ups.
+ */
+public class ObjectPools {
+    private final ObjectPool<Asteroid> asteroids;
+    private final ObjectPool<Enemy> enemies;
+    private final ObjectPool<Bullet> bullets;
+    private final ObjectPool<HealthPowerUp> healthPowerUps;
+    private final ObjectPool<ShieldPowerUp> shieldPowerUps;
+
+    /**
+     * Constructs empty pools.
+     *
+     * @param capacity The most released objects each pool keeps.
+     */
+    public ObjectPools(int capacity) {
+        asteroids = new ObjectPool<>(Asteroid::new, capacity);
+        enemies = new ObjectPool<>(Enemy::new, capacity);
+        bullets = new ObjectPool<>(Bullet::new, capacity);
+        healthPowerUps = new ObjectPool<>(HealthPowerUp::new, capacity);
+        shieldPowerUps = new ObjectPool<>(ShieldPowerUp::new, capacity);
+    }
+
+    /**
+     * Returns an asteroid at the given position.
+     *
+     * @param x The x-coordinate of the asteroid.
+     * @param y The y-coordinate of the asteroid.
+     * @return A pooled or new asteroid.
+     */
+    public Asteroid asteroid(int x, int y) {
+        return asteroids.obtain(x, y);
+    }
+
+    /**
+     * Returns an enemy at the given position.
+     *
+     * @param x The x-coordinate of the enemy.
+     * @param y The y-coordinate of the enemy.
+     * @return A pooled or new enemy.
+     */
+    public Enemy enemy(int x, int y) {
+        return enemies.obtain(x, y);
+    }
+
+    /**
+     * Returns a bullet at the given position.
+     *
+     * @param x The x-coordinate of the bullet.
+     * @param y The y-coordinate of the bullet.
+     * @return A pooled or new bullet.
+     */
+    public Bullet bullet(int x, int y) {
+        return bullets.obtain(x, y);
+    }
+
+    /**
+     * Returns a health power-up at the given position.
+     *
+     * @param x The x-coordinate of the power-up.
+     * @param y The y-coordinate of the power-up.
+     * @return A pooled or new health power-up.
+     */
+    public HealthPowerUp healthPowerUp(int x, int y) {
+        return healthPowerUps.obtain(x, y);
+    }
+
+    /**
+     * Returns a shield power-up at the given position.
+     *
+     * @param x The x-coordinate of the power-up.
+     * @param y The y-coordinate of the power-up.
+     * @return A pooled or new shield power-up.
+     */
+    public ShieldPowerUp shieldPowerUp(int x, int y) {
+        return shieldPowerUps.obtain(x, y);
+    }
+
+    /**
+     * Returns an object that has left the game to the pool for its type.
+     * Objects of a type that is not pooled, such as the ship, are ignored.
+     *
+     * @param object An object no longer in the game.
+     */
+    public void release(SpaceObject object) {
+        switch (object.getType()) {
+            case ASTEROID:
+                asteroids.release((Asteroid) object);
+                break;
+            case ENEMY:
+                enemies.release((Enemy) object);
+                break;
+            case BULLET:
+                bullets.release((Bullet) object);
+                break;
+            case HEALTH_POWER_UP:
+                healthPowerUps.release((HealthPowerUp) object);
+                break;
+            case SHIELD_POWER_UP:
+                shieldPowerUps.release((ShieldPowerUp) object);
+                break;
+            default:
+                break;
+        }
+    }
+
+    /**
+     * Gets the pool for the given type of object.
+     *
+     * @param type The type of object.
+     * @return The pool, or null if the type is not pooled.
+     */
+    public ObjectPool<?> getPool(EntityType type) {
+        switch (type) {
+            case ASTEROID:
+                return asteroids;
+            case ENEMY:
+                return enemies;
+            case BULLET:
+                return bullets;
+            case HEALTH_POWER_UP:
+                return healthPowerUps;
+            case SHIELD_POWER_UP:
+                return shieldPowerUps;
+            default:
+                return null;
+        }
+    }
+
+    /**
+     * Gets the number of objects reused across all pools.
+     *
+     * @return The total hit count.
+     */
+    public long getHits() {
+        return asteroids.getHits() + enemies.getHits() + bullets.getHits()
+                + healthPowerUps.getHits() + shieldPowerUps.getHits();
+    }
+
+    /**
+     * Gets the number of objects created because a pool was empty, across all pools.
+     *
+     * @return The total miss count.
+     */
+    public long getMisses() {
+        return asteroids.getMisses() + enemies.getMisses() + bullets.getMisses()
+                + healthPowerUps.getMisses() + shieldPowerUps.getMisses();
+    }
+}
@@ -1,15 +1,46 @@
 package game.core;
 
+import java.util.concurrent.atomic.AtomicInteger;
+
 /**
  * Represents an object that has a position in 2D space.
  * This class provides basic position handling and implements SpaceObject.
+ *
+ * Besides its cell, an object keeps its position within the cell and a velocity, both in
+ * fixed-point units (see FixedPoint), so it can move by fractions of a cell per tick. The
+ * position at the start of the last tick is kept too, so collisions can be checked along the
+ * whole path the object moved through rather than only where it ended up.
+ *
+ * Every object is given an entity id when it is created, and a new one each time it is reused
+ * from a pool, which renderers and network clients use to follow it between frames.
+ *
+ * Objects can be shared between a GameModel and its forks. A shared object records the model it
+ * was shared by, which may change it in place again once its forks are no longer used; any other
+ * model about to change it changes a copy instead.
  */
-public abstract class ObjectWithPosition implements SpaceObject {
+public abstract class ObjectWithPosition implements SpaceObject, Cloneable {
+
+    private static final AtomicInteger NEXT_ENTITY_ID = new AtomicInteger();
 
     /** The x-coordinate of the object. */
     protected int x;
     /** The y-coordinate of the object. */
     protected int y;
+    /** The id of the object's type, cached on first use. */
+    private byte typeId;
+    /** The id of the entity, unique among objects in play and renewed when reused. */
+    private int entityId = nextEntityId();
+    /** The position within the current cell, in fixed-point units from 0 to FixedPoint.ONE - 1. */
+    private int subX;
+    private int subY;
+    /** The fixed-point position at the start of the last tick. */
+    private int previousX;
+    private int previousY;
+    /** The fixed-point distance moved by each call to advance(). */
+    private int velocityX;
+    private int velocityY;
+    /** The token of the model that shared the object, or null if it has not been shared. */
+    private Object owner;
 
     /**
      * Constructs an ObjectWithPosition with the specified coordinates.
@@ -20,6 +51,8 @@ public abstract class ObjectWithPosition implements SpaceObject {
     public ObjectWithPosition(int x, int y) {
         this.x = x;
         this.y = y;
+        this.previousX = FixedPoint.fromCell(x);
+        this.previousY = FixedPoint.fromCell(y);
     }
 
     /**
@@ -39,4 +72,196 @@ public abstract class ObjectWithPosition implements SpaceObject {
     public int getY() {
         return this.y;
     }
+
+    @Override
+    public int getFixedX() {
+        return FixedPoint.fromCell(x) + subX;
+    }
+
+    @Override
+    public int getFixedY() {
+        return FixedPoint.fromCell(y) + subY;
+    }
+
+    @Override
+    public int getPreviousFixedX() {
+        return previousX;
+    }
+
+    @Override
+    public int getPreviousFixedY() {
+        return previousY;
+    }
+
+    @Override
+    public void beginStep() {
+        previousX = getFixedX();
+        previousY = getFixedY();
+    }
+
+    /**
+     * Places the object at the given fixed-point position, as if it had started the tick there,
+     * for example when loading a saved game.
+     *
+     * @param fixedX The fixed-point x-coordinate.
+     * @param fixedY The fixed-point y-coordinate.
+     */
+    public void setFixedPosition(int fixedX, int fixedY) {
+        x = FixedPoint.toCell(fixedX);
+        y = FixedPoint.toCell(fixedY);
+        subX = fixedX & FixedPoint.FRACTION_MASK;
+        subY = fixedY & FixedPoint.FRACTION_MASK;
+        beginStep();
+    }
+
+    /**
+     * Gets the fixed-point distance the object moves along the x-axis each time it advances.
+     *
+     * @return The x-component of the velocity.
+     */
+    @Override
+    public int getVelocityX() {
+        return velocityX;
+    }
+
+    /**
+     * Gets the fixed-point distance the object moves along the y-axis each time it advances.
+     *
+     * @return The y-component of the velocity.
+     */
+    @Override
+    public int getVelocityY() {
+        return velocityY;
+    }
+
+    /**
+     * Sets the fixed-point distance the object moves each time it advances. A velocity of more
+     * than a cell per tick is safe, as collisions are checked along the whole path.
+     *
+     * @param velocityX The x-component of the velocity.
+     * @param velocityY The y-component of the velocity.
+     */
+    public void setVelocity(int velocityX, int velocityY) {
+        this.velocityX = velocityX;
+        this.velocityY = velocityY;
+    }
+
+    /**
+     * Moves the object by its velocity.
+     */
+    protected void advance() {
+        moveBy(velocityX, velocityY);
+    }
+
+    /**
+     * Moves the object by the given fixed-point distance, carrying any remainder within the
+     * cell over to later moves.
+     *
+     * @param dx The fixed-point distance to move along the x-axis.
+     * @param dy The fixed-point distance to move along the y-axis.
+     */
+    protected void moveBy(int dx, int dy) {
+        int fixedX = getFixedX() + dx;
+        int fixedY = getFixedY() + dy;
+        x = FixedPoint.toCell(fixedX);
+        y = FixedPoint.toCell(fixedY);
+        subX = fixedX & FixedPoint.FRACTION_MASK;
+        subY = fixedY & FixedPoint.FRACTION_MASK;
+    }
+
+    @Override
+    public int getEntityId() {
+        return entityId;
+    }
+
+    /**
+     * Returns a new entity id. Ids wrap around after 2^30 objects, by which time the object
+     * that had an id before is long gone; the ids above are those of EntityStore entities.
+     */
+    private static int nextEntityId() {
+        return NEXT_ENTITY_ID.getAndIncrement() & (EntityStore.FIRST_ENTITY_ID - 1);
+    }
+
+    /**
+     * Gets the compact id of the object's type. The id is cached in a field, so the common
+     * case is a single field read rather than a call to getType().
+     *
+     * @return The type id.
+     */
+    @Override
+    public final int getTypeId() {
+        byte id = typeId;
+        if (id == 0) {
+            id = getType().getId();
+            typeId = id;
+        }
+        return id;
+    }
+
+    /**
+     * Returns whether the object has been shared by a model with its forks.
+     *
+     * @return True if the object is shared.
+     */
+    public boolean isShared() {
+        return owner != null;
+    }
+
+    /**
+     * Returns whether the holder of the given token may change the object once none of its forks
+     * are in use: either the object has not been shared, or that model shared it.
+     *
+     * @param token The token of a model.
+     * @return True if the object is owned by that model.
+     */
+    public boolean isOwnedBy(Object token) {
+        return owner == null || owner == token;
+    }
+
+    /**
+     * Marks the object as shared, if it is not already, by recording the given token as its
+     * owner. Any model holding a different token must then copy the object before changing it.
+     *
+     * @param token The token of the model the object has belonged to until now.
+     */
+    public void share(Object token) {
+        if (owner == null) {
+            owner = token;
+        }
+    }
+
+    /**
+     * Returns a copy of the object in the same position and state, which has not been shared.
+     *
+     * @return The copy.
+     */
+    public ObjectWithPosition copy() {
+        try {
+            ObjectWithPosition copy = (ObjectWithPosition) super.clone();
+            copy.owner = null;
+            return copy;
+        } catch (CloneNotSupportedException e) {
+            throw new AssertionError(e);
+        }
+    }
+
+    /**
+     * Moves the object to the start of the given cell so it can be reused as if newly
+     * constructed, with a new entity id and no longer shared. The velocity is kept, as it is set
+     * by the object's class.
+     * Subclasses that hold other state should override this and reset it too.
+     *
+     * @param x The new x-coordinate of the object.
+     * @param y The new y-coordinate of the object.
+     */
+    protected void reset(int x, int y) {
+        this.x = x;
+        this.y = y;
+        this.subX = 0;
+        this.subY = 0;
+        this.previousX = FixedPoint.fromCell(x);
+        this.previousY = FixedPoint.fromCell(y);
+        this.owner = null;
+        this.entityId = nextEntityId();
+    }
 }
@@ -19,4 +19,9 @@ public abstract class PowerUp extends ObjectWithPosition implements PowerUpEffec
     @Override
     public void tick(int tick) {
     }
+
+    @Override
+    public long getNextWakeTick(int tick) {
+        return NEVER;
+    }
 }
@@ -19,12 +19,22 @@ public class ShieldPowerUp extends PowerUp {
     }
 
     /**
-     * Returns a new ObjectGraphic instance representing the shield power-up.
+     * Gets the type of this object.
      *
-     * @return A new ObjectGraphic containing both a text and image representation of the shield power-up.
+     * @return EntityType.SHIELD_POWER_UP
+     */
+    @Override
+    public EntityType getType() {
+        return EntityType.SHIELD_POWER_UP;
+    }
+
+    /**
+     * Returns the shared ObjectGraphic instance representing the shield power-up.
+     *
+     * @return The shared ObjectGraphic containing both a text and image representation of the shield power-up.
      */
     public ObjectGraphic render() {
-        return new ObjectGraphic("💠", "assets/shield.png");
+        return GraphicRegistry.get(EntityType.SHIELD_POWER_UP);
     }
 
     /**
@@ -36,6 +46,5 @@ public class ShieldPowerUp extends PowerUp {
     @Override
     public void applyEffect(Ship ship) {
         ship.addScore(50);
-        System.out.println("Shield activated! Score increased by 50.");
     }
 }
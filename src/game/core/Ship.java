@@ -9,6 +9,9 @@ import game.ui.ObjectGraphic;
  */
 public class Ship extends Controllable {
 
+    /** The health a ship starts with. */
+    public static final int START_HEALTH = 100;
+
     /** The health of the ship. */
     private int health;
 
@@ -32,17 +35,27 @@ public class Ship extends Controllable {
      * Constructs a Ship with default position (5, 10) and health (100).
      */
     public Ship() {
-        this(5, 10, 100);
+        this(5, 10, START_HEALTH);
+    }
+
+    /**
+     * Gets the type of this object.
+     *
+     * @return EntityType.SHIP
+     */
+    @Override
+    public EntityType getType() {
+        return EntityType.SHIP;
     }
 
     /**
-     * Returns a new ObjectGraphic instance representing the ship.
+     * Returns the shared ObjectGraphic instance representing the ship.
      * This method provides both a text and image representation of the ship.
      *
-     * @return A new ObjectGraphic representing the ship.
+     * @return The shared ObjectGraphic representing the ship.
      */
     public ObjectGraphic render() {
-        return new ObjectGraphic("🚀", "assets/ship.png");
+        return GraphicRegistry.get(EntityType.SHIP);
     }
 
     /**
@@ -97,4 +110,9 @@ public class Ship extends Controllable {
     @Override
     public void tick(int tick) {
     }
+
+    @Override
+    public long getNextWakeTick(int tick) {
+        return NEVER;
+    }
 }
@@ -9,6 +9,9 @@ import game.ui.Tickable;
  */
 public interface SpaceObject extends Tickable {
 
+    /** Returned by getNextWakeTick() by objects whose tick() never does anything. */
+    long NEVER = Long.MAX_VALUE;
+
     /**
      * Gets the x-coordinate of the space object.
      *
@@ -23,6 +26,113 @@ public interface SpaceObject extends Tickable {
      */
     int getY();
 
+    /**
+     * Gets the type of the space object, which carries a compact id for cheap dispatch.
+     *
+     * @return The EntityType of the space object.
+     */
+    EntityType getType();
+
+    /**
+     * Gets the compact id of the space object's type, as returned by EntityType.getId().
+     *
+     * @return The type id, from 1 to the number of entity types.
+     */
+    default int getTypeId() {
+        return getType().getId();
+    }
+
+    /**
+     * Gets an id that identifies this entity for as long as it stays in the game, so the
+     * entity can be followed from frame to frame. Copies of the entity, such as those in a
+     * forked game or a FrameSnapshot, have the same id.
+     *
+     * @return The id, which is never negative, or -1 if the object cannot be followed.
+     */
+    default int getEntityId() {
+        return -1;
+    }
+
+    /**
+     * Gets the x-coordinate of the space object in fixed-point units, including its position
+     * within its cell. Objects without sub-cell positions are at the start of their cell.
+     *
+     * @return The fixed-point x-coordinate.
+     * @see FixedPoint
+     */
+    default int getFixedX() {
+        return FixedPoint.fromCell(getX());
+    }
+
+    /**
+     * Gets the y-coordinate of the space object in fixed-point units, including its position
+     * within its cell. Objects without sub-cell positions are at the start of their cell.
+     *
+     * @return The fixed-point y-coordinate.
+     * @see FixedPoint
+     */
+    default int getFixedY() {
+        return FixedPoint.fromCell(getY());
+    }
+
+    /**
+     * Gets the fixed-point x-coordinate the space object had at the start of the last tick,
+     * for swept collision detection. Objects that never move report their current position.
+     *
+     * @return The previous fixed-point x-coordinate.
+     */
+    default int getPreviousFixedX() {
+        return getFixedX();
+    }
+
+    /**
+     * Gets the fixed-point y-coordinate the space object had at the start of the last tick,
+     * for swept collision detection. Objects that never move report their current position.
+     *
+     * @return The previous fixed-point y-coordinate.
+     */
+    default int getPreviousFixedY() {
+        return getFixedY();
+    }
+
+    /**
+     * Gets the fixed-point distance the space object moves along the x-axis when it moves.
+     * Objects that never move report 0.
+     *
+     * @return The x-component of the velocity.
+     */
+    default int getVelocityX() {
+        return 0;
+    }
+
+    /**
+     * Gets the fixed-point distance the space object moves along the y-axis when it moves.
+     * Objects that never move report 0.
+     *
+     * @return The y-component of the velocity.
+     */
+    default int getVelocityY() {
+        return 0;
+    }
+
+    /**
+     * Records the current position as the previous position, before the object is ticked.
+     * Objects that never move need not do anything.
+     */
+    default void beginStep() {
+    }
+
+    /**
+     * Returns the next tick after the given one at which tick() may change the object, so a
+     * scheduler can skip the ticks in between. Objects that act every tick need not override this.
+     *
+     * @param tick The tick the object was last ticked at.
+     * @return The next tick the object needs, or NEVER if it never changes by itself.
+     */
+    default long getNextWakeTick(int tick) {
+        return tick + 1L;
+    }
+
     /**
      * Returns a graphical representation of the space object.
      * This method provides both a text and image representation.
@@ -0,0 +1,229 @@
+package game.core;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * A cell-indexed broadphase for finding space objects that share a position.
+ * Objects are stored by their index in the owning list, grouped into buckets keyed on (x, y).
+ * Only occupied cells are stored, so building and querying the grid costs time proportional
+ * to the number of objects rather than the size of the board.
+ */
+public class SpatialGrid {
+
+    /** Marker for an empty table slot or the end of a bucket. */
+    public static final int NONE = -1;
+
+    private static final int INITIAL_CAPACITY = 64;
+
+    /** Open-addressed table from packed cell key to bucket. */
+    private long[] cellKeys;
+    private int[] cellHeads;
+    private int[] cellTails;
+    private int mask;
+
+    /** Table slots that are in use, in the order their cells were first occupied. */
+    private int[] occupied;
+    private int occupiedCount;
+
+    /** Bucket nodes, each holding an object index and the next node in the same cell. */
+    private int[] nodeIndex;
+    private int[] nodeNext;
+    private int nodeCount;
+
+    /**
+     * Handles a pair of object indices that share a cell.
+     */
+    @FunctionalInterface
+    public interface PairHandler {
+
+        /**
+         * Called for each pair of objects found in the same cell.
+         *
+         * @param first The index of the first object of the pair.
+         * @param second The index of the second object of the pair.
+         */
+        void onPair(int first, int second);
+    }
+
+    /**
+     * Constructs an empty SpatialGrid.
+     */
+    public SpatialGrid() {
+        cellKeys = new long[INITIAL_CAPACITY];
+        cellHeads = new int[INITIAL_CAPACITY];
+        cellTails = new int[INITIAL_CAPACITY];
+        mask = INITIAL_CAPACITY - 1;
+        occupied = new int[INITIAL_CAPACITY];
+        nodeIndex = new int[INITIAL_CAPACITY];
+        nodeNext = new int[INITIAL_CAPACITY];
+        Arrays.fill(cellHeads, NONE);
+    }
+
+    /**
+     * Removes every object from the grid. Only the occupied cells are reset, so clearing
+     * costs time proportional to the previous contents.
+     */
+    public void clear() {
+        for (int i = 0; i < occupiedCount; i++) {
+            cellHeads[occupied[i]] = NONE;
+        }
+        occupiedCount = 0;
+        nodeCount = 0;
+    }
+
+    /**
+     * Clears the grid and inserts every object in the given list, keyed by its list index.
+     *
+     * @param objects The objects to index.
+     */
+    public void build(List<? extends SpaceObject> objects) {
+        clear();
+        int size = objects.size();
+        for (int i = 0; i < size; i++) {
+            SpaceObject object = objects.get(i);
+            insert(i, object.getX(), object.getY());
+        }
+    }
+
+    /**
+     * Adds an object index to the cell at the given position.
+     * Objects within a cell are kept in insertion order.
+     *
+     * @param index The index of the object in the owning list.
+     * @param x The x-coordinate of the cell.
+     * @param y The y-coordinate of the cell.
+     */
+    public void insert(int index, int x, int y) {
+        if (nodeCount == nodeIndex.length) {
+            nodeIndex = Arrays.copyOf(nodeIndex, nodeCount * 2);
+            nodeNext = Arrays.copyOf(nodeNext, nodeCount * 2);
+        }
+        int node = nodeCount++;
+        nodeIndex[node] = index;
+        nodeNext[node] = NONE;
+
+        long key = key(x, y);
+        int slot = find(key);
+        if (cellHeads[slot] == NONE) {
+            if ((occupiedCount + 1) * 2 > cellKeys.length) {
+                grow();
+                slot = find(key);
+            }
+            cellKeys[slot] = key;
+            cellHeads[slot] = node;
+            cellTails[slot] = node;
+            if (occupiedCount == occupied.length) {
+                occupied = Arrays.copyOf(occupied, occupiedCount * 2);
+            }
+            occupied[occupiedCount++] = slot;
+        } else {
+            nodeNext[cellTails[slot]] = node;
+            cellTails[slot] = node;
+        }
+    }
+
+    /**
+     * Returns the first node in the cell at the given position.
+     *
+     * @param x The x-coordinate of the cell.
+     * @param y The y-coordinate of the cell.
+     * @return The first node in the cell, or NONE if the cell is empty.
+     */
+    public int first(int x, int y) {
+        return cellHeads[find(key(x, y))];
+    }
+
+    /**
+     * Returns the node following the given node in the same cell.
+     *
+     * @param node A node returned by first() or next().
+     * @return The next node in the cell, or NONE if there are no more.
+     */
+    public int next(int node) {
+        return nodeNext[node];
+    }
+
+    /**
+     * Returns the object index stored in the given node.
+     *
+     * @param node A node returned by first() or next().
+     * @return The index of the object in the owning list.
+     */
+    public int indexAt(int node) {
+        return nodeIndex[node];
+    }
+
+    /**
+     * Returns the number of occupied cells.
+     *
+     * @return The number of cells holding at least one object.
+     */
+    public int cellCount() {
+        return occupiedCount;
+    }
+
+    /**
+     * Returns the first node of an occupied cell.
+     *
+     * @param cell A cell number between 0 (inclusive) and cellCount() (exclusive).
+     * @return The first node in the cell.
+     */
+    public int cellFirst(int cell) {
+        return cellHeads[occupied[cell]];
+    }
+
+    /**
+     * Visits every ordered pair of distinct objects that share a cell, so each unordered pair
+     * is visited twice, once in each order. Cells holding a single object are skipped.
+     *
+     * @param handler Called for each pair.
+     */
+    public void forEachPair(PairHandler handler) {
+        for (int cell = 0; cell < occupiedCount; cell++) {
+            int head = cellHeads[occupied[cell]];
+            if (nodeNext[head] == NONE) {
+                continue;
+            }
+            for (int a = head; a != NONE; a = nodeNext[a]) {
+                for (int b = head; b != NONE; b = nodeNext[b]) {
+                    if (a != b) {
+                        handler.onPair(nodeIndex[a], nodeIndex[b]);
+                    }
+                }
+            }
+        }
+    }
+
+    private static long key(int x, int y) {
+        return ((long) x << 32) | (y & 0xFFFFFFFFL);
+    }
+
+    private int find(long key) {
+        int slot = (int) ((key * 0x9E3779B97F4A7C15L) >>> 32) & mask;
+        while (cellHeads[slot] != NONE && cellKeys[slot] != key) {
+            slot = (slot + 1) & mask;
+        }
+        return slot;
+    }
+
+    private void grow() {
+        long[] oldKeys = cellKeys;
+        int[] oldHeads = cellHeads;
+        int[] oldTails = cellTails;
+        int capacity = oldKeys.length * 2;
+        cellKeys = new long[capacity];
+        cellHeads = new int[capacity];
+        cellTails = new int[capacity];
+        mask = capacity - 1;
+        Arrays.fill(cellHeads, NONE);
+        for (int i = 0; i < occupiedCount; i++) {
+            int oldSlot = occupied[i];
+            int slot = find(oldKeys[oldSlot]);
+            cellKeys[slot] = oldKeys[oldSlot];
+            cellHeads[slot] = oldHeads[oldSlot];
+            cellTails[slot] = oldTails[oldSlot];
+            occupied[i] = slot;
+        }
+    }
+}
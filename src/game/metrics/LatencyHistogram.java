@@ -0,0 +1,165 @@
+package game.metrics;
+
+import java.util.Arrays;
+
+/**
+ * A fixed-size histogram of durations in nanoseconds with bounded relative error.
+ *
+ * Values are bucketed by their power of two, and each power of two is split into 32 linear
+ * sub-buckets, so any recorded value is reported within about 3% of its true value, as with
+ * HdrHistogram. Recording is a few shifts and one array increment with no allocation. The
+ * histogram is not thread-safe; TickRecorder guards it.
+ */
+public class LatencyHistogram {
+    private static final int SUB_BUCKET_BITS = 5;
+    private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+    private static final int BUCKETS = 64 - SUB_BUCKET_BITS - 1;
+
+    private final long[] counts = new long[(BUCKETS + 1) * SUB_BUCKETS];
+    private long totalCount;
+    private long sum;
+    private long min = Long.MAX_VALUE;
+    private long max;
+
+    /**
+     * Records a single value.
+     *
+     * @param value The value to record, in nanoseconds. Negative values are recorded as zero.
+     */
+    public void record(long value) {
+        if (value < 0) {
+            value = 0;
+        }
+        counts[indexOf(value)]++;
+        totalCount++;
+        sum += value;
+        if (value < min) {
+            min = value;
+        }
+        if (value > max) {
+            max = value;
+        }
+    }
+
+    /**
+     * Removes every recorded value.
+     */
+    public void reset() {
+        Arrays.fill(counts, 0);
+        totalCount = 0;
+        sum = 0;
+        min = Long.MAX_VALUE;
+        max = 0;
+    }
+
+    /**
+     * Adds every value recorded in another histogram to this one.
+     *
+     * @param other The histogram to add.
+     */
+    public void add(LatencyHistogram other) {
+        for (int i = 0; i < counts.length; i++) {
+            counts[i] += other.counts[i];
+        }
+        totalCount += other.totalCount;
+        sum += other.sum;
+        min = Math.min(min, other.min);
+        max = Math.max(max, other.max);
+    }
+
+    /**
+     * Returns a copy of this histogram.
+     *
+     * @return A new histogram with the same recorded values.
+     */
+    public LatencyHistogram copy() {
+        LatencyHistogram copy = new LatencyHistogram();
+        System.arraycopy(counts, 0, copy.counts, 0, counts.length);
+        copy.totalCount = totalCount;
+        copy.sum = sum;
+        copy.min = min;
+        copy.max = max;
+        return copy;
+    }
+
+    /**
+     * Gets the number of recorded values.
+     *
+     * @return The count.
+     */
+    public long getCount() {
+        return totalCount;
+    }
+
+    /**
+     * Gets the smallest recorded value.
+     *
+     * @return The minimum, or 0 if nothing has been recorded.
+     */
+    public long getMin() {
+        return totalCount == 0 ? 0 : min;
+    }
+
+    /**
+     * Gets the largest recorded value.
+     *
+     * @return The maximum, or 0 if nothing has been recorded.
+     */
+    public long getMax() {
+        return max;
+    }
+
+    /**
+     * Gets the mean of the recorded values.
+     *
+     * @return The mean, or 0 if nothing has been recorded.
+     */
+    public double getMean() {
+        return totalCount == 0 ? 0 : (double) sum / totalCount;
+    }
+
+    /**
+     * Gets the value at the given percentile.
+     *
+     * @param percentile The percentile, from 0 to 100.
+     * @return The highest value in the bucket holding that percentile, capped at the maximum,
+     *         or 0 if nothing has been recorded.
+     */
+    public long getValueAtPercentile(double percentile) {
+        if (totalCount == 0) {
+            return 0;
+        }
+        long target = Math.max(1, (long) Math.ceil(totalCount * percentile / 100.0));
+        long seen = 0;
+        for (int i = 0; i < counts.length; i++) {
+            seen += counts[i];
+            if (seen >= target) {
+                return Math.min(highestValueAt(i), max);
+            }
+        }
+        return max;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("count=%d mean=%.0fns p50=%dns p99=%dns max=%dns", totalCount,
+                getMean(), getValueAtPercentile(50), getValueAtPercentile(99), max);
+    }
+
+    private static int indexOf(long value) {
+        int bucket = Math.max(0, 64 - Long.numberOfLeadingZeros(value) - SUB_BUCKET_BITS - 1);
+        int subBucket = (int) (value >>> bucket);
+        return (bucket << SUB_BUCKET_BITS) + subBucket;
+    }
+
+    private static long highestValueAt(int index) {
+        int bucket = 0;
+        long subBucket = index;
+        if (index >= 2 * SUB_BUCKETS) {
+            // Above the first bucket, sub-bucket indices always have their top bit set.
+            bucket = (index >>> SUB_BUCKET_BITS) - 1;
+            subBucket = (index & (SUB_BUCKETS - 1)) | SUB_BUCKETS;
+        }
+        return ((subBucket + 1) << bucket) - 1;
+    }
+}
@@ -0,0 +1,140 @@
+package game.metrics;
+
+import game.core.EntityType;
+
+/**
+ * An immutable copy of the metrics recorded by a TickRecorder.
+ */
+public class MetricsSnapshot {
+    private final long ticks;
+    private final LatencyHistogram[] phases;
+    private final long[] entityCounts;
+    private final long collisions;
+    private final long spawns;
+    private final int maxCollisionsPerTick;
+    private final int maxSpawnsPerTick;
+
+    /**
+     * Constructs a MetricsSnapshot. The arrays are kept, not copied.
+     *
+     * @param ticks The number of ticks measured.
+     * @param phases A histogram of durations for each TickPhase, indexed by ordinal.
+     * @param entityCounts The number of objects of each EntityType after the latest tick,
+     *                     indexed by ordinal.
+     * @param collisions The number of collisions across all measured ticks.
+     * @param spawns The number of objects spawned across all measured ticks.
+     * @param maxCollisionsPerTick The most collisions in a single tick.
+     * @param maxSpawnsPerTick The most objects spawned in a single tick.
+     */
+    public MetricsSnapshot(long ticks, LatencyHistogram[] phases, long[] entityCounts,
+                           long collisions, long spawns, int maxCollisionsPerTick,
+                           int maxSpawnsPerTick) {
+        this.ticks = ticks;
+        this.phases = phases;
+        this.entityCounts = entityCounts;
+        this.collisions = collisions;
+        this.spawns = spawns;
+        this.maxCollisionsPerTick = maxCollisionsPerTick;
+        this.maxSpawnsPerTick = maxSpawnsPerTick;
+    }
+
+    /**
+     * Gets the number of ticks measured.
+     *
+     * @return The tick count.
+     */
+    public long getTicks() {
+        return ticks;
+    }
+
+    /**
+     * Gets the distribution of durations of a phase.
+     *
+     * @param phase The phase.
+     * @return A histogram of the phase's durations in nanoseconds. Must not be modified.
+     */
+    public LatencyHistogram getPhase(TickPhase phase) {
+        return phases[phase.ordinal()];
+    }
+
+    /**
+     * Gets the number of objects of a type in the game after the latest measured tick.
+     *
+     * @param type The type of object.
+     * @return The number of objects of that type.
+     */
+    public long getEntityCount(EntityType type) {
+        return entityCounts[type.ordinal()];
+    }
+
+    /**
+     * Gets the number of collisions across all measured ticks.
+     *
+     * @return The collision count.
+     */
+    public long getCollisions() {
+        return collisions;
+    }
+
+    /**
+     * Gets the number of objects spawned across all measured ticks.
+     *
+     * @return The spawn count.
+     */
+    public long getSpawns() {
+        return spawns;
+    }
+
+    /**
+     * Gets the average number of collisions per measured tick.
+     *
+     * @return The collisions per tick.
+     */
+    public double getCollisionsPerTick() {
+        return ticks == 0 ? 0 : (double) collisions / ticks;
+    }
+
+    /**
+     * Gets the average number of objects spawned per measured tick.
+     *
+     * @return The spawns per tick.
+     */
+    public double getSpawnsPerTick() {
+        return ticks == 0 ? 0 : (double) spawns / ticks;
+    }
+
+    /**
+     * Gets the most collisions in a single measured tick.
+     *
+     * @return The maximum collisions per tick.
+     */
+    public int getMaxCollisionsPerTick() {
+        return maxCollisionsPerTick;
+    }
+
+    /**
+     * Gets the most objects spawned in a single measured tick.
+     *
+     * @return The maximum spawns per tick.
+     */
+    public int getMaxSpawnsPerTick() {
+        return maxSpawnsPerTick;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder builder = new StringBuilder();
+        builder.append("ticks=").append(ticks);
+        for (TickPhase phase : TickPhase.values()) {
+            builder.append('\n').append(phase).append(": ").append(getPhase(phase));
+        }
+        builder.append('\n').append("entities:");
+        for (EntityType type : EntityType.values()) {
+            builder.append(' ').append(type).append('=').append(getEntityCount(type));
+        }
+        builder.append(String.format("%ncollisions/tick=%.3f (max %d) spawns/tick=%.3f (max %d)",
+                getCollisionsPerTick(), maxCollisionsPerTick, getSpawnsPerTick(),
+                maxSpawnsPerTick));
+        return builder.toString();
+    }
+}
@@ -0,0 +1,22 @@
+package game.metrics;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.Timespan;
+
+/**
+ * A Flight Recorder event spanning one rendered frame.
+ * Only committed while a recording has the event enabled.
+ */
+@Name("game.Render")
+@Label("Game Render")
+@Category("Game")
+@Description("Drawing one frame of the game")
+class RenderEvent extends Event {
+    @Label("Render Time")
+    @Timespan(Timespan.NANOSECONDS)
+    long renderNanos;
+}
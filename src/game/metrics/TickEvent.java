@@ -0,0 +1,46 @@
+package game.metrics;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.Timespan;
+
+/**
+ * A Flight Recorder event for one simulation tick, with the time spent in each phase.
+ * Only committed while a recording has the event enabled.
+ */
+@Name("game.Tick")
+@Label("Game Tick")
+@Category("Game")
+@Description("One simulation tick and the time spent in each phase")
+class TickEvent extends Event {
+    @Label("Tick")
+    long tick;
+
+    @Label("Update Time")
+    @Timespan(Timespan.NANOSECONDS)
+    long updateNanos;
+
+    @Label("Collision Time")
+    @Timespan(Timespan.NANOSECONDS)
+    long collisionNanos;
+
+    @Label("Spawn Time")
+    @Timespan(Timespan.NANOSECONDS)
+    long spawnNanos;
+
+    @Label("Level Up Time")
+    @Timespan(Timespan.NANOSECONDS)
+    long levelUpNanos;
+
+    @Label("Objects")
+    int objects;
+
+    @Label("Collisions")
+    int collisions;
+
+    @Label("Spawns")
+    int spawns;
+}
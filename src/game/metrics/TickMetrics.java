@@ -0,0 +1,27 @@
+package game.metrics;
+
+/**
+ * Per-phase timings and per-tick counts of a running game, for polling by monitoring code.
+ */
+public interface TickMetrics {
+
+    /**
+     * Returns whether metrics are being collected.
+     *
+     * @return True if ticks are being measured.
+     */
+    boolean isEnabled();
+
+    /**
+     * Returns a copy of everything recorded since metrics were enabled or last reset.
+     * Safe to call from any thread while the game runs.
+     *
+     * @return The current metrics.
+     */
+    MetricsSnapshot snapshot();
+
+    /**
+     * Discards everything recorded so far.
+     */
+    void reset();
+}
@@ -0,0 +1,17 @@
+package game.metrics;
+
+/**
+ * The phases of a game tick that are timed separately.
+ */
+public enum TickPhase {
+    /** Drawing the ship, space objects and stats. */
+    RENDER,
+    /** Ticking every space object and removing those out of bounds. */
+    UPDATE,
+    /** Resolving collisions with the ship and between bullets and enemies. */
+    COLLISION,
+    /** Spawning new asteroids, enemies and power-ups. */
+    SPAWN,
+    /** Checking the score and raising the level. */
+    LEVEL_UP
+}
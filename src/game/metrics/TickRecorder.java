@@ -0,0 +1,188 @@
+package game.metrics;
+
+import game.GameModel;
+import game.core.CollisionType;
+import game.core.EntityType;
+
+import java.util.Arrays;
+
+/**
+ * Measures the phases of each game tick and collects the results for polling and for
+ * Flight Recorder.
+ *
+ * The game thread brackets each phase with begin() and endPhase(), then calls endTick() once
+ * the tick is finished. While disabled each of these is a single field read, and no clock is
+ * read. Phase times are held in plain fields during the tick and folded into the histograms
+ * under a lock once per tick, so snapshot() can be called from any thread. The histograms
+ * are only allocated the first time the recorder is enabled, so a recorder that is never
+ * enabled costs almost no memory.
+ */
+public class TickRecorder implements TickMetrics {
+    private static final TickPhase[] PHASES = TickPhase.values();
+    private static final CollisionType[] COLLISION_TYPES = CollisionType.values();
+
+    private volatile boolean enabled;
+
+    /** Phase times of the tick in progress, only touched by the game thread. */
+    private final long[] current = new long[PHASES.length];
+    private long lastCollisions = -1;
+    private long lastSpawns = -1;
+
+    private LatencyHistogram[] phases; // allocated when first enabled
+    private final long[] entityCounts = new long[EntityType.values().length];
+    private long ticks;
+    private long collisions;
+    private long spawns;
+    private int maxCollisionsPerTick;
+    private int maxSpawnsPerTick;
+
+    /**
+     * Starts or stops collecting metrics. Metrics already recorded are kept.
+     *
+     * @param enabled Whether to measure ticks.
+     */
+    public void setEnabled(boolean enabled) {
+        if (enabled) {
+            synchronized (this) {
+                if (phases == null) {
+                    phases = newHistograms();
+                }
+            }
+        }
+        this.enabled = enabled;
+        lastCollisions = -1;
+        lastSpawns = -1;
+    }
+
+    @Override
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Marks the start of the first phase of a tick or frame.
+     *
+     * @return The start time to pass to endPhase(), or 0 if disabled.
+     */
+    public long begin() {
+        return enabled ? System.nanoTime() : 0;
+    }
+
+    /**
+     * Marks the end of a phase. The render phase is recorded straight away; other phases are
+     * recorded by the next endTick().
+     *
+     * @param phase The phase that finished.
+     * @param start The value returned by begin() or the previous endPhase().
+     * @return The end time, to pass as the start of the next phase, or 0 if disabled.
+     */
+    public long endPhase(TickPhase phase, long start) {
+        if (!enabled) {
+            return 0;
+        }
+        long now = System.nanoTime();
+        long elapsed = now - start;
+        if (phase == TickPhase.RENDER) {
+            synchronized (this) {
+                phases[phase.ordinal()].record(elapsed);
+            }
+            RenderEvent event = new RenderEvent();
+            if (event.shouldCommit()) {
+                event.renderNanos = elapsed;
+                event.commit();
+            }
+        } else {
+            current[phase.ordinal()] = elapsed;
+        }
+        return now;
+    }
+
+    /**
+     * Records the phase times of the tick just finished, and counts the model's objects,
+     * collisions and spawns.
+     *
+     * @param tick The tick that finished.
+     * @param model The model the tick was run on.
+     */
+    public void endTick(int tick, GameModel model) {
+        if (!enabled) {
+            return;
+        }
+        long totalCollisions = 0;
+        for (CollisionType type : COLLISION_TYPES) {
+            totalCollisions += model.getCollisionCount(type);
+        }
+        long totalSpawns = model.getSpawnCount();
+        // The first tick after enabling has no baseline, and a reset model restarts its counts.
+        int tickCollisions = lastCollisions < 0 || totalCollisions < lastCollisions
+                ? 0 : (int) (totalCollisions - lastCollisions);
+        int tickSpawns = lastSpawns < 0 || totalSpawns < lastSpawns
+                ? 0 : (int) (totalSpawns - lastSpawns);
+        lastCollisions = totalCollisions;
+        lastSpawns = totalSpawns;
+
+        int objects = model.getObjectCount();
+        synchronized (this) {
+            for (int i = 0; i < PHASES.length; i++) {
+                if (PHASES[i] != TickPhase.RENDER) {
+                    phases[i].record(current[i]);
+                }
+            }
+            Arrays.fill(entityCounts, 0);
+            model.countObjects(entityCounts);
+            ticks++;
+            collisions += tickCollisions;
+            spawns += tickSpawns;
+            maxCollisionsPerTick = Math.max(maxCollisionsPerTick, tickCollisions);
+            maxSpawnsPerTick = Math.max(maxSpawnsPerTick, tickSpawns);
+        }
+
+        TickEvent event = new TickEvent();
+        if (event.shouldCommit()) {
+            event.tick = tick;
+            event.updateNanos = current[TickPhase.UPDATE.ordinal()];
+            event.collisionNanos = current[TickPhase.COLLISION.ordinal()];
+            event.spawnNanos = current[TickPhase.SPAWN.ordinal()];
+            event.levelUpNanos = current[TickPhase.LEVEL_UP.ordinal()];
+            event.objects = objects;
+            event.collisions = tickCollisions;
+            event.spawns = tickSpawns;
+            event.commit();
+        }
+    }
+
+    @Override
+    public synchronized MetricsSnapshot snapshot() {
+        LatencyHistogram[] copies = newHistograms();
+        if (phases != null) {
+            for (int i = 0; i < phases.length; i++) {
+                copies[i] = phases[i].copy();
+            }
+        }
+        return new MetricsSnapshot(ticks, copies, entityCounts.clone(), collisions, spawns,
+                maxCollisionsPerTick, maxSpawnsPerTick);
+    }
+
+    @Override
+    public synchronized void reset() {
+        if (phases != null) {
+            for (LatencyHistogram histogram : phases) {
+                histogram.reset();
+            }
+        }
+        Arrays.fill(entityCounts, 0);
+        ticks = 0;
+        collisions = 0;
+        spawns = 0;
+        maxCollisionsPerTick = 0;
+        maxSpawnsPerTick = 0;
+    }
+
+    private static LatencyHistogram[] newHistograms() {
+        LatencyHistogram[] histograms = new LatencyHistogram[PHASES.length];
+        for (int i = 0; i < histograms.length; i++) {
+            histograms[i] = new LatencyHistogram();
+        }
+        return histograms;
+    }
+}
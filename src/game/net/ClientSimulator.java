@@ -0,0 +1,232 @@
+package game.net;
+
+import game.GameModel;
+import game.utility.Command;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.StandardSocketOptions;
+import java.nio.ByteBuffer;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.SocketChannel;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.SplittableRandom;
+
+/**
+ * Simulates many players connected to a GameServer, for load testing over localhost.
+ *
+ * Every client runs on one selector thread. Each sends a random command at a fixed rate,
+ * and reads and checks every message it is sent, counting frames, keyframes and bytes.
+ * A client can be made deliberately slow by reading only once a second, to exercise
+ * backpressure.
+ */
+public class ClientSimulator implements AutoCloseable {
+    private static final Command[] MOVES = {Command.UP, Command.DOWN, Command.LEFT, Command.RIGHT};
+
+    private final Selector selector;
+    private final List<SimulatedClient> clients = new ArrayList<>();
+    private final SplittableRandom random;
+    private long frames;
+    private long keyframes;
+    private long bytes;
+    private long errors;
+
+    /**
+     * A connection acting as one player.
+     */
+    private static class SimulatedClient {
+        private final SocketChannel channel;
+        private final boolean slow;
+        private final ByteBuffer input = ByteBuffer.allocate(1 << 20);
+        private final ByteBuffer output = ByteBuffer.allocate(64);
+        private boolean welcomed;
+        private long nextRead;
+        private int lastTick = -1;
+
+        SimulatedClient(SocketChannel channel, boolean slow) {
+            this.channel = channel;
+            this.slow = slow;
+        }
+    }
+
+    /**
+     * Connects the given number of clients to a server.
+     *
+     * @param address The server's address.
+     * @param count The number of clients to connect.
+     * @param slowCount How many of the clients read slowly.
+     * @param seed The seed for the clients' random commands.
+     * @throws IOException If a client cannot connect.
+     */
+    public ClientSimulator(InetSocketAddress address, int count, int slowCount, long seed)
+            throws IOException {
+        this.selector = Selector.open();
+        this.random = new SplittableRandom(seed);
+        for (int i = 0; i < count; i++) {
+            boolean slow = i < slowCount;
+            SocketChannel channel = SocketChannel.open();
+            if (slow) {
+                // A small receive window makes the server's send buffer fill up quickly.
+                channel.setOption(StandardSocketOptions.SO_RCVBUF, 4096);
+            }
+            channel.connect(address);
+            channel.configureBlocking(false);
+            SimulatedClient client = new SimulatedClient(channel, slow);
+            channel.register(selector, SelectionKey.OP_READ, client);
+            clients.add(client);
+        }
+    }
+
+    /**
+     * Runs the clients for the given time.
+     *
+     * @param millis How long to run for.
+     * @param commandsPerSecond How often each client sends a command.
+     * @throws IOException If a connection fails.
+     */
+    public void run(long millis, int commandsPerSecond) throws IOException {
+        long end = System.nanoTime() + millis * 1_000_000;
+        long commandNanos = 1_000_000_000L / commandsPerSecond;
+        long nextCommand = System.nanoTime();
+        while (System.nanoTime() < end) {
+            selector.select(1);
+            Iterator<SelectionKey> keys = selector.selectedKeys().iterator();
+            while (keys.hasNext()) {
+                SelectionKey key = keys.next();
+                keys.remove();
+                SimulatedClient client = (SimulatedClient) key.attachment();
+                long now = System.nanoTime();
+                if (key.isValid() && key.isReadable() && now >= client.nextRead) {
+                    receive(client);
+                    if (client.slow) {
+                        client.nextRead = now + 1_000_000_000L;
+                    }
+                }
+            }
+            if (System.nanoTime() >= nextCommand) {
+                nextCommand += commandNanos;
+                for (SimulatedClient client : clients) {
+                    send(client);
+                }
+            }
+        }
+    }
+
+    private void send(SimulatedClient client) throws IOException {
+        // Mostly move, and fire now and then, roughly like a player.
+        Command command = random.nextInt(20) == 0 ? Command.FIRE
+                : MOVES[random.nextInt(MOVES.length)];
+        client.output.clear();
+        client.output.put((byte) command.ordinal()).flip();
+        client.channel.write(client.output);
+    }
+
+    private void receive(SimulatedClient client) throws IOException {
+        ByteBuffer input = client.input;
+        int read = client.channel.read(input);
+        if (read < 0) {
+            errors++;
+            client.channel.close();
+            return;
+        }
+        bytes += read;
+        input.flip();
+        while (input.remaining() >= Protocol.LENGTH_BYTES) {
+            int length = input.getInt(input.position());
+            if (input.remaining() < Protocol.LENGTH_BYTES + length) {
+                break;
+            }
+            int start = input.position() + Protocol.LENGTH_BYTES;
+            check(client, input.duplicate().position(start).limit(start + length));
+            input.position(start + length);
+        }
+        input.compact();
+    }
+
+    /**
+     * Checks that a message is well formed.
+     */
+    private void check(SimulatedClient client, ByteBuffer message) {
+        byte kind = message.get();
+        if (kind == Protocol.WELCOME) {
+            client.welcomed = true;
+            return;
+        }
+        if (kind != Protocol.FRAME || !client.welcomed) {
+            errors++;
+            return;
+        }
+        int tick = message.getInt();
+        boolean keyframe = message.get() == 1;
+        message.position(message.position() + 4 * 4);
+        if (tick <= client.lastTick || (!keyframe && tick != client.lastTick + 1)) {
+            errors++; // frames may only be skipped if a keyframe follows
+        }
+        client.lastTick = tick;
+        frames++;
+        if (keyframe) {
+            keyframes++;
+        }
+        while (message.hasRemaining()) {
+            byte op = message.get();
+            int skip = op == Protocol.SPAWN ? 4 + 1 + 8 : op == Protocol.MOVE ? 4 + 8
+                    : op == Protocol.REMOVE ? 4 : -1;
+            if (skip < 0 || message.remaining() < skip) {
+                errors++;
+                return;
+            }
+            message.position(message.position() + skip);
+        }
+    }
+
+    /**
+     * Disconnects every client.
+     */
+    @Override
+    public void close() throws IOException {
+        for (SimulatedClient client : clients) {
+            client.channel.close();
+        }
+        selector.close();
+    }
+
+    /**
+     * Starts a server in this process, connects simulated players to it over localhost,
+     * and prints the server's tick timings and what the clients received.
+     * Usage: ClientSimulator [clients] [slowClients] [seconds] [ticksPerSecond]
+     *
+     * @param args The optional client counts, duration and tick rate.
+     * @throws Exception If the server or a client fails.
+     */
+    public static void main(String[] args) throws Exception {
+        int count = args.length > 0 ? Integer.parseInt(args[0]) : 200;
+        int slow = args.length > 1 ? Integer.parseInt(args[1]) : 5;
+        int seconds = args.length > 2 ? Integer.parseInt(args[2]) : 10;
+        int ticksPerSecond = args.length > 3 ? Integer.parseInt(args[3]) : 30;
+
+        GameModel model = new GameModel(text -> { }, 400, 200);
+        model.setScheduledUpdates(true);
+        GameServer server = new GameServer(model, new InetSocketAddress("127.0.0.1", 0),
+                ticksPerSecond, 256 * 1024, 64 * 1024);
+        Thread serverThread = new Thread(server, "game-server");
+        long start = System.nanoTime();
+        serverThread.start();
+        try (ClientSimulator simulator = new ClientSimulator(
+                new InetSocketAddress("127.0.0.1", server.getPort()), count, slow, 1)) {
+            simulator.run(seconds * 1000L, ticksPerSecond);
+            double elapsed = (System.nanoTime() - start) / 1e9;
+            System.out.printf("clients=%d ticks=%d (%.1f/s) maxTick=%.2fms%n", count,
+                    server.getTicks(), server.getTicks() / elapsed,
+                    server.getMaxTickNanos() / 1e6);
+            System.out.printf("frames=%d keyframes=%d skipped=%d bytes/frame=%.0f errors=%d%n",
+                    simulator.frames, simulator.keyframes, server.getSkippedFrames(),
+                    simulator.bytes / (double) Math.max(1, simulator.frames), simulator.errors);
+        } finally {
+            server.close();
+            serverThread.join();
+        }
+    }
+}
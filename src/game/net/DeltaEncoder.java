@@ -0,0 +1,79 @@
+package game.net;
+
+import game.core.EntityType;
+import game.render.DeltaListener;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Encodes the changes reported by a DeltaTracker as Protocol operations in a reusable buffer.
+ * Stats and frame boundaries are ignored; the server writes them in each client's header.
+ */
+class DeltaEncoder implements DeltaListener {
+    private ByteBuffer buffer = ByteBuffer.allocate(4096);
+
+    /**
+     * Discards the operations encoded so far.
+     */
+    void clear() {
+        buffer.clear();
+    }
+
+    /**
+     * Gets the number of bytes encoded.
+     *
+     * @return The encoded size.
+     */
+    int size() {
+        return buffer.position();
+    }
+
+    /**
+     * Copies the encoded operations into the given buffer.
+     *
+     * @param out A buffer with at least size() bytes remaining.
+     */
+    void copyTo(ByteBuffer out) {
+        out.put(buffer.array(), 0, buffer.position());
+    }
+
+    @Override
+    public void beginFrame(long frame, boolean keyframe) {
+    }
+
+    @Override
+    public void spawned(int id, EntityType type, int x, int y) {
+        ensure(1 + 4 + 1 + 4 + 4);
+        buffer.put(Protocol.SPAWN).putInt(id).put(type.getId()).putInt(x).putInt(y);
+    }
+
+    @Override
+    public void moved(int id, int x, int y) {
+        ensure(1 + 4 + 4 + 4);
+        buffer.put(Protocol.MOVE).putInt(id).putInt(x).putInt(y);
+    }
+
+    @Override
+    public void removed(int id) {
+        ensure(1 + 4);
+        buffer.put(Protocol.REMOVE).putInt(id);
+    }
+
+    @Override
+    public void statChanged(String label, String value) {
+    }
+
+    @Override
+    public void endFrame() {
+    }
+
+    private void ensure(int bytes) {
+        if (buffer.remaining() < bytes) {
+            ByteBuffer larger = ByteBuffer.allocate(Math.max(buffer.capacity() * 2,
+                    buffer.position() + bytes));
+            buffer.flip();
+            larger.put(buffer);
+            buffer = larger;
+        }
+    }
+}
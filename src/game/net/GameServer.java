@@ -0,0 +1,430 @@
+package game.net;
+
+import game.GameModel;
+import game.core.Ship;
+import game.exceptions.BoundaryExceededException;
+import game.render.DeltaTracker;
+import game.utility.AsyncLogger;
+import game.utility.Command;
+import game.utility.LogLevel;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.StandardSocketOptions;
+import java.nio.ByteBuffer;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+
+/**
+ * An authoritative multiplayer server that runs one GameModel and shares it with many
+ * players over TCP.
+ *
+ * A single thread runs a non-blocking selector loop: it accepts connections, reads input
+ * commands and writes state, and steps the model at a fixed tick rate between selects, so
+ * the model is only ever touched by that thread. Each client gets its own ship. After every
+ * tick the changes are encoded once, using a DeltaTracker, and the same bytes are queued
+ * for every client behind a small per-client header (see Protocol).
+ *
+ * Each client's output is bounded twice: a fixed-size buffer, and a budget of bytes that may
+ * be written per tick. A client that cannot keep up has frames skipped rather than buffered;
+ * it is sent a keyframe once its buffer drains, and is disconnected if it stays stalled.
+ */
+public class GameServer implements Runnable, AutoCloseable {
+    /** The port used when none is given. */
+    public static final int DEFAULT_PORT = 7777;
+
+    private static final int MAX_COMMANDS_PER_TICK = 8;
+    private static final int STALL_LIMIT_SECONDS = 5;
+    private static final int MAX_CATCH_UP_TICKS = 5;
+    private static final Command[] COMMANDS = Command.values();
+
+    private final GameModel model;
+    private final int ticksPerSecond;
+    private final long tickNanos;
+    private final int outputCapacity;
+    private final int bytesPerTick;
+    private final Selector selector;
+    private final ServerSocketChannel server;
+
+    private final List<Client> clients = new ArrayList<>();
+    private final DeltaTracker tracker = new DeltaTracker();
+    private final DeltaEncoder deltas = new DeltaEncoder();
+    private final DeltaEncoder keyframe = new DeltaEncoder();
+    private int nextShipX;
+
+    private volatile boolean running = true;
+    private volatile int tick;
+    private volatile long maxTickNanos;
+    private volatile long skippedFrames;
+    private volatile long keyframesSent;
+
+    /**
+     * A connected player.
+     */
+    private static class Client {
+        private final SocketChannel channel;
+        private final SelectionKey key;
+        private final Ship ship;
+        private final ByteBuffer input = ByteBuffer.allocate(64);
+        private final ByteBuffer output; // always in fill mode between calls
+        private final byte[] commands = new byte[MAX_COMMANDS_PER_TICK];
+        private int commandCount;
+        private boolean needsKeyframe = true;
+        private int stalledTicks;
+        private long credit;
+
+        Client(SocketChannel channel, SelectionKey key, Ship ship, int outputCapacity) {
+            this.channel = channel;
+            this.key = key;
+            this.ship = ship;
+            this.output = ByteBuffer.allocateDirect(outputCapacity);
+        }
+    }
+
+    /**
+     * Constructs a GameServer listening on the given address. The server does nothing until
+     * run() is called. Any ships already in the model, including the default one, are
+     * removed, so only connected players have ships.
+     *
+     * @param model The world to host, which must not be used by any other thread.
+     * @param address The address to listen on. Port 0 picks a free port.
+     * @param ticksPerSecond The fixed simulation rate.
+     * @param outputCapacity The most bytes that may be queued for a client. Must be larger
+     *                       than a keyframe of the whole world, or clients will stall.
+     * @param bytesPerTick The most bytes written to a client per tick.
+     * @throws IOException If the server socket cannot be opened.
+     */
+    public GameServer(GameModel model, InetSocketAddress address, int ticksPerSecond,
+                      int outputCapacity, int bytesPerTick) throws IOException {
+        this.model = model;
+        this.ticksPerSecond = ticksPerSecond;
+        this.tickNanos = 1_000_000_000L / ticksPerSecond;
+        this.outputCapacity = outputCapacity;
+        this.bytesPerTick = bytesPerTick;
+        for (Ship ship : new ArrayList<>(model.getShips())) {
+            model.removeShip(ship);
+        }
+        model.setEntityListener(tracker);
+        this.selector = Selector.open();
+        this.server = ServerSocketChannel.open();
+        server.configureBlocking(false);
+        server.bind(address);
+        server.register(selector, SelectionKey.OP_ACCEPT);
+    }
+
+    /**
+     * Gets the port the server is listening on.
+     *
+     * @return The local port.
+     * @throws IOException If the port cannot be read.
+     */
+    public int getPort() throws IOException {
+        return ((InetSocketAddress) server.getLocalAddress()).getPort();
+    }
+
+    /**
+     * Gets the number of ticks run.
+     *
+     * @return The tick count.
+     */
+    public int getTicks() {
+        return tick;
+    }
+
+    /**
+     * Gets the longest time taken by a tick, including encoding and queueing the frame.
+     *
+     * @return The longest tick in nanoseconds.
+     */
+    public long getMaxTickNanos() {
+        return maxTickNanos;
+    }
+
+    /**
+     * Gets the number of frames not sent to slow clients, summed over all clients.
+     *
+     * @return The skipped frame count.
+     */
+    public long getSkippedFrames() {
+        return skippedFrames;
+    }
+
+    /**
+     * Gets the number of keyframes sent to new or resynchronising clients.
+     *
+     * @return The keyframe count.
+     */
+    public long getKeyframesSent() {
+        return keyframesSent;
+    }
+
+    /**
+     * Runs the server on the calling thread until close() is called.
+     */
+    @Override
+    public void run() {
+        long nextTick = System.nanoTime();
+        try {
+            while (running) {
+                long wait = nextTick - System.nanoTime();
+                if (wait > 1_000_000) {
+                    selector.select(wait / 1_000_000);
+                } else {
+                    selector.selectNow();
+                }
+                handleSelected();
+
+                long now = System.nanoTime();
+                if (now >= nextTick) {
+                    step();
+                    maxTickNanos = Math.max(maxTickNanos, System.nanoTime() - now);
+                    nextTick += tickNanos;
+                    if (now - nextTick > MAX_CATCH_UP_TICKS * tickNanos) {
+                        nextTick = now; // too far behind to catch up; keep the rate instead
+                    }
+                }
+            }
+        } catch (IOException e) {
+            throw new IllegalStateException("Game server failed", e);
+        } finally {
+            for (Client client : new ArrayList<>(clients)) {
+                disconnect(client);
+            }
+            try {
+                server.close();
+                selector.close();
+            } catch (IOException e) {
+                // Already shutting down.
+            }
+        }
+    }
+
+    /**
+     * Stops the server. The thread running run() disconnects every client and returns.
+     */
+    @Override
+    public void close() {
+        running = false;
+        selector.wakeup();
+    }
+
+    private void handleSelected() throws IOException {
+        Iterator<SelectionKey> keys = selector.selectedKeys().iterator();
+        while (keys.hasNext()) {
+            SelectionKey key = keys.next();
+            keys.remove();
+            if (!key.isValid()) {
+                continue;
+            }
+            if (key.isAcceptable()) {
+                accept();
+                continue;
+            }
+            Client client = (Client) key.attachment();
+            try {
+                if (key.isReadable()) {
+                    read(client);
+                }
+                if (key.isValid() && key.isWritable()) {
+                    flush(client);
+                }
+            } catch (IOException e) {
+                disconnect(client);
+            }
+        }
+    }
+
+    private void accept() throws IOException {
+        SocketChannel channel = server.accept();
+        if (channel == null) {
+            return;
+        }
+        channel.configureBlocking(false);
+        channel.setOption(StandardSocketOptions.TCP_NODELAY, true);
+        SelectionKey key = channel.register(selector, SelectionKey.OP_READ);
+        Ship ship = model.addShip(nextShipX++ % model.getWidth(), model.getHeight() / 2);
+        Client client = new Client(channel, key, ship, outputCapacity);
+        key.attach(client);
+        clients.add(client);
+
+        client.output.putInt(Protocol.WELCOME_BYTES).put(Protocol.WELCOME)
+                .putInt(model.getWidth()).putInt(model.getHeight()).putInt(ticksPerSecond);
+    }
+
+    private void read(Client client) throws IOException {
+        int read = client.channel.read(client.input);
+        if (read < 0) {
+            disconnect(client);
+            return;
+        }
+        ByteBuffer input = client.input;
+        input.flip();
+        while (input.hasRemaining()) {
+            byte command = input.get();
+            if (command < 0 || command >= COMMANDS.length || COMMANDS[command] == Command.PAUSE) {
+                disconnect(client); // not a valid game command, so not a game client
+                return;
+            }
+            // Commands beyond the per-tick limit are dropped, so flooding gains nothing.
+            if (client.commandCount < MAX_COMMANDS_PER_TICK) {
+                client.commands[client.commandCount++] = command;
+            }
+        }
+        input.clear();
+    }
+
+    /**
+     * Applies every client's input, advances the model by one tick and queues the changes.
+     */
+    private void step() {
+        int current = tick;
+        for (int i = 0; i < clients.size(); i++) {
+            Client client = clients.get(i);
+            for (int c = 0; c < client.commandCount; c++) {
+                apply(client.ship, COMMANDS[client.commands[c]]);
+            }
+            client.commandCount = 0;
+        }
+        model.updateGame(current);
+        model.checkCollisions();
+        model.spawnObjects();
+        model.levelUp();
+        broadcast(current);
+        tick = current + 1;
+    }
+
+    private void apply(Ship ship, Command command) {
+        if (command == Command.FIRE) {
+            model.fireBullet(ship);
+        } else if (command.getDirection() != null) {
+            try {
+                ship.move(command.getDirection());
+            } catch (BoundaryExceededException e) {
+                // Moving off the board has no effect.
+            }
+        }
+    }
+
+    private void broadcast(int current) {
+        // The model reports spawns, moves and removals to the tracker as they happen; only the
+        // ships, which it does not see move, need checking.
+        List<Ship> ships = model.getShips();
+        for (int i = 0; i < ships.size(); i++) {
+            tracker.moved(ships.get(i));
+        }
+        deltas.clear();
+        tracker.flush(false, deltas);
+        boolean keyframeEncoded = false;
+
+        for (int i = clients.size() - 1; i >= 0; i--) {
+            Client client = clients.get(i);
+            client.credit = Math.min(client.credit + bytesPerTick, 2L * bytesPerTick);
+            DeltaEncoder operations = deltas;
+            if (client.needsKeyframe) {
+                if (!keyframeEncoded) {
+                    keyframe.clear();
+                    tracker.report(keyframe);
+                    keyframeEncoded = true;
+                }
+                operations = keyframe;
+            }
+            int size = Protocol.LENGTH_BYTES + Protocol.FRAME_HEADER_BYTES + operations.size();
+            if (client.output.remaining() < size) {
+                // The client is behind; skip this frame and resynchronise once it catches up.
+                client.needsKeyframe = true;
+                skippedFrames++;
+                if (++client.stalledTicks > STALL_LIMIT_SECONDS * ticksPerSecond) {
+                    disconnect(client);
+                    continue;
+                }
+            } else {
+                writeFrame(client, current, operations);
+                if (operations == keyframe) {
+                    keyframesSent++;
+                }
+                client.needsKeyframe = false;
+                client.stalledTicks = 0;
+            }
+            try {
+                flush(client);
+            } catch (IOException e) {
+                disconnect(client);
+            }
+        }
+    }
+
+    private void writeFrame(Client client, int current, DeltaEncoder operations) {
+        Ship ship = client.ship;
+        client.output.putInt(Protocol.FRAME_HEADER_BYTES + operations.size())
+                .put(Protocol.FRAME)
+                .putInt(current)
+                .put((byte) (operations == keyframe ? 1 : 0))
+                .putInt(tracker.idOf(ship))
+                .putInt(ship.getScore())
+                .putInt(ship.getHealth())
+                .putInt(model.getLevel());
+        operations.copyTo(client.output);
+    }
+
+    /**
+     * Writes as much queued output as the client's socket and remaining budget allow, and
+     * asks to be told when the socket is writable only if there is output and budget left.
+     */
+    private void flush(Client client) throws IOException {
+        ByteBuffer output = client.output;
+        if (output.position() > 0 && client.credit > 0) {
+            output.flip();
+            int limit = output.limit();
+            output.limit((int) Math.min(limit, client.credit));
+            int written = client.channel.write(output);
+            output.limit(limit);
+            output.compact();
+            client.credit -= written;
+        }
+        boolean wantsWrite = output.position() > 0 && client.credit > 0;
+        int ops = wantsWrite ? SelectionKey.OP_READ | SelectionKey.OP_WRITE : SelectionKey.OP_READ;
+        if (client.key.isValid() && client.key.interestOps() != ops) {
+            client.key.interestOps(ops);
+        }
+    }
+
+    private void disconnect(Client client) {
+        if (!clients.remove(client)) {
+            return;
+        }
+        model.removeShip(client.ship);
+        client.key.cancel();
+        try {
+            client.channel.close();
+        } catch (IOException e) {
+            // The connection is being dropped anyway.
+        }
+    }
+
+    /**
+     * Runs a server until the process is stopped.
+     * Usage: GameServer [port] [ticksPerSecond] [width] [height]
+     *
+     * @param args The optional port, tick rate and world size.
+     * @throws IOException If the server socket cannot be opened.
+     */
+    public static void main(String[] args) throws IOException {
+        int port = args.length > 0 ? Integer.parseInt(args[0]) : DEFAULT_PORT;
+        int ticksPerSecond = args.length > 1 ? Integer.parseInt(args[1]) : 30;
+        int width = args.length > 2 ? Integer.parseInt(args[2]) : 200;
+        int height = args.length > 3 ? Integer.parseInt(args[3]) : 100;
+        GameModel model = new GameModel(new AsyncLogger(System.out::println, LogLevel.WARN,
+                1024), width, height);
+        model.setScheduledUpdates(true);
+        try (GameServer server = new GameServer(model, new InetSocketAddress(port),
+                ticksPerSecond, 256 * 1024, 16 * 1024)) {
+            System.out.println("Game server listening on port " + server.getPort());
+            server.run();
+        }
+    }
+}
@@ -0,0 +1,40 @@
+package game.net;
+
+/**
+ * Constants for the binary protocol spoken by GameServer. All values are big-endian.
+ *
+ * Clients send single bytes, each the ordinal of a movement or FIRE Command.
+ *
+ * The server sends length-prefixed messages: an int giving the number of bytes that follow,
+ * then a one-byte message kind.
+ * A WELCOME message holds the world width, height and the server's ticks per second as ints.
+ * A FRAME message holds the tick (int), a keyframe flag (byte), the id of the client's own
+ * ship (int), its score (int) and health (int), and the level (int), followed by operations
+ * until the end of the message. Each operation starts with an opcode byte:
+ * SPAWN is followed by an id (int), an EntityType id (byte) and x and y (ints);
+ * MOVE by an id (int) and x and y (ints); and REMOVE by an id (int).
+ * A keyframe holds a SPAWN for every entity and replaces whatever the client held before.
+ */
+public class Protocol {
+    /** Message kind of the first message sent to each client. */
+    public static final byte WELCOME = 1;
+    /** Message kind of the state sent after every tick. */
+    public static final byte FRAME = 2;
+
+    /** Operation adding an entity. */
+    public static final byte SPAWN = 1;
+    /** Operation moving an entity. */
+    public static final byte MOVE = 2;
+    /** Operation removing an entity. */
+    public static final byte REMOVE = 3;
+
+    /** Bytes in the length prefix of every message. */
+    public static final int LENGTH_BYTES = 4;
+    /** Bytes in a WELCOME message after the length prefix. */
+    public static final int WELCOME_BYTES = 1 + 3 * 4;
+    /** Bytes in a FRAME header after the length prefix, before the operations. */
+    public static final int FRAME_HEADER_BYTES = 1 + 4 + 1 + 4 * 4;
+
+    private Protocol() {
+    }
+}
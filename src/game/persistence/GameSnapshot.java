@@ -0,0 +1,250 @@
+package game.persistence;
+
+import game.GameModel;
+import game.core.Asteroid;
+import game.core.Bullet;
+import game.core.Enemy;
+import game.core.EntityType;
+import game.core.FixedPoint;
+import game.core.HealthPowerUp;
+import game.core.ObjectWithPosition;
+import game.core.ShieldPowerUp;
+import game.core.Ship;
+import game.core.SpaceObject;
+import game.spawn.ClassicSpawnDirector;
+import game.spawn.SpawnDirector;
+import game.spawn.StreamSpawnDirector;
+
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Saves and loads the full state of a GameModel in a compact, versioned binary format.
+ *
+ * A snapshot holds a header (magic number and format version), the level, spawn rate, bullet
+ * speed, the kind of spawn director and its random state, every ship's position, health and
+ * score, then every space object as a type id, fixed-point position and velocity, so objects
+ * resume exactly where they were within their cells. Saves are encoded into a reused direct buffer and written through a FileChannel
+ * to a temporary file that replaces the target atomically. Large snapshots are memory-mapped
+ * when loaded rather than copied onto the heap. A director's state only means something to a
+ * director of the same kind, so a snapshot can only be loaded into a model with the same kind of
+ * director as the one it was saved from.
+ *
+ * An instance reuses its buffer between saves, so it should only be used by one thread.
+ */
+public class GameSnapshot {
+    private static final int MAGIC = 0x53475356; // "SGSV"
+    private static final short VERSION = 4;
+    private static final int HEADER_BYTES = 4 + 2 + 4 + 4 + 4 + 1 + 8 + 4 + 4;
+    private static final int SHIP_BYTES = 4 * 4;
+    private static final int OBJECT_BYTES = 1 + 4 * 4;
+    private static final long MAP_THRESHOLD = 1 << 20;
+    /** Tags for the kinds of spawn director whose state a snapshot can hold. */
+    private static final byte CLASSIC_DIRECTOR = 1;
+    private static final byte STREAM_DIRECTOR = 2;
+
+    private ByteBuffer buffer = ByteBuffer.allocateDirect(4096);
+
+    /**
+     * Returns the number of bytes needed to encode the given model.
+     *
+     * @param model The model to measure.
+     * @return The encoded size in bytes.
+     */
+    public static int encodedSize(GameModel model) {
+        return HEADER_BYTES + SHIP_BYTES * model.getShips().size()
+                + OBJECT_BYTES * model.getObjectCount();
+    }
+
+    /**
+     * Encodes the model's state into the buffer at its current position.
+     *
+     * @param model The model to encode.
+     * @param out The buffer to write to, with at least encodedSize(model) bytes remaining.
+     * @throws IllegalArgumentException If the model's spawn director is not a kind snapshots
+     *                                  can hold.
+     */
+    public static void write(GameModel model, ByteBuffer out) {
+        byte director = directorKind(model.getSpawnDirector());
+        List<Ship> ships = model.getShips();
+        List<SpaceObject> objects = model.getSpaceObjects();
+        out.putInt(MAGIC);
+        out.putShort(VERSION);
+        out.putInt(model.getLevel());
+        out.putInt(model.getSpawnRate());
+        out.putInt(model.getBulletSpeed());
+        out.put(director);
+        out.putLong(model.getRandomState());
+        int shipCount = ships.size();
+        out.putInt(shipCount);
+        for (int i = 0; i < shipCount; i++) {
+            Ship ship = ships.get(i);
+            out.putInt(ship.getX());
+            out.putInt(ship.getY());
+            out.putInt(ship.getHealth());
+            out.putInt(ship.getScore());
+        }
+        int size = objects.size();
+        out.putInt(size);
+        for (int i = 0; i < size; i++) {
+            SpaceObject object = objects.get(i);
+            out.put(object.getType().getId());
+            out.putInt(object.getFixedX());
+            out.putInt(object.getFixedY());
+            out.putInt(object.getVelocityX());
+            out.putInt(object.getVelocityY());
+        }
+    }
+
+    /**
+     * Decodes a snapshot from the buffer at its current position and restores it into the model.
+     *
+     * @param in The buffer to read from.
+     * @param model The model to restore the state into.
+     * @throws IllegalArgumentException If the buffer does not hold a valid snapshot, or it was
+     *                                  saved with a different kind of spawn director.
+     */
+    public static void read(ByteBuffer in, GameModel model) {
+        try {
+            if (in.getInt() != MAGIC) {
+                throw new IllegalArgumentException("Not a game snapshot");
+            }
+            short version = in.getShort();
+            if (version != VERSION) {
+                throw new IllegalArgumentException("Unsupported snapshot version: " + version);
+            }
+            int level = in.getInt();
+            int spawnRate = in.getInt();
+            int bulletSpeed = in.getInt();
+            byte director = in.get();
+            if (director != directorKind(model.getSpawnDirector())) {
+                throw new IllegalArgumentException("Snapshot was saved with a different kind of"
+                        + " spawn director: " + director);
+            }
+            long randomState = in.getLong();
+            int shipCount = in.getInt();
+            if (shipCount < 0 || (long) shipCount * SHIP_BYTES > in.remaining()) {
+                throw new IllegalArgumentException("Corrupt ship count: " + shipCount);
+            }
+            List<Ship> ships = new ArrayList<>(shipCount);
+            for (int i = 0; i < shipCount; i++) {
+                int shipX = in.getInt();
+                int shipY = in.getInt();
+                Ship ship = new Ship(shipX, shipY, in.getInt());
+                ship.addScore(in.getInt());
+                ships.add(ship);
+            }
+            int size = in.getInt();
+            if (size < 0 || (long) size * OBJECT_BYTES > in.remaining()) {
+                throw new IllegalArgumentException("Corrupt object count: " + size);
+            }
+            List<SpaceObject> objects = new ArrayList<>(size);
+            for (int i = 0; i < size; i++) {
+                byte type = in.get();
+                int fixedX = in.getInt();
+                int fixedY = in.getInt();
+                ObjectWithPosition object = create(type,
+                        FixedPoint.toCell(fixedX), FixedPoint.toCell(fixedY));
+                object.setFixedPosition(fixedX, fixedY);
+                object.setVelocity(in.getInt(), in.getInt());
+                objects.add(object);
+            }
+            model.restore(ships, level, spawnRate, randomState, objects);
+            model.setBulletSpeed(bulletSpeed);
+        } catch (BufferUnderflowException e) {
+            throw new IllegalArgumentException("Truncated game snapshot", e);
+        }
+    }
+
+    /**
+     * Saves the model's state to a file, replacing it atomically if it exists.
+     *
+     * @param model The model to save.
+     * @param path The file to write.
+     * @throws IOException If the file cannot be written.
+     * @throws IllegalArgumentException If the model's spawn director is not a kind snapshots
+     *                                  can hold.
+     */
+    public void save(GameModel model, Path path) throws IOException {
+        int size = encodedSize(model);
+        if (buffer.capacity() < size) {
+            buffer = ByteBuffer.allocateDirect(Math.max(size, buffer.capacity() * 2));
+        }
+        buffer.clear();
+        write(model, buffer);
+        buffer.flip();
+
+        Path temp = path.resolveSibling(path.getFileName() + ".tmp");
+        try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+        }
+        Files.move(temp, path, StandardCopyOption.REPLACE_EXISTING,
+                StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    /**
+     * Loads a saved state from a file into the model, replacing its current state.
+     * Files of 1 MiB or more are memory-mapped; smaller files are read in a single pass.
+     *
+     * @param path The file written by save().
+     * @param model The model to restore the state into.
+     * @throws IOException If the file cannot be read.
+     * @throws IllegalArgumentException If the file does not hold a valid snapshot, or it was
+     *                                  saved with a different kind of spawn director.
+     */
+    public static void load(Path path, GameModel model) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            long size = channel.size();
+            ByteBuffer in;
+            if (size >= MAP_THRESHOLD) {
+                in = channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+            } else {
+                in = ByteBuffer.allocate((int) size);
+                while (in.hasRemaining() && channel.read(in) >= 0) {
+                    // keep reading until the buffer is full or the file ends
+                }
+                in.flip();
+            }
+            read(in, model);
+        }
+    }
+
+    private static byte directorKind(SpawnDirector director) {
+        if (director.getClass() == ClassicSpawnDirector.class) {
+            return CLASSIC_DIRECTOR;
+        }
+        if (director.getClass() == StreamSpawnDirector.class) {
+            return STREAM_DIRECTOR;
+        }
+        throw new IllegalArgumentException("Cannot save the state of a "
+                + director.getClass().getName());
+    }
+
+    private static ObjectWithPosition create(byte id, int x, int y) {
+        switch (EntityType.fromId(id)) {
+            case ASTEROID:
+                return new Asteroid(x, y);
+            case ENEMY:
+                return new Enemy(x, y);
+            case BULLET:
+                return new Bullet(x, y);
+            case HEALTH_POWER_UP:
+                return new HealthPowerUp(x, y);
+            case SHIELD_POWER_UP:
+                return new ShieldPowerUp(x, y);
+            default:
+                throw new IllegalArgumentException("Unexpected object type in snapshot: " + id);
+        }
+    }
+}
@@ -0,0 +1,59 @@
+package game.render;
+
+import game.core.EntityType;
+
+/**
+ * Receives the changes between rendered frames, as an alternative to UI.render().
+ * Each frame is delivered as beginFrame(), then any number of entity and stat changes,
+ * then endFrame(). A keyframe describes the whole scene: every entity is reported as spawned
+ * and every stat as changed, and the client should discard anything it held before.
+ */
+public interface DeltaListener {
+
+    /**
+     * Starts a frame.
+     *
+     * @param frame The number of the frame, increasing by one each time the game is rendered.
+     * @param keyframe Whether this frame describes the whole scene rather than changes.
+     */
+    void beginFrame(long frame, boolean keyframe);
+
+    /**
+     * Reports an entity that was not in the previous frame.
+     *
+     * @param id The id of the entity, stable for as long as it stays in the game.
+     * @param type The type of the entity.
+     * @param x The x-coordinate of the entity.
+     * @param y The y-coordinate of the entity.
+     */
+    void spawned(int id, EntityType type, int x, int y);
+
+    /**
+     * Reports an entity whose position changed since the previous frame.
+     *
+     * @param id The id of the entity.
+     * @param x The new x-coordinate of the entity.
+     * @param y The new y-coordinate of the entity.
+     */
+    void moved(int id, int x, int y);
+
+    /**
+     * Reports an entity that has left the game since the previous frame.
+     *
+     * @param id The id of the entity.
+     */
+    void removed(int id);
+
+    /**
+     * Reports a stat whose value changed since the previous frame.
+     *
+     * @param label The name of the stat.
+     * @param value The new value of the stat.
+     */
+    void statChanged(String label, String value);
+
+    /**
+     * Ends the current frame.
+     */
+    void endFrame();
+}
@@ -0,0 +1,327 @@
+package game.render;
+
+import game.core.EntityListener;
+import game.core.EntityType;
+import game.core.SpaceObject;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Tracks the entities sent in previous frames and reports only what changed to a DeltaListener.
+ * Entities are followed by their entity id (see SpaceObject.getEntityId()), which is also the id
+ * reported to the listener, so an entity keeps its id across FrameSnapshots and forks even though
+ * each holds its own copy of the object. A pooled object gets a new id each time it is reused,
+ * so it is reported as removed and a new entity spawned rather than as moving.
+ *
+ * Changes can be found in one of two ways. diff() compares every object in a frame with what
+ * was sent before, which works for any list of objects, such as a FrameSnapshot read on another
+ * thread. Alternatively, a tracker set as a GameModel's EntityListener is told of each change as
+ * it happens, and flush() sends only those, so a frame costs time in proportion to what changed
+ * rather than to the number of objects. The two should not be mixed without a reset() between.
+ */
+public class DeltaTracker implements EntityListener {
+    private static final int EMPTY = -1;
+    private static final byte UNCHANGED = 0;
+    private static final byte SPAWNED = 1;
+    private static final byte MOVED = 2;
+
+    /** Open-addressed table from entity id to entry. */
+    private int[] keys = new int[64];
+    private Entry[] entries = new Entry[64];
+    private int size;
+    private int[] stale = new int[16]; // scratch ids of entries to remove, reused by diff()
+    private long frame;
+    /** Ids of entries spawned or moved since the last flush(), possibly more than once. */
+    private int[] changed = new int[16];
+    private int changedCount;
+    /** Ids of sent entities removed since the last flush(). */
+    private int[] removed = new int[16];
+    private int removedCount;
+
+    /**
+     * The last sent state of a tracked entity.
+     */
+    private static class Entry {
+        private final int id;
+        private final EntityType type;
+        private int x;
+        private int y;
+        private long seen;
+        private byte change;
+
+        Entry(int id, EntityType type, int x, int y) {
+            this.id = id;
+            this.type = type;
+            this.x = x;
+            this.y = y;
+        }
+    }
+
+    /**
+     * Constructs an empty DeltaTracker.
+     */
+    public DeltaTracker() {
+        Arrays.fill(keys, EMPTY);
+    }
+
+    /**
+     * Reports the spawned, moved and removed entities since the previous call.
+     * When keyframe is true every entity is reported as spawned instead. The caller is
+     * responsible for starting and ending the frame on the listener.
+     *
+     * @param objects Every object in the current frame, each with a different entity id.
+     * @param keyframe Whether to report the whole scene rather than changes.
+     * @param listener Receives the changes.
+     */
+    public void diff(List<? extends SpaceObject> objects, boolean keyframe,
+                     DeltaListener listener) {
+        frame++;
+        int count = objects.size();
+        for (int i = 0; i < count; i++) {
+            SpaceObject object = objects.get(i);
+            int id = object.getEntityId();
+            int x = object.getX();
+            int y = object.getY();
+            Entry entry = get(id);
+            if (entry == null) {
+                entry = new Entry(id, object.getType(), x, y);
+                put(entry);
+                listener.spawned(id, entry.type, x, y);
+            } else if (keyframe) {
+                entry.x = x;
+                entry.y = y;
+                listener.spawned(id, entry.type, x, y);
+            } else if (entry.x != x || entry.y != y) {
+                entry.x = x;
+                entry.y = y;
+                listener.moved(id, x, y);
+            }
+            entry.seen = frame;
+        }
+
+        if (size == count) {
+            return;
+        }
+        int staleCount = 0;
+        for (Entry entry : entries) {
+            if (entry != null && entry.seen != frame) {
+                if (staleCount == stale.length) {
+                    stale = Arrays.copyOf(stale, staleCount * 2);
+                }
+                stale[staleCount++] = entry.id;
+            }
+        }
+        for (int i = 0; i < staleCount; i++) {
+            remove(stale[i]);
+            if (!keyframe) {
+                listener.removed(stale[i]);
+            }
+        }
+    }
+
+    /**
+     * Records an entity added to the game, to be reported as spawned by the next flush().
+     *
+     * @param object The new object.
+     */
+    @Override
+    public void spawned(SpaceObject object) {
+        int id = object.getEntityId();
+        if (get(id) != null) {
+            moved(object); // already tracked, so at most its position is news
+            return;
+        }
+        Entry entry = new Entry(id, object.getType(), object.getX(), object.getY());
+        put(entry);
+        markChanged(entry, SPAWNED);
+    }
+
+    /**
+     * Records an entity's new position, to be reported by the next flush().
+     *
+     * @param object The object that moved.
+     */
+    @Override
+    public void moved(SpaceObject object) {
+        Entry entry = get(object.getEntityId());
+        if (entry == null || (entry.x == object.getX() && entry.y == object.getY())) {
+            return;
+        }
+        entry.x = object.getX();
+        entry.y = object.getY();
+        markChanged(entry, entry.change == SPAWNED ? SPAWNED : MOVED);
+    }
+
+    /**
+     * Records an entity leaving the game, to be reported as removed by the next flush() unless
+     * it was never sent.
+     *
+     * @param object The object that was removed.
+     */
+    @Override
+    public void removed(SpaceObject object) {
+        int id = object.getEntityId();
+        Entry entry = get(id);
+        if (entry == null) {
+            return;
+        }
+        remove(id);
+        if (entry.change != SPAWNED) {
+            if (removedCount == removed.length) {
+                removed = Arrays.copyOf(removed, removedCount * 2);
+            }
+            removed[removedCount++] = id;
+        }
+    }
+
+    private void markChanged(Entry entry, byte change) {
+        if (entry.change == UNCHANGED) {
+            if (changedCount == changed.length) {
+                changed = Arrays.copyOf(changed, changedCount * 2);
+            }
+            changed[changedCount++] = entry.id;
+        }
+        entry.change = change;
+    }
+
+    /**
+     * Reports the changes recorded through the EntityListener methods since the previous call:
+     * removals first, then spawns and moves, each entity at most once. When keyframe is true
+     * every tracked entity is reported as spawned instead. The caller is responsible for
+     * starting and ending the frame on the listener.
+     *
+     * @param keyframe Whether to report the whole scene rather than changes.
+     * @param listener Receives the changes.
+     */
+    public void flush(boolean keyframe, DeltaListener listener) {
+        if (keyframe) {
+            for (Entry entry : entries) {
+                if (entry != null) {
+                    entry.change = UNCHANGED;
+                    listener.spawned(entry.id, entry.type, entry.x, entry.y);
+                }
+            }
+        } else {
+            for (int i = 0; i < removedCount; i++) {
+                listener.removed(removed[i]);
+            }
+            for (int i = 0; i < changedCount; i++) {
+                Entry entry = get(changed[i]);
+                if (entry == null || entry.change == UNCHANGED) {
+                    continue; // removed again, or already reported
+                }
+                if (entry.change == SPAWNED) {
+                    listener.spawned(entry.id, entry.type, entry.x, entry.y);
+                } else {
+                    listener.moved(entry.id, entry.x, entry.y);
+                }
+                entry.change = UNCHANGED;
+            }
+        }
+        changedCount = 0;
+        removedCount = 0;
+    }
+
+    /**
+     * Reports every tracked entity as spawned at its last reported position, without changing
+     * what is tracked. Lets a new or resynchronising receiver catch up on the scene while
+     * others keep receiving changes.
+     *
+     * @param listener Receives a spawn for each tracked entity.
+     */
+    public void report(DeltaListener listener) {
+        for (Entry entry : entries) {
+            if (entry != null) {
+                listener.spawned(entry.id, entry.type, entry.x, entry.y);
+            }
+        }
+    }
+
+    /**
+     * Gets the id an object is reported under.
+     *
+     * @param object An object passed to diff().
+     * @return The object's entity id, or -1 if it is not tracked.
+     */
+    public int idOf(SpaceObject object) {
+        return get(object.getEntityId()) == null ? -1 : object.getEntityId();
+    }
+
+    /**
+     * Forgets every tracked entity, so the next diff reports everything as spawned.
+     */
+    public void reset() {
+        Arrays.fill(keys, EMPTY);
+        Arrays.fill(entries, null);
+        size = 0;
+        changedCount = 0;
+        removedCount = 0;
+    }
+
+    private static int hash(int id) {
+        int hash = id * 0x9E3779B9;
+        return hash ^ (hash >>> 16);
+    }
+
+    private int slotOf(int id) {
+        int mask = keys.length - 1;
+        int slot = hash(id) & mask;
+        while (keys[slot] != EMPTY && keys[slot] != id) {
+            slot = (slot + 1) & mask;
+        }
+        return slot;
+    }
+
+    private Entry get(int id) {
+        return entries[slotOf(id)];
+    }
+
+    private void put(Entry entry) {
+        if ((size + 1) * 2 > keys.length) {
+            int[] oldKeys = keys;
+            Entry[] oldEntries = entries;
+            keys = new int[oldKeys.length * 2];
+            entries = new Entry[oldKeys.length * 2];
+            Arrays.fill(keys, EMPTY);
+            for (Entry old : oldEntries) {
+                if (old != null) {
+                    int slot = slotOf(old.id);
+                    keys[slot] = old.id;
+                    entries[slot] = old;
+                }
+            }
+        }
+        int slot = slotOf(entry.id);
+        keys[slot] = entry.id;
+        entries[slot] = entry;
+        size++;
+    }
+
+    /**
+     * Removes an entry, shifting later entries of the same probe run back so lookups never
+     * need tombstones.
+     */
+    private void remove(int id) {
+        int mask = keys.length - 1;
+        int slot = slotOf(id);
+        if (keys[slot] == EMPTY) {
+            return;
+        }
+        keys[slot] = EMPTY;
+        entries[slot] = null;
+        size--;
+        int next = (slot + 1) & mask;
+        while (keys[next] != EMPTY) {
+            int ideal = hash(keys[next]) & mask;
+            if (((next - ideal) & mask) >= ((next - slot) & mask)) {
+                keys[slot] = keys[next];
+                entries[slot] = entries[next];
+                keys[next] = EMPTY;
+                entries[next] = null;
+                slot = next;
+            }
+            next = (next + 1) & mask;
+        }
+    }
+}
@@ -0,0 +1,237 @@
+package game.render;
+
+import game.core.EntityType;
+import game.core.GraphicRegistry;
+import game.core.Ship;
+import game.core.SpaceObject;
+import game.ui.ObjectGraphic;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * An immutable copy of the game state at the end of a tick, for reading from other threads.
+ *
+ * A snapshot copies the first ship's stats and every object's entity id, type and position,
+ * including every ship's, into its own primitive arrays, so it never changes after it is
+ * published and can be read without locks while the next tick runs. Entity ids are kept, so an
+ * object can be followed from one snapshot to the next. Snapshots are numbered by a version that
+ * increases by one with each published frame.
+ */
+public class FrameSnapshot {
+    private final long version;
+    private final int tick;
+    private final int score;
+    private final int health;
+    private final int level;
+    private final int count;
+    private final int[] ids;
+    private final byte[] types;
+    private final int[] xs;
+    private final int[] ys;
+    private volatile List<SpaceObject> objects;
+
+    /**
+     * Copies the given state into a new snapshot. The ships are stored after the other objects.
+     *
+     * @param version The version of this frame.
+     * @param tick The tick the frame was taken after.
+     * @param level The game level.
+     * @param spaceObjects The objects in the game other than the ships.
+     * @param ships The ships; the score and health are those of the first, or 0 if there are none.
+     */
+    public FrameSnapshot(long version, int tick, int level,
+                         List<? extends SpaceObject> spaceObjects, List<Ship> ships) {
+        int size = spaceObjects.size();
+        this.version = version;
+        this.tick = tick;
+        this.level = level;
+        this.health = ships.isEmpty() ? 0 : ships.get(0).getHealth();
+        this.score = ships.isEmpty() ? 0 : ships.get(0).getScore();
+        this.count = size + ships.size();
+        this.ids = new int[count];
+        this.types = new byte[count];
+        this.xs = new int[count];
+        this.ys = new int[count];
+        for (int i = 0; i < size; i++) {
+            copy(i, spaceObjects.get(i));
+        }
+        for (int i = 0; i < ships.size(); i++) {
+            copy(size + i, ships.get(i));
+        }
+    }
+
+    private void copy(int index, SpaceObject object) {
+        ids[index] = object.getEntityId();
+        types[index] = (byte) object.getTypeId();
+        xs[index] = object.getX();
+        ys[index] = object.getY();
+    }
+
+    /**
+     * Gets the version of this frame.
+     *
+     * @return The number of frames published before this one.
+     */
+    public long getVersion() {
+        return version;
+    }
+
+    /**
+     * Gets the tick this frame was taken after.
+     *
+     * @return The tick.
+     */
+    public int getTick() {
+        return tick;
+    }
+
+    /**
+     * Gets the first ship's score.
+     *
+     * @return The score, or 0 if there were no ships.
+     */
+    public int getScore() {
+        return score;
+    }
+
+    /**
+     * Gets the first ship's health.
+     *
+     * @return The health, or 0 if there were no ships.
+     */
+    public int getHealth() {
+        return health;
+    }
+
+    /**
+     * Gets the game level.
+     *
+     * @return The level.
+     */
+    public int getLevel() {
+        return level;
+    }
+
+    /**
+     * Gets the number of objects in the frame, including the ships.
+     *
+     * @return The object count.
+     */
+    public int getObjectCount() {
+        return count;
+    }
+
+    /**
+     * Gets the entity id of an object.
+     *
+     * @param index An index below getObjectCount().
+     * @return The object's entity id.
+     */
+    public int getEntityId(int index) {
+        return ids[index];
+    }
+
+    /**
+     * Gets the type of an object.
+     *
+     * @param index An index below getObjectCount().
+     * @return The object's type.
+     */
+    public EntityType getType(int index) {
+        return EntityType.fromId(types[index]);
+    }
+
+    /**
+     * Gets the x-coordinate of an object.
+     *
+     * @param index An index below getObjectCount().
+     * @return The x-coordinate.
+     */
+    public int getX(int index) {
+        return xs[index];
+    }
+
+    /**
+     * Gets the y-coordinate of an object.
+     *
+     * @param index An index below getObjectCount().
+     * @return The y-coordinate.
+     */
+    public int getY(int index) {
+        return ys[index];
+    }
+
+    /**
+     * Returns the frame's objects as an unmodifiable list of SpaceObjects, for passing to the
+     * UI. The list is built on first use and shared by every later caller. Its objects are
+     * fixed copies, so ticking them has no effect. They are new objects in every frame, but
+     * keep the entity ids of the objects they were copied from.
+     *
+     * @return The objects, with the ships last.
+     */
+    public List<SpaceObject> getObjects() {
+        List<SpaceObject> result = objects;
+        if (result == null) {
+            SpaceObject[] array = new SpaceObject[count];
+            for (int i = 0; i < count; i++) {
+                array[i] = new FrameObject(ids[i], types[i], xs[i], ys[i]);
+            }
+            result = Collections.unmodifiableList(Arrays.asList(array));
+            objects = result;
+        }
+        return result;
+    }
+
+    /**
+     * A fixed copy of one object in a frame.
+     */
+    private static class FrameObject implements SpaceObject {
+        private final int id;
+        private final byte type;
+        private final int x;
+        private final int y;
+
+        FrameObject(int id, byte type, int x, int y) {
+            this.id = id;
+            this.type = type;
+            this.x = x;
+            this.y = y;
+        }
+
+        @Override
+        public int getX() {
+            return x;
+        }
+
+        @Override
+        public int getY() {
+            return y;
+        }
+
+        @Override
+        public int getEntityId() {
+            return id;
+        }
+
+        @Override
+        public EntityType getType() {
+            return EntityType.fromId(type);
+        }
+
+        @Override
+        public int getTypeId() {
+            return type;
+        }
+
+        @Override
+        public ObjectGraphic render() {
+            return GraphicRegistry.get(type);
+        }
+
+        @Override
+        public void tick(int tick) {
+        }
+    }
+}
@@ -0,0 +1,213 @@
+package game.session;
+
+import game.GameController;
+import game.GameModel;
+import game.core.Ship;
+import game.simulation.HeadlessUI;
+
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * One single-player game hosted by a SessionHost, running on its own virtual thread.
+ *
+ * The session's thread sleeps until the host's scheduler signals a tick, then runs every
+ * tick it is owed through GameController.stepGame(). Nothing is drawn: the game is only
+ * simulated, and a client reads its state from the model. A session that receives no input
+ * for a while is parked: the scheduler stops signalling it, so it costs no CPU until the
+ * player returns. Sessions that stay idle even longer, or whose ship is destroyed, are
+ * evicted by the host.
+ *
+ * A session's game holds only a few dozen objects, so it ticks every object rather than
+ * keeping a timing wheel, whose arrays would be most of the session's memory.
+ */
+public class Session {
+    private static final int MAX_CATCH_UP_TICKS = 5;
+
+    private final long id;
+    private final SessionHost host;
+    private final GameController controller;
+    private Thread thread;
+
+    /** Written only by the scheduler; signalledAt is published by the write to targetTick. */
+    private volatile long targetTick;
+    private long signalledAt;
+
+    /** Written by input() on the player's thread, and idle also by the scheduler. */
+    private volatile long lastInputTick;
+    private volatile boolean idle;
+
+    /** Written only by the session's thread. */
+    private long doneTick;
+    private volatile long ticks;
+    private volatile long maxJitterNanos;
+    private volatile boolean finished;
+    private volatile boolean closed;
+
+    /**
+     * Constructs a Session with a new game. The session does not run until started.
+     *
+     * @param id The session's id.
+     * @param host The host running the session.
+     * @param startTick The host's current tick, counted as the session's last input.
+     */
+    Session(long id, SessionHost host, long startTick) {
+        this.id = id;
+        this.host = host;
+        this.controller = new GameController(new HeadlessUI(), new GameModel(text -> { }));
+        this.lastInputTick = startTick;
+    }
+
+    /**
+     * Starts the session's virtual thread.
+     */
+    void start() {
+        thread = Thread.ofVirtual().name("session-" + id).start(this::runLoop);
+    }
+
+    /**
+     * Gets the session's id.
+     *
+     * @return The id given by the host.
+     */
+    public long getId() {
+        return id;
+    }
+
+    /**
+     * Gets the session's controller, for reading its model.
+     * The model is changed by the session's thread, so it should only be read while the
+     * session is idle or closed.
+     *
+     * @return The controller.
+     */
+    public GameController getController() {
+        return controller;
+    }
+
+    /**
+     * Passes a key press to the game and wakes the session if it was idle.
+     * Must only be called by one thread at a time for each session.
+     *
+     * @param key The key pressed, as for GameController.handlePlayerInput().
+     */
+    public void input(String key) {
+        lastInputTick = host.getTick();
+        idle = false;
+        controller.handlePlayerInput(key);
+    }
+
+    /**
+     * Gets the number of ticks the session has run.
+     *
+     * @return The tick count.
+     */
+    public long getTicks() {
+        return ticks;
+    }
+
+    /**
+     * Gets the longest delay between the scheduler signalling a tick and the session starting
+     * to run it.
+     *
+     * @return The largest jitter in nanoseconds.
+     */
+    public long getMaxJitterNanos() {
+        return maxJitterNanos;
+    }
+
+    /**
+     * Returns whether the session is parked for lack of input.
+     *
+     * @return True if the session is idle.
+     */
+    public boolean isIdle() {
+        return idle;
+    }
+
+    /**
+     * Returns whether the game has ended because the ship was destroyed.
+     *
+     * @return True if the game is over.
+     */
+    public boolean isFinished() {
+        return finished;
+    }
+
+    /**
+     * Returns whether the session has been closed or evicted.
+     *
+     * @return True if the session no longer runs.
+     */
+    public boolean isClosed() {
+        return closed;
+    }
+
+    /**
+     * Stops the session and removes it from its host.
+     */
+    public void close() {
+        host.remove(this);
+    }
+
+    /**
+     * Called by the scheduler on every host tick.
+     *
+     * @param tick The host's tick.
+     * @param now The time the tick was scheduled, from System.nanoTime().
+     * @param idleTicks How many ticks without input before the session is parked.
+     * @param evictTicks How many ticks without input before the session is evicted.
+     * @return False if the session should be evicted.
+     */
+    boolean onHostTick(long tick, long now, long idleTicks, long evictTicks) {
+        long sinceInput = tick - lastInputTick;
+        if (finished || sinceInput > evictTicks) {
+            return false;
+        }
+        if (sinceInput > idleTicks) {
+            idle = true;
+            return true;
+        }
+        idle = false; // in case input() raced with parking the session
+        signalledAt = now;
+        targetTick++;
+        LockSupport.unpark(thread);
+        return true;
+    }
+
+    /**
+     * Stops the session's thread. Called by the host once it has removed the session.
+     */
+    void stop() {
+        closed = true;
+        LockSupport.unpark(thread);
+    }
+
+    private void runLoop() {
+        while (!closed) {
+            long target = targetTick;
+            if (doneTick >= target) {
+                LockSupport.park(this);
+                continue;
+            }
+            long jitter = System.nanoTime() - signalledAt;
+            maxJitterNanos = Math.max(maxJitterNanos, jitter);
+            host.recordJitter(id, jitter);
+
+            // After a long stall, skip ahead rather than running a burst of old ticks.
+            if (target - doneTick > MAX_CATCH_UP_TICKS) {
+                doneTick = target - MAX_CATCH_UP_TICKS;
+            }
+            long ran = target - doneTick;
+            while (doneTick < target) {
+                controller.stepGame((int) doneTick++);
+            }
+            ticks += ran;
+            host.recordTicks(ran);
+            Ship ship = controller.getModel().getShip();
+            if (ship == null || ship.getHealth() <= 0) {
+                finished = true;
+                return;
+            }
+        }
+    }
+}
@@ -0,0 +1,97 @@
+package game.session;
+
+import game.metrics.LatencyHistogram;
+
+/**
+ * An immutable copy of a SessionHost's metrics.
+ */
+public class SessionMetrics {
+    private final int sessions;
+    private final int idleSessions;
+    private final long evictions;
+    private final long ticks;
+    private final double ticksPerSecond;
+    private final LatencyHistogram jitter;
+
+    /**
+     * Constructs a SessionMetrics.
+     *
+     * @param sessions The number of open sessions.
+     * @param idleSessions How many of the open sessions are parked for lack of input.
+     * @param evictions The number of sessions evicted since the host started.
+     * @param ticks The number of session ticks run since the host started.
+     * @param ticksPerSecond The session ticks run per second since the previous snapshot.
+     * @param jitter The distribution of delays between a tick being scheduled and a session
+     *               starting to run it, which is kept rather than copied.
+     */
+    public SessionMetrics(int sessions, int idleSessions, long evictions, long ticks,
+                          double ticksPerSecond, LatencyHistogram jitter) {
+        this.sessions = sessions;
+        this.idleSessions = idleSessions;
+        this.evictions = evictions;
+        this.ticks = ticks;
+        this.ticksPerSecond = ticksPerSecond;
+        this.jitter = jitter;
+    }
+
+    /**
+     * Gets the number of open sessions.
+     *
+     * @return The session count.
+     */
+    public int getSessions() {
+        return sessions;
+    }
+
+    /**
+     * Gets the number of open sessions parked for lack of input.
+     *
+     * @return The idle session count.
+     */
+    public int getIdleSessions() {
+        return idleSessions;
+    }
+
+    /**
+     * Gets the number of sessions evicted since the host started.
+     *
+     * @return The eviction count.
+     */
+    public long getEvictions() {
+        return evictions;
+    }
+
+    /**
+     * Gets the number of session ticks run since the host started, summed over sessions.
+     *
+     * @return The tick count.
+     */
+    public long getTicks() {
+        return ticks;
+    }
+
+    /**
+     * Gets the session ticks run per second, summed over sessions, since the previous
+     * snapshot.
+     *
+     * @return The throughput.
+     */
+    public double getTicksPerSecond() {
+        return ticksPerSecond;
+    }
+
+    /**
+     * Gets the distribution of tick jitter across every session.
+     *
+     * @return A histogram of jitter in nanoseconds. Must not be modified.
+     */
+    public LatencyHistogram getJitter() {
+        return jitter;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("sessions=%d idle=%d evicted=%d ticks/sec=%.0f jitter: %s",
+                sessions, idleSessions, evictions, ticksPerSecond, jitter);
+    }
+}
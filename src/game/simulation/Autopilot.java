@@ -0,0 +1,202 @@
+package game.simulation;
+
+import game.GameModel;
+import game.core.CollisionType;
+import game.core.Ship;
+import game.utility.Command;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * An InputSource that plays the game by searching ahead over forked copies of the model.
+ *
+ * Before each tick it runs a beam search. Every state in the beam is forked once for each move
+ * (up, down, left, right, fire or nothing), each fork is stepped a tick the way HeadlessRunner
+ * steps the real model, and the best states are kept for the next depth. The search deepens until
+ * the depth limit or the time budget is reached, and the first move on the way to the best state
+ * is played. States are ranked by the ship's health, then enemies destroyed, then score. Forks
+ * copy the spawn director's state, so the search sees exactly the spawns the game will have.
+ *
+ * Forks and steps are counted and the search is timed, so running the autopilot also measures
+ * how fast the model can be forked and stepped. An autopilot searches on the thread that asks
+ * it for commands, and should only be used by that thread.
+ */
+public class Autopilot implements InputSource {
+    private static final Command[] MOVES = {null, Command.UP, Command.DOWN, Command.LEFT,
+        Command.RIGHT, Command.FIRE};
+    private static final Comparator<Node> BEST_FIRST =
+            Comparator.comparingLong((Node node) -> node.value).reversed();
+
+    private final GameModel model;
+    private final int beamWidth;
+    private final int maxDepth;
+    private final long budgetNanos;
+
+    private long decisions;
+    private long forks;
+    private long searchNanos;
+    private long depthTotal;
+
+    /**
+     * A state reached during the search, and the first move on the way to it.
+     */
+    private static class Node {
+        private final GameModel state;
+        private final Command firstMove;
+        private final long value;
+
+        Node(GameModel state, Command firstMove, long value) {
+            this.state = state;
+            this.firstMove = firstMove;
+            this.value = value;
+        }
+    }
+
+    /**
+     * Constructs an Autopilot for the given model.
+     *
+     * @param model The model the commands will be applied to, which is forked to search.
+     * @param beamWidth The number of states kept at each depth.
+     * @param maxDepth The number of ticks to look ahead at most.
+     * @param budgetNanos The time allowed for each decision; the first depth is always finished.
+     * @throws IllegalArgumentException If the beam width or depth is not positive.
+     */
+    public Autopilot(GameModel model, int beamWidth, int maxDepth, long budgetNanos) {
+        if (beamWidth <= 0 || maxDepth <= 0) {
+            throw new IllegalArgumentException("Beam width and depth must be positive");
+        }
+        this.model = model;
+        this.beamWidth = beamWidth;
+        this.maxDepth = maxDepth;
+        this.budgetNanos = budgetNanos;
+    }
+
+    @Override
+    public void commandsFor(int tick, Consumer<Command> commands) {
+        if (model.getShip() == null || model.getShip().getHealth() <= 0) {
+            return;
+        }
+        Command move = choose(tick);
+        if (move != null) {
+            commands.accept(move);
+        }
+    }
+
+    /**
+     * Searches ahead from the model's current state for the best move to make before the
+     * given tick. None of the forks made are kept once the move is chosen.
+     *
+     * @param tick The tick about to be simulated.
+     * @return The move to make, or null to do nothing.
+     */
+    public Command choose(int tick) {
+        long start = System.nanoTime();
+        long deadline = start + budgetNanos;
+        List<Node> beam = new ArrayList<>();
+        beam.add(new Node(model, null, 0));
+        Node best = null;
+        int depth = 0;
+        search:
+        while (depth < maxDepth) {
+            List<Node> next = new ArrayList<>(beam.size() * MOVES.length);
+            for (Node node : beam) {
+                for (Command move : MOVES) {
+                    if (depth > 0 && System.nanoTime() > deadline) {
+                        break search;
+                    }
+                    GameModel fork = node.state.fork();
+                    forks++;
+                    if (move != null) {
+                        HeadlessRunner.apply(fork, move);
+                    }
+                    HeadlessRunner.step(fork, tick + depth);
+                    next.add(new Node(fork, depth == 0 ? move : node.firstMove,
+                            evaluate(fork)));
+                }
+            }
+            // A stable sort keeps earlier moves first among equals, so doing nothing wins ties.
+            next.sort(BEST_FIRST);
+            beam = next.size() > beamWidth ? next.subList(0, beamWidth) : next;
+            best = beam.get(0);
+            depth++;
+        }
+        // The forks are dropped here, so the model can go back to changing its objects in place.
+        model.endForks();
+        decisions++;
+        depthTotal += depth;
+        searchNanos += System.nanoTime() - start;
+        return best.firstMove;
+    }
+
+    private static long evaluate(GameModel state) {
+        Ship ship = state.getShip();
+        return ship.getHealth() * 1_000_000L
+                + state.getCollisionCount(CollisionType.BULLET_ENEMY) * 1_000L
+                + ship.getScore();
+    }
+
+    /**
+     * Gets the number of moves chosen so far.
+     *
+     * @return The number of decisions.
+     */
+    public long getDecisions() {
+        return decisions;
+    }
+
+    /**
+     * Gets the number of models forked and stepped by all searches so far.
+     *
+     * @return The number of forks.
+     */
+    public long getForks() {
+        return forks;
+    }
+
+    /**
+     * Gets the total time spent searching.
+     *
+     * @return The search time in nanoseconds.
+     */
+    public long getSearchNanos() {
+        return searchNanos;
+    }
+
+    /**
+     * Gets the average number of ticks each search looked ahead.
+     *
+     * @return The mean search depth, or 0 if no move has been chosen.
+     */
+    public double getMeanDepth() {
+        return decisions == 0 ? 0 : (double) depthTotal / decisions;
+    }
+
+    /**
+     * Plays a headless game with the autopilot and prints the result and how fast the model
+     * was forked and stepped.
+     * Usage: Autopilot [seed] [tickLimit] [budgetMicros] [beamWidth] [maxDepth]
+     *
+     * @param args The optional seed, tick limit, time budget per tick, beam width and depth.
+     */
+    public static void main(String[] args) {
+        int seed = args.length > 0 ? Integer.parseInt(args[0]) : 0;
+        int tickLimit = args.length > 1 ? Integer.parseInt(args[1]) : 10_000;
+        long budgetMicros = args.length > 2 ? Long.parseLong(args[2]) : 500;
+        int beamWidth = args.length > 3 ? Integer.parseInt(args[3]) : 8;
+        int maxDepth = args.length > 4 ? Integer.parseInt(args[4]) : 20;
+
+        HeadlessRunner runner = new HeadlessRunner();
+        Autopilot autopilot = new Autopilot(runner.getModel(), beamWidth, maxDepth,
+                budgetMicros * 1_000);
+        SimulationResult result = runner.run(seed, tickLimit, autopilot);
+        System.out.println(result);
+        double seconds = autopilot.getSearchNanos() / 1e9;
+        System.out.printf("decisions=%d forks=%d forks/sec=%.0f meanDepth=%.1f"
+                        + " meanSearch=%.1fus%n", autopilot.getDecisions(), autopilot.getForks(),
+                autopilot.getForks() / seconds, autopilot.getMeanDepth(),
+                autopilot.getSearchNanos() / 1e3 / Math.max(1, autopilot.getDecisions()));
+    }
+}
@@ -0,0 +1,209 @@
+package game.simulation;
+
+import game.core.CollisionType;
+
+/**
+ * Aggregated results over a batch of simulation runs.
+ * A summary is not thread-safe; each worker fills its own and the results are merged.
+ */
+public class FarmSummary {
+    private int games;
+    private int survivors;
+    private long totalTicks;
+    private int minTicks = Integer.MAX_VALUE;
+    private int maxTicks;
+    private long totalScore;
+    private int maxScore;
+    private long totalHealth;
+    private long totalLevel;
+    private int maxLevel;
+    private long simulationNanos;
+    private final long[] collisions = new long[CollisionType.values().length];
+
+    /**
+     * Adds the outcome of a single run to the summary.
+     *
+     * @param result The result to add.
+     */
+    public void add(SimulationResult result) {
+        games++;
+        if (result.hasSurvived()) {
+            survivors++;
+        }
+        totalTicks += result.getTicks();
+        minTicks = Math.min(minTicks, result.getTicks());
+        maxTicks = Math.max(maxTicks, result.getTicks());
+        totalScore += result.getScore();
+        maxScore = Math.max(maxScore, result.getScore());
+        totalHealth += result.getHealth();
+        totalLevel += result.getLevel();
+        maxLevel = Math.max(maxLevel, result.getLevel());
+        simulationNanos += result.getElapsedNanos();
+        for (CollisionType type : CollisionType.values()) {
+            collisions[type.ordinal()] += result.getCollisions(type);
+        }
+    }
+
+    /**
+     * Adds every run counted by another summary to this one.
+     *
+     * @param other The summary to merge in.
+     * @return This summary.
+     */
+    public FarmSummary merge(FarmSummary other) {
+        games += other.games;
+        survivors += other.survivors;
+        totalTicks += other.totalTicks;
+        minTicks = Math.min(minTicks, other.minTicks);
+        maxTicks = Math.max(maxTicks, other.maxTicks);
+        totalScore += other.totalScore;
+        maxScore = Math.max(maxScore, other.maxScore);
+        totalHealth += other.totalHealth;
+        totalLevel += other.totalLevel;
+        maxLevel = Math.max(maxLevel, other.maxLevel);
+        simulationNanos += other.simulationNanos;
+        for (int i = 0; i < collisions.length; i++) {
+            collisions[i] += other.collisions[i];
+        }
+        return this;
+    }
+
+    /**
+     * Gets the number of runs in the summary.
+     *
+     * @return The number of games.
+     */
+    public int getGames() {
+        return games;
+    }
+
+    /**
+     * Gets the number of runs in which the ship survived to the tick limit.
+     *
+     * @return The number of survivors.
+     */
+    public int getSurvivors() {
+        return survivors;
+    }
+
+    /**
+     * Gets the total number of ticks simulated across all runs.
+     *
+     * @return The total tick count.
+     */
+    public long getTotalTicks() {
+        return totalTicks;
+    }
+
+    /**
+     * Gets the shortest run, in ticks.
+     *
+     * @return The minimum number of ticks survived, or 0 if there are no runs.
+     */
+    public int getMinTicks() {
+        return games == 0 ? 0 : minTicks;
+    }
+
+    /**
+     * Gets the longest run, in ticks.
+     *
+     * @return The maximum number of ticks survived.
+     */
+    public int getMaxTicks() {
+        return maxTicks;
+    }
+
+    /**
+     * Gets the mean number of ticks survived per run.
+     *
+     * @return The mean survival in ticks.
+     */
+    public double getMeanTicks() {
+        return mean(totalTicks);
+    }
+
+    /**
+     * Gets the mean final score per run.
+     *
+     * @return The mean score.
+     */
+    public double getMeanScore() {
+        return mean(totalScore);
+    }
+
+    /**
+     * Gets the highest final score of any run.
+     *
+     * @return The maximum score.
+     */
+    public int getMaxScore() {
+        return maxScore;
+    }
+
+    /**
+     * Gets the mean final health per run.
+     *
+     * @return The mean health.
+     */
+    public double getMeanHealth() {
+        return mean(totalHealth);
+    }
+
+    /**
+     * Gets the mean level reached per run.
+     *
+     * @return The mean level.
+     */
+    public double getMeanLevel() {
+        return mean(totalLevel);
+    }
+
+    /**
+     * Gets the highest level reached by any run.
+     *
+     * @return The maximum level.
+     */
+    public int getMaxLevel() {
+        return maxLevel;
+    }
+
+    /**
+     * Gets the total time spent simulating, summed over every run.
+     *
+     * @return The total simulation time in nanoseconds.
+     */
+    public long getSimulationNanos() {
+        return simulationNanos;
+    }
+
+    /**
+     * Gets the total number of collisions of the given type across all runs.
+     *
+     * @param type The type of collision.
+     * @return The number of collisions of that type.
+     */
+    public long getCollisions(CollisionType type) {
+        return collisions[type.ordinal()];
+    }
+
+    private double mean(long total) {
+        return games == 0 ? 0 : (double) total / games;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder builder = new StringBuilder();
+        builder.append(String.format("games=%d survivors=%d ticks[min=%d mean=%.1f max=%d] "
+                        + "score[mean=%.1f max=%d] health[mean=%.1f] level[mean=%.2f max=%d]",
+                games, survivors, getMinTicks(), getMeanTicks(), maxTicks,
+                getMeanScore(), maxScore, getMeanHealth(), getMeanLevel(), maxLevel));
+        builder.append(" collisions[");
+        for (CollisionType type : CollisionType.values()) {
+            if (type.ordinal() > 0) {
+                builder.append(' ');
+            }
+            builder.append(type).append('=').append(collisions[type.ordinal()]);
+        }
+        return builder.append(']').toString();
+    }
+}
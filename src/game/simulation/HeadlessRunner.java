@@ -0,0 +1,178 @@
+package game.simulation;
+
+import game.GameModel;
+import game.core.CollisionType;
+import game.core.ObjectPools;
+import game.core.Ship;
+import game.exceptions.BoundaryExceededException;
+import game.utility.Command;
+
+/**
+ * Runs a GameModel without a UI, stepping ticks as fast as the CPU allows.
+ * Each tick applies the scripted input, then advances the model in the same order as
+ * GameController.onTick(): update, collisions, spawns and level up.
+ * A runner reuses one model across runs, so it should only be used by a single thread.
+ * The model reuses space objects through pools, so listeners must not keep references to them.
+ */
+public class HeadlessRunner {
+    private static final int POOL_CAPACITY = 256;
+
+    private final GameModel model;
+    private int ticks;
+    private boolean stopOnDeath = true;
+
+    /**
+     * Observes the model after each simulated tick.
+     */
+    @FunctionalInterface
+    public interface TickListener {
+
+        /**
+         * Called after every phase of a tick has run.
+         *
+         * @param tick The value of the tick that finished.
+         * @param model The model, in its state after the tick.
+         */
+        void tickFinished(int tick, GameModel model);
+    }
+
+    /**
+     * Constructs a HeadlessRunner with its own pooled model that discards all log messages.
+     */
+    public HeadlessRunner() {
+        this.model = new GameModel(text -> { });
+        model.setObjectPools(new ObjectPools(POOL_CAPACITY));
+        model.setScheduledUpdates(true);
+    }
+
+    /**
+     * Resets the model and runs a new seeded game until the tick limit is reached or the ship runs out of health.
+     *
+     * @param seed The seed for the model's Random instance.
+     * @param tickLimit The maximum number of ticks to simulate.
+     * @param input The source of scripted player commands.
+     * @return The outcome of the run.
+     */
+    public SimulationResult run(int seed, int tickLimit, InputSource input) {
+        return run(seed, 0, tickLimit, input, null);
+    }
+
+    /**
+     * Resets the model and runs a new seeded game, numbering ticks from the given first tick,
+     * until the tick limit is reached or, if enabled, the ship runs out of health.
+     *
+     * @param seed The seed for the model's Random instance.
+     * @param firstTick The value passed to updateGame() for the first tick.
+     * @param tickLimit The maximum number of ticks to simulate.
+     * @param input The source of scripted player commands.
+     * @param listener Observes the model after each tick, or null for none.
+     * @return The outcome of the run.
+     */
+    public SimulationResult run(int seed, int firstTick, int tickLimit, InputSource input,
+                                TickListener listener) {
+        model.reset();
+        model.setRandomSeed(seed);
+
+        long start = System.nanoTime();
+        for (ticks = 0; ticks < tickLimit; ticks++) {
+            int tick = firstTick + ticks;
+            input.commandsFor(tick, this::apply);
+            step(model, tick);
+            if (listener != null) {
+                listener.tickFinished(tick, model);
+            }
+            Ship ship = model.getShip();
+            if (stopOnDeath && (ship == null || ship.getHealth() <= 0)) {
+                ticks++;
+                break;
+            }
+        }
+        long elapsed = System.nanoTime() - start;
+
+        Ship ship = model.getShip();
+        int score = ship == null ? 0 : ship.getScore();
+        int health = ship == null ? 0 : ship.getHealth();
+        return new SimulationResult(seed, ticks, health > 0, elapsed, score, health,
+                model.getLevel(), model.getObjectCount(), collisionCounts());
+    }
+
+    /**
+     * Sets whether runs end as soon as the ship runs out of health. This is on by default;
+     * turning it off runs every game to the tick limit, as the UI does.
+     *
+     * @param stopOnDeath Whether to stop when the ship's health reaches 0.
+     */
+    public void setStopOnDeath(boolean stopOnDeath) {
+        this.stopOnDeath = stopOnDeath;
+    }
+
+    /**
+     * Returns the model used by this runner, left in its state at the end of the last run.
+     *
+     * @return The model.
+     */
+    public GameModel getModel() {
+        return model;
+    }
+
+    private long[] collisionCounts() {
+        CollisionType[] types = CollisionType.values();
+        long[] counts = new long[types.length];
+        for (CollisionType type : types) {
+            counts[type.ordinal()] = model.getCollisionCount(type);
+        }
+        return counts;
+    }
+
+    private void apply(Command command) {
+        apply(model, command);
+    }
+
+    /**
+     * Applies a player command to the given model's ship, as the UI would.
+     *
+     * @param model The model to change.
+     * @param command The command to apply.
+     */
+    static void apply(GameModel model, Command command) {
+        Ship ship = model.getShip();
+        if (command.getDirection() != null) {
+            if (ship == null) {
+                return;
+            }
+            try {
+                ship.move(command.getDirection());
+            } catch (BoundaryExceededException e) {
+                // Moving off the board has no effect, as in the UI.
+            }
+        } else if (command == Command.FIRE) {
+            model.fireBullet();
+        }
+    }
+
+    /**
+     * Advances the given model by one tick, in the same order as GameController.onTick().
+     *
+     * @param model The model to advance.
+     * @param tick The value of the tick.
+     */
+    static void step(GameModel model, int tick) {
+        model.updateGame(tick);
+        model.checkCollisions();
+        model.spawnObjects();
+        model.levelUp();
+    }
+
+    /**
+     * Runs a single headless game and prints the result.
+     * Usage: HeadlessRunner [seed] [tickLimit]
+     *
+     * @param args The optional seed and tick limit.
+     */
+    public static void main(String[] args) {
+        int seed = args.length > 0 ? Integer.parseInt(args[0]) : 0;
+        int tickLimit = args.length > 1 ? Integer.parseInt(args[1]) : 1_000_000;
+        SimulationResult result = new HeadlessRunner().run(seed, tickLimit, InputSource.idle());
+        System.out.println(result);
+    }
+}
@@ -0,0 +1,102 @@
+package game.simulation;
+
+import game.core.SpaceObject;
+import game.ui.KeyHandler;
+import game.ui.Tickable;
+import game.ui.UI;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A UI that draws nothing, for running a GameController without a display.
+ * It keeps the tick callback so a driver can step the game, remembers the latest stats,
+ * and counts rendered frames. Log messages are discarded.
+ */
+public class HeadlessUI implements UI {
+    private Tickable step;
+    private boolean paused;
+    private long frames;
+    private final Map<String, String> stats = new HashMap<>();
+
+    @Override
+    public void start() {
+        paused = false;
+    }
+
+    @Override
+    public void pause() {
+        paused = !paused;
+    }
+
+    @Override
+    public void stop() {
+        step = null;
+    }
+
+    @Override
+    public void onStep(Tickable tickable) {
+        this.step = tickable;
+    }
+
+    @Override
+    public void onKey(KeyHandler key) {
+    }
+
+    @Override
+    public void render(List<SpaceObject> objects) {
+        frames++;
+    }
+
+    @Override
+    public void log(String message) {
+    }
+
+    @Override
+    public void setStat(String label, String value) {
+        stats.put(label, value);
+    }
+
+    /**
+     * Advances the game by calling the registered tick callback, unless the UI is paused.
+     *
+     * @param tick The tick to pass to the callback.
+     * @return True if the callback was called.
+     */
+    public boolean step(int tick) {
+        if (step == null || paused) {
+            return false;
+        }
+        step.tick(tick);
+        return true;
+    }
+
+    /**
+     * Returns whether the game is currently paused.
+     *
+     * @return True if pause() has been called an odd number of times since start().
+     */
+    public boolean isPaused() {
+        return paused;
+    }
+
+    /**
+     * Gets the number of frames rendered.
+     *
+     * @return The number of render() calls.
+     */
+    public long getFrames() {
+        return frames;
+    }
+
+    /**
+     * Gets the latest value of a stat.
+     *
+     * @param label The name of the stat.
+     * @return The last value set, or null if the stat has not been set.
+     */
+    public String getStat(String label) {
+        return stats.get(label);
+    }
+}
@@ -0,0 +1,164 @@
+package game.simulation;
+
+import game.utility.Command;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * Records the player commands of a game, stamped with the tick they were applied before,
+ * into a compact binary log that InputRecording can read back and Replay can re-run.
+ *
+ * The log starts with a header holding the seed and the value of the first tick, followed
+ * by one record per command or checkpoint: a kind byte, then the number of ticks since the
+ * previous record as a variable-length integer, and for checkpoints an 8-byte state checksum.
+ * A trailer record holds the total number of ticks recorded.
+ */
+public class InputRecorder {
+    static final int MAGIC = 0x53475243; // "SGRC"
+    static final short VERSION = 1;
+    static final int CHECKPOINT = 0x40;
+    static final int END = 0x7F;
+
+    private final int seed;
+    private final int checkpointInterval;
+    private final ByteArrayOutputStream records = new ByteArrayOutputStream();
+    private int firstTick;
+    private int ticks;
+    private int lastRecordTick;
+
+    /**
+     * Constructs an InputRecorder.
+     *
+     * @param seed The seed the recorded game's Random instance is set to.
+     * @param checkpointInterval Record a state checksum every this many ticks, or 0 for none.
+     */
+    public InputRecorder(int seed, int checkpointInterval) {
+        this.seed = seed;
+        this.checkpointInterval = checkpointInterval;
+    }
+
+    /**
+     * Gets the seed the recorded game must use.
+     *
+     * @return The seed.
+     */
+    public int getSeed() {
+        return seed;
+    }
+
+    /**
+     * Records a command applied before the next tick.
+     *
+     * @param command The command applied.
+     */
+    public void record(Command command) {
+        writeRecord(command.ordinal(), ticks);
+    }
+
+    /**
+     * Records that a tick finished, checkpointing the state if the interval has been reached.
+     * The GameModel must already have been advanced by the tick.
+     *
+     * @param tick The value of the tick.
+     * @param checksum The StateChecksum of the model after the tick.
+     */
+    public void tickFinished(int tick, long checksum) {
+        if (ticks == 0) {
+            firstTick = tick;
+        }
+        ticks++;
+        if (checkpointInterval > 0 && ticks % checkpointInterval == 0) {
+            writeRecord(CHECKPOINT, ticks);
+            writeLong(checksum);
+        }
+    }
+
+    /**
+     * Returns whether a checksum will be recorded when the next tick finishes, so callers
+     * only compute it when needed.
+     *
+     * @return True if the next tickFinished() call records a checkpoint.
+     */
+    public boolean isCheckpointDue() {
+        return checkpointInterval > 0 && (ticks + 1) % checkpointInterval == 0;
+    }
+
+    /**
+     * Gets the number of ticks recorded so far.
+     *
+     * @return The number of finished ticks.
+     */
+    public int getTicks() {
+        return ticks;
+    }
+
+    /**
+     * Writes the complete log to a stream.
+     *
+     * @param out The stream to write to.
+     * @throws IOException If the stream cannot be written.
+     */
+    public void writeTo(OutputStream out) throws IOException {
+        DataOutputStream data = new DataOutputStream(out);
+        data.writeInt(MAGIC);
+        data.writeShort(VERSION);
+        data.writeInt(seed);
+        data.writeInt(firstTick);
+        records.writeTo(data);
+        ByteArrayOutputStream trailer = new ByteArrayOutputStream(8);
+        trailer.write(END);
+        writeVarInt(trailer, ticks - lastRecordTick);
+        trailer.writeTo(data);
+        data.flush();
+    }
+
+    /**
+     * Returns the complete log as bytes.
+     *
+     * @return The encoded log.
+     */
+    public byte[] toByteArray() {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(records.size() + 32);
+        try {
+            writeTo(out);
+        } catch (IOException e) {
+            throw new IllegalStateException(e); // not thrown by an in-memory stream
+        }
+        return out.toByteArray();
+    }
+
+    /**
+     * Writes the complete log to a file, replacing it if it exists.
+     *
+     * @param path The file to write.
+     * @throws IOException If the file cannot be written.
+     */
+    public void save(Path path) throws IOException {
+        Files.write(path, toByteArray());
+    }
+
+    private void writeRecord(int kind, int tick) {
+        records.write(kind);
+        writeVarInt(records, tick - lastRecordTick);
+        lastRecordTick = tick;
+    }
+
+    private void writeLong(long value) {
+        for (int shift = 56; shift >= 0; shift -= 8) {
+            records.write((int) (value >>> shift));
+        }
+    }
+
+    private static void writeVarInt(ByteArrayOutputStream out, int value) {
+        while ((value & ~0x7F) != 0) {
+            out.write((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        out.write(value);
+    }
+}
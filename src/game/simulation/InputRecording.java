@@ -0,0 +1,196 @@
+package game.simulation;
+
+import game.utility.Command;
+
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.function.Consumer;
+
+/**
+ * A decoded input log written by InputRecorder.
+ * Ticks are stored as indices counted from the first recorded tick.
+ */
+public class InputRecording {
+    private static final Command[] COMMANDS = Command.values();
+
+    private final int seed;
+    private final int firstTick;
+    private final int tickCount;
+    private final int[] commandTicks;
+    private final Command[] commands;
+    private final int[] checkpointTicks;
+    private final long[] checksums;
+
+    private InputRecording(int seed, int firstTick, int tickCount, int[] commandTicks,
+                           Command[] commands, int[] checkpointTicks, long[] checksums) {
+        this.seed = seed;
+        this.firstTick = firstTick;
+        this.tickCount = tickCount;
+        this.commandTicks = commandTicks;
+        this.commands = commands;
+        this.checkpointTicks = checkpointTicks;
+        this.checksums = checksums;
+    }
+
+    /**
+     * Decodes a log.
+     *
+     * @param bytes The bytes written by InputRecorder.
+     * @return The decoded recording.
+     * @throws IllegalArgumentException If the bytes are not a valid log.
+     */
+    public static InputRecording fromBytes(byte[] bytes) {
+        ByteBuffer buffer = ByteBuffer.wrap(bytes);
+        try {
+            if (buffer.getInt() != InputRecorder.MAGIC) {
+                throw new IllegalArgumentException("Not an input recording");
+            }
+            short version = buffer.getShort();
+            if (version != InputRecorder.VERSION) {
+                throw new IllegalArgumentException("Unsupported recording version: " + version);
+            }
+            int seed = buffer.getInt();
+            int firstTick = buffer.getInt();
+
+            int[] commandTicks = new int[16];
+            Command[] commands = new Command[16];
+            int commandCount = 0;
+            int[] checkpointTicks = new int[16];
+            long[] checksums = new long[16];
+            int checkpointCount = 0;
+            int tick = 0;
+            while (true) {
+                int kind = buffer.get() & 0xFF;
+                tick += readVarInt(buffer);
+                if (kind == InputRecorder.END) {
+                    break;
+                } else if (kind == InputRecorder.CHECKPOINT) {
+                    if (checkpointCount == checkpointTicks.length) {
+                        checkpointTicks = Arrays.copyOf(checkpointTicks, checkpointCount * 2);
+                        checksums = Arrays.copyOf(checksums, checkpointCount * 2);
+                    }
+                    checkpointTicks[checkpointCount] = tick;
+                    checksums[checkpointCount++] = buffer.getLong();
+                } else if (kind < COMMANDS.length) {
+                    if (commandCount == commands.length) {
+                        commandTicks = Arrays.copyOf(commandTicks, commandCount * 2);
+                        commands = Arrays.copyOf(commands, commandCount * 2);
+                    }
+                    commandTicks[commandCount] = tick;
+                    commands[commandCount++] = COMMANDS[kind];
+                } else {
+                    throw new IllegalArgumentException("Unknown record kind: " + kind);
+                }
+            }
+            return new InputRecording(seed, firstTick, tick,
+                    Arrays.copyOf(commandTicks, commandCount), Arrays.copyOf(commands, commandCount),
+                    Arrays.copyOf(checkpointTicks, checkpointCount),
+                    Arrays.copyOf(checksums, checkpointCount));
+        } catch (BufferUnderflowException e) {
+            throw new IllegalArgumentException("Truncated input recording", e);
+        }
+    }
+
+    /**
+     * Reads and decodes a log file.
+     *
+     * @param path The file written by InputRecorder.save().
+     * @return The decoded recording.
+     * @throws IOException If the file cannot be read.
+     */
+    public static InputRecording load(Path path) throws IOException {
+        return fromBytes(Files.readAllBytes(path));
+    }
+
+    /**
+     * Gets the seed of the recorded game.
+     *
+     * @return The seed.
+     */
+    public int getSeed() {
+        return seed;
+    }
+
+    /**
+     * Gets the value of the first recorded tick.
+     *
+     * @return The first tick.
+     */
+    public int getFirstTick() {
+        return firstTick;
+    }
+
+    /**
+     * Gets the number of ticks recorded.
+     *
+     * @return The tick count.
+     */
+    public int getTickCount() {
+        return tickCount;
+    }
+
+    /**
+     * Gets the number of state checksums recorded.
+     *
+     * @return The checkpoint count.
+     */
+    public int getCheckpointCount() {
+        return checkpointTicks.length;
+    }
+
+    /**
+     * Gets the number of ticks finished when a checkpoint was recorded.
+     *
+     * @param checkpoint The checkpoint number, from 0 to getCheckpointCount() - 1.
+     * @return The tick count at the checkpoint.
+     */
+    public int getCheckpointTick(int checkpoint) {
+        return checkpointTicks[checkpoint];
+    }
+
+    /**
+     * Gets the state checksum recorded at a checkpoint.
+     *
+     * @param checkpoint The checkpoint number, from 0 to getCheckpointCount() - 1.
+     * @return The checksum.
+     */
+    public long getChecksum(int checkpoint) {
+        return checksums[checkpoint];
+    }
+
+    /**
+     * Returns an input source that plays back the recorded commands.
+     * The source expects to be asked for each tick in order, starting at getFirstTick().
+     *
+     * @return A new input source over the recording.
+     */
+    public InputSource asInputSource() {
+        return new InputSource() {
+            private int next;
+
+            @Override
+            public void commandsFor(int tick, Consumer<Command> out) {
+                int index = tick - firstTick;
+                while (next < commands.length && commandTicks[next] <= index) {
+                    out.accept(commands[next++]);
+                }
+            }
+        };
+    }
+
+    private static int readVarInt(ByteBuffer buffer) {
+        int value = 0;
+        for (int shift = 0; shift < 35; shift += 7) {
+            int b = buffer.get() & 0xFF;
+            value |= (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                return value;
+            }
+        }
+        throw new IllegalArgumentException("Malformed variable-length integer");
+    }
+}
@@ -0,0 +1,30 @@
+package game.simulation;
+
+import game.utility.Command;
+
+import java.util.function.Consumer;
+
+/**
+ * Supplies scripted player commands to a headless simulation.
+ */
+@FunctionalInterface
+public interface InputSource {
+
+    /**
+     * Passes the commands to apply before the given tick is simulated.
+     * Commands are applied in the order they are passed.
+     *
+     * @param tick The tick about to be simulated.
+     * @param commands Receives each command to apply.
+     */
+    void commandsFor(int tick, Consumer<Command> commands);
+
+    /**
+     * Returns an input source that never issues any commands.
+     *
+     * @return An idle input source.
+     */
+    static InputSource idle() {
+        return (tick, commands) -> { };
+    }
+}
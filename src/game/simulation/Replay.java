@@ -0,0 +1,65 @@
+package game.simulation;
+
+import game.GameModel;
+
+import java.io.IOException;
+import java.nio.file.Path;
+
+/**
+ * Rebuilds a recorded game headlessly at maximum speed, checking the state against every
+ * checksum in the recording.
+ */
+public class Replay implements HeadlessRunner.TickListener {
+    private final InputRecording recording;
+    private int nextCheckpoint;
+    private int verified;
+    private int firstMismatchTick = -1;
+
+    private Replay(InputRecording recording) {
+        this.recording = recording;
+    }
+
+    /**
+     * Replays every recorded tick, continuing past the ship running out of health as the UI does.
+     *
+     * @param recording The recording to replay.
+     * @return The outcome of the replay.
+     */
+    public static ReplayResult run(InputRecording recording) {
+        Replay replay = new Replay(recording);
+        HeadlessRunner runner = new HeadlessRunner();
+        runner.setStopOnDeath(false);
+        SimulationResult result = runner.run(recording.getSeed(), recording.getFirstTick(),
+                recording.getTickCount(), recording.asInputSource(), replay);
+        return new ReplayResult(result, replay.verified, recording.getCheckpointCount(),
+                replay.firstMismatchTick);
+    }
+
+    @Override
+    public void tickFinished(int tick, GameModel model) {
+        if (nextCheckpoint == recording.getCheckpointCount()) {
+            return;
+        }
+        int finished = tick - recording.getFirstTick() + 1;
+        if (recording.getCheckpointTick(nextCheckpoint) != finished) {
+            return;
+        }
+        if (StateChecksum.of(model) == recording.getChecksum(nextCheckpoint)) {
+            verified++;
+        } else if (firstMismatchTick == -1) {
+            firstMismatchTick = tick;
+        }
+        nextCheckpoint++;
+    }
+
+    /**
+     * Replays a recording file and prints the result.
+     * Usage: Replay path
+     *
+     * @param args The path of the recording.
+     * @throws IOException If the recording cannot be read.
+     */
+    public static void main(String[] args) throws IOException {
+        System.out.println(run(InputRecording.load(Path.of(args[0]))));
+    }
+}
@@ -0,0 +1,78 @@
+package game.simulation;
+
+/**
+ * The outcome of replaying a recorded game.
+ */
+public class ReplayResult {
+    private final SimulationResult simulation;
+    private final int verified;
+    private final int checkpoints;
+    private final int firstMismatchTick;
+
+    /**
+     * Constructs a ReplayResult.
+     *
+     * @param simulation The result of the replayed run.
+     * @param verified The number of checkpoints whose checksum matched.
+     * @param checkpoints The number of checkpoints in the recording.
+     * @param firstMismatchTick The tick of the first checksum that did not match, or -1.
+     */
+    public ReplayResult(SimulationResult simulation, int verified, int checkpoints,
+                        int firstMismatchTick) {
+        this.simulation = simulation;
+        this.verified = verified;
+        this.checkpoints = checkpoints;
+        this.firstMismatchTick = firstMismatchTick;
+    }
+
+    /**
+     * Gets the result of the replayed run, including its tick rate.
+     *
+     * @return The simulation result.
+     */
+    public SimulationResult getSimulation() {
+        return simulation;
+    }
+
+    /**
+     * Gets the number of checkpoints whose checksum matched the replayed state.
+     *
+     * @return The number of verified checkpoints.
+     */
+    public int getVerified() {
+        return verified;
+    }
+
+    /**
+     * Gets the number of checkpoints in the recording.
+     *
+     * @return The number of checkpoints.
+     */
+    public int getCheckpoints() {
+        return checkpoints;
+    }
+
+    /**
+     * Gets the tick at which the replay first diverged from the recording.
+     *
+     * @return The tick of the first mismatched checksum, or -1 if every checkpoint matched.
+     */
+    public int getFirstMismatchTick() {
+        return firstMismatchTick;
+    }
+
+    /**
+     * Returns whether every checkpoint in the recording matched.
+     *
+     * @return True if the replay reproduced the recorded game.
+     */
+    public boolean isFaithful() {
+        return verified == checkpoints;
+    }
+
+    @Override
+    public String toString() {
+        return simulation + " checkpoints=" + verified + "/" + checkpoints
+                + (firstMismatchTick == -1 ? "" : " firstMismatchTick=" + firstMismatchTick);
+    }
+}
@@ -0,0 +1,135 @@
+package game.simulation;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.function.Consumer;
+import java.util.function.IntFunction;
+
+/**
+ * Runs many independent seeded games in parallel on a fork/join pool.
+ * Each worker thread reuses its own HeadlessRunner, and with it its own GameModel, Random and
+ * discarding logger, so runs share no mutable state. Results are summarised per task and
+ * merged as the tasks join.
+ */
+public class SimulationFarm {
+    /** Number of leaf tasks to aim for per worker thread, so stealing can balance uneven runs. */
+    private static final int TASKS_PER_THREAD = 8;
+
+    private final ForkJoinPool pool;
+    private final ThreadLocal<HeadlessRunner> runners = ThreadLocal.withInitial(HeadlessRunner::new);
+
+    /**
+     * Constructs a SimulationFarm with one worker per available processor.
+     */
+    public SimulationFarm() {
+        this(new ForkJoinPool(Runtime.getRuntime().availableProcessors()));
+    }
+
+    /**
+     * Constructs a SimulationFarm that runs its games on the given pool.
+     *
+     * @param pool The pool to run games on.
+     */
+    public SimulationFarm(ForkJoinPool pool) {
+        this.pool = pool;
+    }
+
+    /**
+     * Runs one game for each seed from firstSeed to firstSeed + games - 1 and summarises them.
+     *
+     * @param firstSeed The seed of the first game.
+     * @param games The number of games to run.
+     * @param tickLimit The maximum number of ticks per game.
+     * @param inputs Creates the input source for the game with the given seed.
+     * @param listener Receives each result as its game finishes. It is called concurrently from
+     *                 the worker threads, so it must be thread-safe.
+     * @return The summary of every game run.
+     */
+    public FarmSummary run(int firstSeed, int games, int tickLimit,
+                           IntFunction<InputSource> inputs, Consumer<SimulationResult> listener) {
+        int leafSize = Math.max(1, games / (pool.getParallelism() * TASKS_PER_THREAD));
+        return pool.invoke(new Batch(firstSeed, firstSeed + games, leafSize,
+                tickLimit, inputs, listener));
+    }
+
+    /**
+     * Runs one game for each seed from firstSeed to firstSeed + games - 1 without any input.
+     *
+     * @param firstSeed The seed of the first game.
+     * @param games The number of games to run.
+     * @param tickLimit The maximum number of ticks per game.
+     * @return The summary of every game run.
+     */
+    public FarmSummary run(int firstSeed, int games, int tickLimit) {
+        return run(firstSeed, games, tickLimit, seed -> InputSource.idle(), result -> { });
+    }
+
+    /**
+     * Shuts down the pool once any running batches complete.
+     */
+    public void shutdown() {
+        pool.shutdown();
+    }
+
+    /**
+     * A range of seeds, split in half until it is small enough to run directly.
+     * Tasks are never serialized, so Batch does not support it.
+     */
+    @SuppressWarnings("serial")
+    private class Batch extends RecursiveTask<FarmSummary> {
+        private final int from;
+        private final int to;
+        private final int leafSize;
+        private final int tickLimit;
+        private final IntFunction<InputSource> inputs;
+        private final Consumer<SimulationResult> listener;
+
+        Batch(int from, int to, int leafSize, int tickLimit,
+              IntFunction<InputSource> inputs, Consumer<SimulationResult> listener) {
+            this.from = from;
+            this.to = to;
+            this.leafSize = leafSize;
+            this.tickLimit = tickLimit;
+            this.inputs = inputs;
+            this.listener = listener;
+        }
+
+        @Override
+        protected FarmSummary compute() {
+            if (to - from <= leafSize) {
+                HeadlessRunner runner = runners.get();
+                FarmSummary summary = new FarmSummary();
+                for (int seed = from; seed < to; seed++) {
+                    SimulationResult result = runner.run(seed, tickLimit, inputs.apply(seed));
+                    summary.add(result);
+                    listener.accept(result);
+                }
+                return summary;
+            }
+            int middle = from + (to - from) / 2;
+            Batch left = new Batch(from, middle, leafSize, tickLimit, inputs, listener);
+            Batch right = new Batch(middle, to, leafSize, tickLimit, inputs, listener);
+            left.fork();
+            return right.compute().merge(left.join());
+        }
+    }
+
+    /**
+     * Runs a batch of headless games across all cores and prints the summary.
+     * Usage: SimulationFarm [games] [tickLimit]
+     *
+     * @param args The optional number of games and tick limit.
+     */
+    public static void main(String[] args) {
+        int games = args.length > 0 ? Integer.parseInt(args[0]) : 1000;
+        int tickLimit = args.length > 1 ? Integer.parseInt(args[1]) : 100_000;
+        SimulationFarm farm = new SimulationFarm();
+        long start = System.nanoTime();
+        FarmSummary summary = farm.run(0, games, tickLimit);
+        long elapsed = System.nanoTime() - start;
+        farm.shutdown();
+        System.out.println(summary);
+        System.out.printf("wall=%.2fs aggregate ticks/sec=%.0f%n", elapsed / 1e9,
+                summary.getTotalTicks() * 1e9 / elapsed);
+    }
+}
@@ -0,0 +1,146 @@
+package game.simulation;
+
+import game.core.CollisionType;
+
+/**
+ * The outcome of a single headless simulation run.
+ */
+public class SimulationResult {
+    private final int seed;
+    private final int ticks;
+    private final boolean survived;
+    private final long elapsedNanos;
+    private final int score;
+    private final int health;
+    private final int level;
+    private final int objectCount;
+    private final long[] collisions;
+
+    /**
+     * Constructs a SimulationResult.
+     *
+     * @param seed The seed the run was started with.
+     * @param ticks The number of ticks simulated.
+     * @param survived Whether the ship still had health when the run ended.
+     * @param elapsedNanos The wall-clock time taken by the run, in nanoseconds.
+     * @param score The final score of the ship.
+     * @param health The final health of the ship.
+     * @param level The level reached.
+     * @param objectCount The number of space objects left in the game.
+     * @param collisions The number of collisions of each type, indexed by CollisionType ordinal.
+     */
+    public SimulationResult(int seed, int ticks, boolean survived, long elapsedNanos,
+                            int score, int health, int level, int objectCount,
+                            long[] collisions) {
+        this.seed = seed;
+        this.ticks = ticks;
+        this.survived = survived;
+        this.elapsedNanos = elapsedNanos;
+        this.score = score;
+        this.health = health;
+        this.level = level;
+        this.objectCount = objectCount;
+        this.collisions = collisions.clone();
+    }
+
+    /**
+     * Gets the seed the run was started with.
+     *
+     * @return The seed.
+     */
+    public int getSeed() {
+        return seed;
+    }
+
+    /**
+     * Gets the number of ticks simulated before the run ended.
+     *
+     * @return The number of ticks.
+     */
+    public int getTicks() {
+        return ticks;
+    }
+
+    /**
+     * Returns whether the ship still had health when the run ended.
+     *
+     * @return True if the ship survived to the tick limit.
+     */
+    public boolean hasSurvived() {
+        return survived;
+    }
+
+    /**
+     * Gets the wall-clock time taken by the run.
+     *
+     * @return The elapsed time in nanoseconds.
+     */
+    public long getElapsedNanos() {
+        return elapsedNanos;
+    }
+
+    /**
+     * Gets the number of ticks simulated per second of wall-clock time.
+     *
+     * @return The tick rate achieved by the run.
+     */
+    public double getTicksPerSecond() {
+        if (elapsedNanos == 0) {
+            return 0;
+        }
+        return ticks * 1_000_000_000.0 / elapsedNanos;
+    }
+
+    /**
+     * Gets the final score of the ship.
+     *
+     * @return The final score.
+     */
+    public int getScore() {
+        return score;
+    }
+
+    /**
+     * Gets the final health of the ship.
+     *
+     * @return The final health.
+     */
+    public int getHealth() {
+        return health;
+    }
+
+    /**
+     * Gets the level reached.
+     *
+     * @return The final level.
+     */
+    public int getLevel() {
+        return level;
+    }
+
+    /**
+     * Gets the number of space objects left in the game.
+     *
+     * @return The final object count.
+     */
+    public int getObjectCount() {
+        return objectCount;
+    }
+
+    /**
+     * Gets the number of collisions of the given type resolved during the run.
+     *
+     * @param type The type of collision.
+     * @return The number of collisions of that type.
+     */
+    public long getCollisions(CollisionType type) {
+        return collisions[type.ordinal()];
+    }
+
+    @Override
+    public String toString() {
+        return String.format("seed=%d ticks=%d survived=%b score=%d health=%d level=%d "
+                        + "objects=%d ticks/sec=%.0f",
+                seed, ticks, survived, score, health, level, objectCount, getTicksPerSecond());
+    }
+}
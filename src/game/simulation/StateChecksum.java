@@ -0,0 +1,59 @@
+package game.simulation;
+
+import game.GameModel;
+import game.core.Ship;
+import game.core.SpaceObject;
+
+import java.util.List;
+
+/**
+ * Computes a 64-bit checksum of the observable state of a GameModel, for checking that a
+ * replayed game matches the original at the same tick.
+ */
+public final class StateChecksum {
+    private static final long OFFSET = 0xCBF29CE484222325L;
+    private static final long PRIME = 0x100000001B3L;
+
+    private StateChecksum() {
+    }
+
+    /**
+     * Computes the checksum of the ship, level and every space object in the model,
+     * including the order of the objects. A model whose ships have all been removed has a
+     * checksum of its own.
+     *
+     * @param model The model to checksum.
+     * @return The checksum of the model's state.
+     */
+    public static long of(GameModel model) {
+        Ship ship = model.getShip();
+        long hash = OFFSET;
+        if (ship == null) {
+            hash = mix(hash, -1); // no ship is ever at x = -1
+        } else {
+            hash = mix(hash, ship.getX());
+            hash = mix(hash, ship.getY());
+            hash = mix(hash, ship.getHealth());
+            hash = mix(hash, ship.getScore());
+        }
+        hash = mix(hash, model.getLevel());
+        List<SpaceObject> objects = model.getSpaceObjects();
+        int size = objects.size();
+        hash = mix(hash, size);
+        for (int i = 0; i < size; i++) {
+            SpaceObject object = objects.get(i);
+            hash = mix(hash, object.getType().getId());
+            hash = mix(hash, object.getX());
+            hash = mix(hash, object.getY());
+        }
+        return hash;
+    }
+
+    private static long mix(long hash, int value) {
+        for (int shift = 0; shift < 32; shift += 8) {
+            hash ^= (value >>> shift) & 0xFF;
+            hash *= PRIME;
+        }
+        return hash;
+    }
+}
@@ -0,0 +1,70 @@
+package game.spawn;
+
+import game.GameModel;
+import game.core.EntityType;
+import game.utility.StatefulRandom;
+
+/**
+ * The original spawn rules, drawing every decision from one shared Random.
+ *
+ * Each tick rolls for an asteroid, an enemy and a power-up in turn, drawing a column for each roll
+ * that succeeds and a kind for each power-up that is not blocked. The number of draws therefore
+ * depends on earlier outcomes, so any change to one decision shifts every later spawn. This is
+ * the default director, and a given seed produces the same games as it always has.
+ */
+public class ClassicSpawnDirector implements SpawnDirector {
+    private final StatefulRandom random = new StatefulRandom();
+
+    @Override
+    public void spawn(Target target) {
+        int spawnRate = target.getSpawnRate();
+        int width = target.getWidth();
+        if (random.nextInt(100) < spawnRate) {
+            int x = random.nextInt(width);
+            if (!target.isBlocked(x)) {
+                target.spawn(EntityType.ASTEROID, x);
+            }
+        }
+
+        if (random.nextInt(100) < spawnRate * GameModel.ENEMY_SPAWN_RATE) {
+            int x = random.nextInt(width);
+            if (!target.isBlocked(x)) {
+                target.spawn(EntityType.ENEMY, x);
+            }
+        }
+        if (random.nextInt(100) < spawnRate * GameModel.POWER_UP_SPAWN_RATE) {
+            int x = random.nextInt(width);
+            if (!target.isBlocked(x)) {
+                target.spawn(random.nextBoolean()
+                        ? EntityType.SHIELD_POWER_UP : EntityType.HEALTH_POWER_UP, x);
+            }
+        }
+    }
+
+    @Override
+    public void setSeed(int seed) {
+        random.setSeed(seed);
+    }
+
+    /**
+     * Gets the 48-bit state of the Random instance.
+     *
+     * @return The state of the Random instance.
+     */
+    @Override
+    public long getState() {
+        return random.getState();
+    }
+
+    @Override
+    public void setState(long state) {
+        random.setState(state);
+    }
+
+    @Override
+    public SpawnDirector copy() {
+        ClassicSpawnDirector copy = new ClassicSpawnDirector();
+        copy.setState(getState());
+        return copy;
+    }
+}
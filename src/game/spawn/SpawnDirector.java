@@ -0,0 +1,87 @@
+package game.spawn;
+
+import game.core.EntityType;
+
+/**
+ * Decides which objects appear at the top of the board each tick.
+ *
+ * A GameModel asks its director for the spawns of one tick each time spawnObjects() is called,
+ * and the director adds them through a Target, which creates the objects. A director holds all of
+ * its own random state, so the same seed always produces the same spawns, and that state can be
+ * read and restored to save and resume a game exactly.
+ */
+public interface SpawnDirector {
+
+    /**
+     * The game a director spawns objects into.
+     */
+    interface Target {
+
+        /**
+         * Gets the number of columns objects can spawn in.
+         *
+         * @return The width of the board.
+         */
+        int getWidth();
+
+        /**
+         * Gets the current spawn rate.
+         *
+         * @return The spawn rate, as a percentage chance per tick.
+         */
+        int getSpawnRate();
+
+        /**
+         * Returns whether a ship is in the top cell of the given column, so nothing can spawn
+         * there.
+         *
+         * @param x The column to check.
+         * @return True if spawning in the column is blocked.
+         */
+        boolean isBlocked(int x);
+
+        /**
+         * Adds a new object of the given type to the top cell of the given column.
+         *
+         * @param type The type of object to spawn.
+         * @param x The column to spawn it in.
+         */
+        void spawn(EntityType type, int x);
+    }
+
+    /**
+     * Adds the objects spawned at the next tick to the target.
+     *
+     * @param target The game to spawn the objects into.
+     */
+    void spawn(Target target);
+
+    /**
+     * Restarts the director's random sequence from the given seed.
+     *
+     * @param seed The seed.
+     */
+    void setSeed(int seed);
+
+    /**
+     * Gets the director's random state, so the game can be saved and resumed with the same
+     * sequence of spawns.
+     *
+     * @return The state, which can be passed to setState() to continue from here.
+     */
+    long getState();
+
+    /**
+     * Restores a state returned by getState() on a director of the same class.
+     *
+     * @param state The state to continue from.
+     */
+    void setState(long state);
+
+    /**
+     * Returns an independent director of the same kind in the same state, for forking a game.
+     *
+     * @return The copy.
+     */
+    SpawnDirector copy();
+}
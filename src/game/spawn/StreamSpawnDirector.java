@@ -0,0 +1,203 @@
+package game.spawn;
+
+import game.GameModel;
+import game.core.EntityType;
+
+import java.util.SplittableRandom;
+
+/**
+ * A spawn director that gives asteroids, enemies and power-ups independent random streams and
+ * draws them in batches ahead of time.
+ *
+ * Time is divided into batches of a fixed number of ticks. The stream for one category in one
+ * batch is a SplittableRandom seeded from the game seed, the category and the batch number alone,
+ * so any batch can be computed on its own, in any order and on any thread, and always gives the
+ * same spawns. Every tick makes the same draws whether or not anything spawns: a roll, a column
+ * and, for power-ups, a kind. Changing how one category is decided therefore never shifts the
+ * spawns of another category or of a later tick.
+ *
+ * Draws do not depend on the spawn rate or the board width, which are applied as each tick is
+ * spawned, so a level up in the middle of a batch takes effect straight away. Filling a batch
+ * costs a fixed amount per tick, and spawning a tick only reads the precomputed draws.
+ *
+ * The state is the seed and the number of ticks spawned since seeding, packed into a long, so a
+ * saved game resumes part-way through a batch.
+ */
+public class StreamSpawnDirector implements SpawnDirector {
+    /** The number of ticks drawn at a time, unless another size is given. */
+    public static final int DEFAULT_BATCH_TICKS = 256;
+
+    private static final int ASTEROID = 0;
+    private static final int ENEMY = 1;
+    private static final int POWER_UP = 2;
+    private static final int CATEGORIES = 3;
+    private static final long GOLDEN_GAMMA = 0x9E3779B97F4A7C15L;
+
+    private final int batchTicks;
+    /** Draws for the loaded batch, indexed by category * batchTicks + tick in batch. */
+    private final byte[] rolls;
+    private final int[] columns;
+    private final boolean[] shields;
+
+    private int seed;
+    private long cursor;
+    private long loadedBatch = -1;
+
+    /**
+     * Constructs a StreamSpawnDirector that draws DEFAULT_BATCH_TICKS ticks at a time.
+     * Until it is seeded, it uses a seed that is very likely to differ from any other.
+     */
+    public StreamSpawnDirector() {
+        this(DEFAULT_BATCH_TICKS);
+    }
+
+    /**
+     * Constructs a StreamSpawnDirector.
+     * Until it is seeded, it uses a seed that is very likely to differ from any other.
+     *
+     * @param batchTicks The number of ticks drawn at a time.
+     * @throws IllegalArgumentException If batchTicks is not positive.
+     */
+    public StreamSpawnDirector(int batchTicks) {
+        if (batchTicks <= 0) {
+            throw new IllegalArgumentException("Batch size must be positive: " + batchTicks);
+        }
+        this.batchTicks = batchTicks;
+        this.rolls = new byte[CATEGORIES * batchTicks];
+        this.columns = new int[CATEGORIES * batchTicks];
+        this.shields = new boolean[batchTicks];
+        this.seed = new SplittableRandom().nextInt();
+    }
+
+    /**
+     * Constructs a copy of the given director, including its loaded batch.
+     */
+    private StreamSpawnDirector(StreamSpawnDirector other) {
+        this.batchTicks = other.batchTicks;
+        this.rolls = other.rolls.clone();
+        this.columns = other.columns.clone();
+        this.shields = other.shields.clone();
+        this.seed = other.seed;
+        this.cursor = other.cursor;
+        this.loadedBatch = other.loadedBatch;
+    }
+
+    @Override
+    public void spawn(Target target) {
+        long batch = cursor / batchTicks;
+        int tick = (int) (cursor % batchTicks);
+        if (batch != loadedBatch) {
+            fill(batch);
+        }
+        cursor++;
+
+        int spawnRate = target.getSpawnRate();
+        int width = target.getWidth();
+        if (rolls[ASTEROID * batchTicks + tick] < spawnRate) {
+            spawnIn(target, EntityType.ASTEROID, column(ASTEROID, tick, width));
+        }
+        if (rolls[ENEMY * batchTicks + tick] < spawnRate * GameModel.ENEMY_SPAWN_RATE) {
+            spawnIn(target, EntityType.ENEMY, column(ENEMY, tick, width));
+        }
+        if (rolls[POWER_UP * batchTicks + tick] < spawnRate * GameModel.POWER_UP_SPAWN_RATE) {
+            spawnIn(target, shields[tick] ? EntityType.SHIELD_POWER_UP
+                    : EntityType.HEALTH_POWER_UP, column(POWER_UP, tick, width));
+        }
+    }
+
+    private static void spawnIn(Target target, EntityType type, int x) {
+        if (!target.isBlocked(x)) {
+            target.spawn(type, x);
+        }
+    }
+
+    /**
+     * Maps a drawn 32-bit value onto a column by multiplying and shifting, which is uniform to
+     * within one part in 2^32 divided by the width.
+     */
+    private int column(int category, int tick, int width) {
+        return (int) (((columns[category * batchTicks + tick] & 0xFFFFFFFFL) * width) >>> 32);
+    }
+
+    /**
+     * Draws every category's values for the given batch.
+     */
+    private void fill(long batch) {
+        for (int category = 0; category < CATEGORIES; category++) {
+            SplittableRandom stream = new SplittableRandom(streamSeed(seed, category, batch));
+            int base = category * batchTicks;
+            for (int i = 0; i < batchTicks; i++) {
+                rolls[base + i] = (byte) stream.nextInt(100);
+                columns[base + i] = stream.nextInt();
+                if (category == POWER_UP) {
+                    shields[i] = stream.nextBoolean();
+                }
+            }
+        }
+        loadedBatch = batch;
+    }
+
+    /**
+     * Derives the seed of one category's stream in one batch, mixing in the category and then
+     * the batch so that neighbouring categories and batches get unrelated streams.
+     *
+     * @param seed The game seed.
+     * @param category The spawn category.
+     * @param batch The batch number.
+     * @return The seed for the stream.
+     */
+    private static long streamSeed(int seed, int category, long batch) {
+        long z = mix(seed * GOLDEN_GAMMA + category);
+        return mix(z + batch * GOLDEN_GAMMA);
+    }
+
+    /**
+     * The 64-bit finalizer from MurmurHash3, which spreads every input bit over the result.
+     */
+    private static long mix(long z) {
+        z = (z ^ (z >>> 33)) * 0xFF51AFD7ED558CCDL;
+        z = (z ^ (z >>> 33)) * 0xC4CEB9FE1A85EC53L;
+        return z ^ (z >>> 33);
+    }
+
+    /**
+     * Gets the number of ticks spawned since the director was last seeded.
+     *
+     * @return The number of ticks spawned.
+     */
+    public long getTicksSpawned() {
+        return cursor;
+    }
+
+    @Override
+    public void setSeed(int seed) {
+        this.seed = seed;
+        this.cursor = 0;
+        this.loadedBatch = -1;
+    }
+
+    /**
+     * Gets the seed in the high 32 bits and the number of ticks spawned in the low 32 bits.
+     *
+     * @return The packed state.
+     */
+    @Override
+    public long getState() {
+        return ((long) seed << 32) | (cursor & 0xFFFFFFFFL);
+    }
+
+    @Override
+    public void setState(long state) {
+        int newSeed = (int) (state >>> 32);
+        if (newSeed != seed) {
+            loadedBatch = -1;
+        }
+        seed = newSeed;
+        cursor = state & 0xFFFFFFFFL;
+    }
+
+    @Override
+    public SpawnDirector copy() {
+        return new StreamSpawnDirector(this);
+    }
+}
@@ -0,0 +1,229 @@
+package game.utility;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Supplier;
+
+/**
+ * A logger that filters messages by level and hands them to another logger on a background
+ * thread, so callers never block on console or UI output.
+ *
+ * Messages go into a bounded lock-free ring buffer that any number of threads can write to.
+ * Lazily built messages are stored as their supplier and only formatted by the background
+ * thread. If the buffer is full the message is dropped and counted rather than waiting. The
+ * background thread sleeps while the buffer is empty and is woken by the next message, so an
+ * idle logger costs nothing. A message whose supplier or delegate throws is counted and skipped.
+ * Messages logged after close() are not lost: once the background thread has stopped, they are
+ * passed to the other logger straight away, on the thread that logged them.
+ */
+public class AsyncLogger implements Logger, AutoCloseable {
+    private final Logger delegate;
+    private final Object[] messages;
+    private final AtomicLongArray sequences;
+    private final int mask;
+    private final AtomicLong tail = new AtomicLong();
+    private final AtomicLong dropped = new AtomicLong();
+    private final AtomicLong failed = new AtomicLong();
+    private long head; // used by the consumer thread, then under the lock once it has stopped
+    private volatile LogLevel threshold;
+    private volatile boolean running = true;
+    private volatile boolean idle; // whether the background thread is parked or about to park
+    private final Thread consumer;
+
+    /**
+     * Constructs an AsyncLogger and starts its background thread.
+     *
+     * @param delegate The logger messages are passed on to, from the background thread.
+     * @param threshold The least severe level that should be logged.
+     * @param capacity The maximum number of pending messages, rounded up to a power of two.
+     */
+    public AsyncLogger(Logger delegate, LogLevel threshold, int capacity) {
+        int size = Integer.highestOneBit(Math.max(2, capacity) - 1) << 1;
+        this.delegate = delegate;
+        this.threshold = threshold;
+        this.messages = new Object[size];
+        this.sequences = new AtomicLongArray(size);
+        this.mask = size - 1;
+        for (int i = 0; i < size; i++) {
+            sequences.set(i, i);
+        }
+        this.consumer = new Thread(this::drainLoop, "async-logger");
+        consumer.setDaemon(true);
+        consumer.start();
+    }
+
+    /**
+     * Constructs an AsyncLogger that logs INFO and above with room for 4096 pending messages.
+     *
+     * @param delegate The logger messages are passed on to, from the background thread.
+     */
+    public AsyncLogger(Logger delegate) {
+        this(delegate, LogLevel.INFO, 4096);
+    }
+
+    /**
+     * Logs a message at INFO level.
+     *
+     * @param text The message to log.
+     */
+    @Override
+    public void log(String text) {
+        log(LogLevel.INFO, text);
+    }
+
+    @Override
+    public boolean isEnabled(LogLevel level) {
+        return level.isAtLeast(threshold);
+    }
+
+    @Override
+    public void log(LogLevel level, String text) {
+        if (isEnabled(level)) {
+            offer(text);
+        }
+    }
+
+    @Override
+    public void log(LogLevel level, Supplier<String> message) {
+        if (isEnabled(level)) {
+            offer(message);
+        }
+    }
+
+    /**
+     * Changes the least severe level that should be logged.
+     *
+     * @param threshold The new threshold.
+     */
+    public void setThreshold(LogLevel threshold) {
+        this.threshold = threshold;
+    }
+
+    /**
+     * Gets the number of messages dropped because the buffer was full.
+     *
+     * @return The number of dropped messages.
+     */
+    public long getDroppedCount() {
+        return dropped.get();
+    }
+
+    /**
+     * Gets the number of messages that could not be logged because building the message or
+     * passing it to the other logger threw an exception.
+     *
+     * @return The number of failed messages.
+     */
+    public long getFailedCount() {
+        return failed.get();
+    }
+
+    /**
+     * Stops the background thread after it has logged every pending message. Messages logged
+     * from now on are passed to the other logger by the thread that logs them.
+     */
+    @Override
+    public void close() {
+        running = false;
+        LockSupport.unpark(consumer);
+        try {
+            consumer.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return;
+        }
+        drainAfterClose();
+    }
+
+    /**
+     * Logs the messages the background thread did not see before it stopped. Messages published
+     * after its final drain were published after running was cleared, so whoever published them
+     * drains them here, once the background thread has finished.
+     */
+    private synchronized void drainAfterClose() {
+        if (!consumer.isAlive()) {
+            drain();
+        }
+    }
+
+    private void offer(Object message) {
+        long position = tail.get();
+        while (true) {
+            int index = (int) position & mask;
+            long difference = sequences.get(index) - position;
+            if (difference == 0) {
+                if (tail.compareAndSet(position, position + 1)) {
+                    messages[index] = message;
+                    // A full fence, so this cannot pass a close() that reads it as unpublished.
+                    sequences.set(index, position + 1);
+                    if (!running) {
+                        drainAfterClose();
+                    } else if (idle) {
+                        LockSupport.unpark(consumer);
+                    }
+                    return;
+                }
+                position = tail.get();
+            } else if (difference < 0) {
+                dropped.incrementAndGet();
+                return;
+            } else {
+                position = tail.get();
+            }
+        }
+    }
+
+    /**
+     * Logs messages until close() is called, parking whenever the buffer is empty. The thread
+     * announces that it is idle before checking the buffer one last time, and a producer checks
+     * for that after publishing, so either the check sees the message or the producer unparks
+     * the thread.
+     */
+    private void drainLoop() {
+        while (running) {
+            if (!drain()) {
+                idle = true;
+                if (!hasPending() && running) {
+                    LockSupport.park(this);
+                }
+                idle = false;
+            }
+        }
+        drain();
+    }
+
+    private boolean hasPending() {
+        return sequences.get((int) head & mask) == head + 1;
+    }
+
+    /**
+     * Passes every published message to the delegate.
+     *
+     * @return True if any message was logged.
+     */
+    private boolean drain() {
+        boolean any = false;
+        while (true) {
+            int index = (int) head & mask;
+            if (sequences.get(index) != head + 1) {
+                return any;
+            }
+            Object message = messages[index];
+            messages[index] = null;
+            sequences.lazySet(index, head + messages.length);
+            head++;
+            any = true;
+            try {
+                if (message instanceof Supplier) {
+                    delegate.log(String.valueOf(((Supplier<?>) message).get()));
+                } else {
+                    delegate.log((String) message);
+                }
+            } catch (RuntimeException e) {
+                // A failing message must not stop the messages behind it.
+                failed.incrementAndGet();
+            }
+        }
+    }
+}
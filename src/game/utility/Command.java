@@ -0,0 +1,65 @@
+package game.utility;
+
+/**
+ * Represents a player command parsed from a key press.
+ * Movement commands carry the direction the ship should move in.
+ */
+public enum Command {
+    UP(Direction.UP),
+    DOWN(Direction.DOWN),
+    LEFT(Direction.LEFT),
+    RIGHT(Direction.RIGHT),
+    FIRE(null),
+    PAUSE(null);
+
+    private final Direction direction;
+
+    Command(Direction direction) {
+        this.direction = direction;
+    }
+
+    /**
+     * Gets the direction a movement command moves the ship in.
+     *
+     * @return The direction, or null if this is not a movement command.
+     */
+    public Direction getDirection() {
+        return direction;
+    }
+
+    /**
+     * Parses a key press into a command (W, A, S, D for movement, F for firing, and P for pausing).
+     * The key is not case-sensitive. Only the key's single character is examined, so parsing
+     * neither allocates nor compares strings.
+     *
+     * @param key The key pressed by the player.
+     * @return The matching command, or null if the key is not a valid command.
+     */
+    public static Command fromKey(String key) {
+        if (key.length() != 1) {
+            return null;
+        }
+        switch (key.charAt(0)) {
+            case 'W':
+            case 'w':
+                return UP;
+            case 'S':
+            case 's':
+                return DOWN;
+            case 'A':
+            case 'a':
+                return LEFT;
+            case 'D':
+            case 'd':
+                return RIGHT;
+            case 'F':
+            case 'f':
+                return FIRE;
+            case 'P':
+            case 'p':
+                return PAUSE;
+            default:
+                return null;
+        }
+    }
+}
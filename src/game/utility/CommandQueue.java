@@ -0,0 +1,99 @@
+package game.utility;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+
+/**
+ * A bounded lock-free queue of commands from one producer thread to one consumer thread,
+ * such as from the UI's key callback to the thread running the simulation.
+ *
+ * The producer only writes the tail and the consumer only writes the head, so neither side
+ * ever waits for the other or takes a lock. Commands are stored as references to enum
+ * constants in a fixed array, so queueing never allocates. If the queue is full the command
+ * is dropped and counted rather than waiting.
+ */
+public class CommandQueue {
+    private final Command[] commands;
+    private final int mask;
+    private final AtomicLong head = new AtomicLong(); // written only by the consumer
+    private final AtomicLong tail = new AtomicLong(); // written only by the producer
+    private long cachedHead; // the producer's last view of head
+    private final AtomicLong dropped = new AtomicLong();
+
+    /**
+     * Constructs an empty CommandQueue.
+     *
+     * @param capacity The maximum number of pending commands, rounded up to a power of two.
+     */
+    public CommandQueue(int capacity) {
+        int size = Integer.highestOneBit(Math.max(2, capacity) - 1) << 1;
+        this.commands = new Command[size];
+        this.mask = size - 1;
+    }
+
+    /**
+     * Adds a command to the queue. Must only be called from the producer thread.
+     *
+     * @param command The command to add.
+     * @return False if the queue was full and the command was dropped.
+     */
+    public boolean offer(Command command) {
+        long position = tail.get();
+        if (position - cachedHead == commands.length) {
+            cachedHead = head.get();
+            if (position - cachedHead == commands.length) {
+                dropped.incrementAndGet();
+                return false;
+            }
+        }
+        commands[(int) position & mask] = command;
+        tail.lazySet(position + 1);
+        return true;
+    }
+
+    /**
+     * Passes every queued command to the consumer in the order they were offered, then
+     * removes them. Commands offered while draining are left for the next call.
+     * Must only be called from the consumer thread.
+     *
+     * @param consumer Receives each command.
+     * @return The number of commands drained.
+     */
+    public int drain(Consumer<Command> consumer) {
+        long position = head.get();
+        long limit = tail.get();
+        if (position == limit) {
+            return 0;
+        }
+        int count = (int) (limit - position);
+        try {
+            while (position < limit) {
+                int index = (int) position++ & mask;
+                Command command = commands[index];
+                commands[index] = null;
+                consumer.accept(command);
+            }
+        } finally {
+            head.lazySet(position);
+        }
+        return count;
+    }
+
+    /**
+     * Returns whether no commands are waiting.
+     *
+     * @return True if the queue is empty.
+     */
+    public boolean isEmpty() {
+        return head.get() == tail.get();
+    }
+
+    /**
+     * Gets the number of commands dropped because the queue was full.
+     *
+     * @return The number of dropped commands.
+     */
+    public long getDroppedCount() {
+        return dropped.get();
+    }
+}
@@ -0,0 +1,23 @@
+package game.utility;
+
+/**
+ * The severity of a log message, from least to most severe.
+ */
+public enum LogLevel {
+    /** Frequent, low-level events such as individual moves and shots. */
+    DEBUG,
+    /** Notable game events such as collisions and level changes. */
+    INFO,
+    /** Problems the game can recover from. */
+    WARN;
+
+    /**
+     * Returns whether this level is at least as severe as the given threshold.
+     *
+     * @param threshold The least severe level that should be logged.
+     * @return True if messages at this level pass the threshold.
+     */
+    public boolean isAtLeast(LogLevel threshold) {
+        return compareTo(threshold) >= 0;
+    }
+}
@@ -1,8 +1,12 @@
 package game.utility;
 
+import java.util.function.Supplier;
+
 /**
  * Represents a logger that logs text messages.
  * Implementations of this interface will define how the messages are logged.
+ * Messages can be given a level, and built lazily so that nothing is formatted when
+ * the level is disabled.
  */
 public interface Logger {
 
@@ -12,4 +16,41 @@ public interface Logger {
      * @param text The message to log.
      */
     void log(String text);
+
+    /**
+     * Returns whether messages at the given level will be logged.
+     * By default every level is enabled.
+     *
+     * @param level The level to check.
+     * @return True if messages at the level are logged.
+     */
+    default boolean isEnabled(LogLevel level) {
+        return true;
+    }
+
+    /**
+     * Logs a message at the given level, if that level is enabled.
+     *
+     * @param level The level of the message.
+     * @param text The message to log.
+     */
+    default void log(LogLevel level, String text) {
+        if (isEnabled(level)) {
+            log(text);
+        }
+    }
+
+    /**
+     * Logs a lazily built message at the given level. The supplier is only called if the
+     * level is enabled, and may be called later on another thread, so it should only capture
+     * values that will not change.
+     *
+     * @param level The level of the message.
+     * @param message Builds the message to log.
+     */
+    default void log(LogLevel level, Supplier<String> message) {
+        if (isEnabled(level)) {
+            log(message.get());
+        }
+    }
 }
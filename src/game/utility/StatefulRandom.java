@@ -0,0 +1,66 @@
+package game.utility;
+
+import java.util.Random;
+
+/**
+ * A Random whose internal state can be read and restored, so a game's random sequence can be
+ * saved and resumed exactly. It uses the same linear congruential generator as java.util.Random,
+ * so it produces the same sequence as a Random given the same seed.
+ *
+ * Unlike java.util.Random it is not thread-safe.
+ */
+public class StatefulRandom extends Random {
+    private static final long serialVersionUID = 1L;
+
+    private static final long MULTIPLIER = 0x5DEECE66DL;
+    private static final long ADDEND = 0xBL;
+    private static final long MASK = (1L << 48) - 1;
+
+    private long state;
+
+    /**
+     * Constructs a StatefulRandom with a seed that is very likely to differ from any other.
+     */
+    public StatefulRandom() {
+        super();
+    }
+
+    /**
+     * Constructs a StatefulRandom with the given seed.
+     *
+     * @param seed The initial seed.
+     */
+    public StatefulRandom(long seed) {
+        super(seed);
+    }
+
+    @Override
+    public void setSeed(long seed) {
+        super.setSeed(seed);
+        state = (seed ^ MULTIPLIER) & MASK;
+    }
+
+    @Override
+    protected int next(int bits) {
+        state = (state * MULTIPLIER + ADDEND) & MASK;
+        return (int) (state >>> (48 - bits));
+    }
+
+    /**
+     * Gets the current 48-bit state of the generator.
+     *
+     * @return The state, which can be passed to setState() to continue the sequence from here.
+     */
+    public long getState() {
+        return state;
+    }
+
+    /**
+     * Restores a state returned by getState().
+     *
+     * @param state The state to continue the sequence from.
+     */
+    public void setState(long state) {
+        this.state = state & MASK;
+    }
+}
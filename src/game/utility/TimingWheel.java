@@ -0,0 +1,393 @@
+package game.utility;
+
+import java.util.Arrays;
+
+/**
+ * A hierarchical timing wheel that holds items until the tick they are due.
+ *
+ * Level 0 has one slot for each of the next 64 ticks, and each level above has 64 slots that are
+ * each 64 times as wide as those below, so four levels cover 2^24 ticks; items due later wait in
+ * an overflow list. An item is filed in the lowest level whose slot will not be reached before it
+ * is due, and when time reaches a slot on a higher level its items are re-filed into the levels
+ * below. Scheduling, cancelling and firing an item take constant time, and advancing a tick only
+ * touches the items due at that tick and the occasional slot being re-filed, however many items
+ * are waiting.
+ *
+ * Each item is held at most once. Items are found by identity through an open-addressed table,
+ * so scheduling an item that is already waiting moves it to the new tick. An item that falls due
+ * is rescheduled by the value its handler returns, which needs no lookup at all.
+ *
+ * A wheel is not thread-safe, and should only be used by the thread that advances it.
+ *
+ * @param <T> The type of item held.
+ */
+public class TimingWheel<T> {
+    /** A due tick that is never reached; scheduling an item for it cancels the item. */
+    public static final long NEVER = Long.MAX_VALUE;
+
+    private static final int SLOT_BITS = 6;
+    private static final int SLOTS = 1 << SLOT_BITS;
+    private static final int SLOT_MASK = SLOTS - 1;
+    private static final int LEVELS = 4;
+
+    /** List ids; each list is circular and doubly linked through a sentinel entry of the same index. */
+    private static final int OVERFLOW = LEVELS * SLOTS;
+    private static final int READY = OVERFLOW + 1;
+    private static final int FIRING = OVERFLOW + 2;
+    private static final int REFILING = OVERFLOW + 3;
+    private static final int LISTS = OVERFLOW + 4;
+
+    private static final int NONE = -1;
+    private static final int INITIAL_CAPACITY = 64;
+
+    private Object[] items;
+    private long[] dues;
+    private int[] next;
+    private int[] prev;
+    private int highWater;
+    private int freeHead;
+
+    /** Open-addressed table from item identity to entry. */
+    private int[] table;
+    private int size;
+
+    private long now;
+
+    /** The entry being passed to a handler, and what was done to it through schedule() or cancel(). */
+    private int firing = NONE;
+    private boolean firingScheduled;
+    private boolean firingCancelled;
+
+    /**
+     * Receives each item as it falls due.
+     *
+     * @param <T> The type of item.
+     */
+    @FunctionalInterface
+    public interface Handler<T> {
+
+        /**
+         * Acts on an item that is due and returns when it is next due.
+         *
+         * @param item The item that is due.
+         * @return The tick the item is next due, or NEVER to remove it from the wheel.
+         */
+        long fire(T item);
+    }
+
+    /**
+     * Constructs an empty TimingWheel.
+     *
+     * @param now The current tick; items are due after it.
+     */
+    public TimingWheel(long now) {
+        int capacity = LISTS + INITIAL_CAPACITY;
+        items = new Object[capacity];
+        dues = new long[capacity];
+        next = new int[capacity];
+        prev = new int[capacity];
+        table = new int[INITIAL_CAPACITY * 2];
+        clear(now);
+    }
+
+    /**
+     * Removes every item and sets the current tick.
+     *
+     * @param now The new current tick.
+     */
+    public void clear(long now) {
+        Arrays.fill(items, null);
+        for (int list = 0; list < LISTS; list++) {
+            next[list] = list;
+            prev[list] = list;
+        }
+        highWater = LISTS;
+        freeHead = NONE;
+        Arrays.fill(table, NONE);
+        size = 0;
+        this.now = now;
+    }
+
+    /**
+     * Gets the last tick the wheel was advanced to.
+     *
+     * @return The current tick.
+     */
+    public long getNow() {
+        return now;
+    }
+
+    /**
+     * Gets the number of items waiting in the wheel.
+     *
+     * @return The number of scheduled items.
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Returns whether the given item is waiting in the wheel.
+     *
+     * @param item The item to look for.
+     * @return True if the item is scheduled.
+     */
+    public boolean isScheduled(T item) {
+        return table[slotOf(item)] != NONE;
+    }
+
+    /**
+     * Schedules an item to fire when the wheel reaches the given tick, replacing any earlier
+     * schedule for the same item. Items due at or before the current tick fire on the next
+     * call to advance().
+     *
+     * @param item The item to schedule.
+     * @param due The tick the item is due, or NEVER to cancel it.
+     */
+    public void schedule(T item, long due) {
+        if (due == NEVER) {
+            cancel(item);
+            return;
+        }
+        int slot = slotOf(item);
+        int entry = table[slot];
+        if (entry == NONE) {
+            entry = allocate();
+            items[entry] = item;
+            table[slot] = entry;
+            size++;
+            if (size * 2 > table.length) {
+                rehash(table.length * 2);
+            }
+        } else if (entry == firing) {
+            dues[entry] = due;
+            firingScheduled = true;
+            return;
+        } else {
+            unlink(entry);
+        }
+        dues[entry] = due;
+        link(listFor(due), entry);
+    }
+
+    /**
+     * Removes an item from the wheel, so it does not fire.
+     *
+     * @param item The item to cancel.
+     * @return True if the item was scheduled.
+     */
+    public boolean cancel(T item) {
+        int slot = slotOf(item);
+        int entry = table[slot];
+        if (entry == NONE) {
+            return false;
+        }
+        removeSlot(slot);
+        if (entry == firing) {
+            firingCancelled = true;
+        } else {
+            unlink(entry);
+            free(entry);
+        }
+        return true;
+    }
+
+    /**
+     * Advances the wheel tick by tick up to the given tick, passing each item to the handler
+     * as it falls due and rescheduling it for the tick the handler returns. If the handler
+     * schedules or cancels the item itself, that takes the place of the returned tick. Items
+     * due at the current tick or earlier after being handled fire on the next call.
+     *
+     * @param tick The tick to advance to.
+     * @param handler Receives each item that falls due.
+     */
+    public void advance(long tick, Handler<? super T> handler) {
+        while (now < tick) {
+            long time = ++now;
+            if ((time & ((1L << (LEVELS * SLOT_BITS)) - 1)) == 0) {
+                refile(OVERFLOW);
+            }
+            for (int level = LEVELS - 1; level >= 1; level--) {
+                int shift = level * SLOT_BITS;
+                if ((time & ((1L << shift) - 1)) == 0) {
+                    refile(level * SLOTS + (int) ((time >> shift) & SLOT_MASK));
+                }
+            }
+            splice((int) (time & SLOT_MASK), FIRING);
+            splice(READY, FIRING);
+            fire(handler);
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private void fire(Handler<? super T> handler) {
+        while (next[FIRING] != FIRING) {
+            int entry = next[FIRING];
+            unlink(entry);
+            firing = entry;
+            firingScheduled = false;
+            firingCancelled = false;
+            long due;
+            boolean handled = false;
+            try {
+                due = handler.fire((T) items[entry]);
+                handled = true;
+            } finally {
+                firing = NONE;
+                if (!handled) {
+                    // An item whose handler throws is dropped, so the wheel stays consistent.
+                    if (!firingCancelled) {
+                        removeSlot(slotOf(items[entry]));
+                    }
+                    free(entry);
+                }
+            }
+            if (firingCancelled) {
+                free(entry);
+                continue;
+            }
+            if (firingScheduled) {
+                due = dues[entry];
+            }
+            if (due == NEVER) {
+                removeSlot(slotOf(items[entry]));
+                free(entry);
+            } else {
+                dues[entry] = due;
+                link(listFor(due), entry);
+            }
+        }
+    }
+
+    /**
+     * Files every entry of a list again for the current tick, which moves entries on a higher
+     * level down once their slot is reached.
+     */
+    private void refile(int list) {
+        splice(list, REFILING);
+        while (next[REFILING] != REFILING) {
+            int entry = next[REFILING];
+            unlink(entry);
+            link(listFor(dues[entry]), entry);
+        }
+    }
+
+    /**
+     * Chooses the list for an entry due at the given tick: the lowest level where the due tick
+     * and the current tick only differ in that level's slot and below.
+     */
+    private int listFor(long due) {
+        if (due <= now) {
+            return READY;
+        }
+        long difference = due ^ now;
+        for (int level = 0; level < LEVELS; level++) {
+            int shift = level * SLOT_BITS;
+            if (difference >>> (shift + SLOT_BITS) == 0) {
+                return level * SLOTS + (int) ((due >> shift) & SLOT_MASK);
+            }
+        }
+        return OVERFLOW;
+    }
+
+    private void link(int list, int entry) {
+        int tail = prev[list];
+        next[tail] = entry;
+        prev[entry] = tail;
+        next[entry] = list;
+        prev[list] = entry;
+    }
+
+    private void unlink(int entry) {
+        next[prev[entry]] = next[entry];
+        prev[next[entry]] = prev[entry];
+    }
+
+    /**
+     * Moves every entry of one list onto the end of another.
+     */
+    private void splice(int from, int to) {
+        int first = next[from];
+        if (first == from) {
+            return;
+        }
+        int last = prev[from];
+        int tail = prev[to];
+        next[tail] = first;
+        prev[first] = tail;
+        next[last] = to;
+        prev[to] = last;
+        next[from] = from;
+        prev[from] = from;
+    }
+
+    private int allocate() {
+        if (freeHead != NONE) {
+            int entry = freeHead;
+            freeHead = next[entry];
+            return entry;
+        }
+        if (highWater == items.length) {
+            int capacity = items.length * 2;
+            items = Arrays.copyOf(items, capacity);
+            dues = Arrays.copyOf(dues, capacity);
+            next = Arrays.copyOf(next, capacity);
+            prev = Arrays.copyOf(prev, capacity);
+        }
+        return highWater++;
+    }
+
+    private void free(int entry) {
+        items[entry] = null;
+        next[entry] = freeHead;
+        freeHead = entry;
+        size--;
+    }
+
+    private static int hash(Object item) {
+        int hash = System.identityHashCode(item) * 0x9E3779B9;
+        return hash ^ (hash >>> 16);
+    }
+
+    /**
+     * Returns the table slot holding the given item, or the empty slot where it would go.
+     */
+    private int slotOf(Object item) {
+        int mask = table.length - 1;
+        int slot = hash(item) & mask;
+        while (table[slot] != NONE && items[table[slot]] != item) {
+            slot = (slot + 1) & mask;
+        }
+        return slot;
+    }
+
+    /**
+     * Empties a table slot, shifting later entries of the same probe run back into it so
+     * lookups never need tombstones.
+     */
+    private void removeSlot(int slot) {
+        int mask = table.length - 1;
+        table[slot] = NONE;
+        int next = (slot + 1) & mask;
+        while (table[next] != NONE) {
+            int ideal = hash(items[table[next]]) & mask;
+            if (((next - ideal) & mask) >= ((next - slot) & mask)) {
+                table[slot] = table[next];
+                table[next] = NONE;
+                slot = next;
+            }
+            next = (next + 1) & mask;
+        }
+    }
+
+    private void rehash(int capacity) {
+        int[] oldTable = table;
+        table = new int[capacity];
+        Arrays.fill(table, NONE);
+        for (int entry : oldTable) {
+            if (entry != NONE) {
+                table[slotOf(items[entry])] = entry;
+            }
+        }
+    }
+}